@@ -0,0 +1,28 @@
+package org.policedog.registry.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds benchmark dogs straight through JDBC, spread over the three suppliers in {@code data.sql}.
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    public static void seedDogs(JdbcTemplate jdbcTemplate, long firstId, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{firstId + i, "Dog " + i, i % 2 == 0 ? "German Shepherd" : "Belgian Malinois",
+                    "BENCH-" + i, i % 2 == 0 ? "MALE" : "FEMALE", (i % 3) + 1});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO police_dog (id, name, breed, badge_number, gender, birth_date, date_acquired, status,
+                                        is_aggressive, temperament, deleted, version, supplier_id)
+                VALUES (?, ?, ?, ?, ?, '2020-01-01', '2020-06-01', 'IN_SERVICE', false, 'Calm', false, 1, ?)
+                """, rows);
+    }
+}
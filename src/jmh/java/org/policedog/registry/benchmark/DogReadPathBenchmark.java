@@ -0,0 +1,102 @@
+package org.policedog.registry.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.policedog.registry.ServiceDogRegistryApplication;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.domain.PoliceDog;
+import org.policedog.registry.dto.DogDetailDto;
+import org.policedog.registry.mapper.EntityDtoMapper;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the entity + MapStruct read path with the constructor projections in {@link PoliceDogRepository}.
+ * Both page queries share the same join, predicate and ordering so only the hydration differs.
+ * Run with {@code -prof gc} to see the allocation per operation alongside the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DogReadPathBenchmark {
+
+    private static final int DOG_COUNT = 5_000;
+    private static final int PAGE_NO = 10;
+    private static final long FIRST_SEEDED_ID = 1_000L;
+    private static final long DOG_ID = FIRST_SEEDED_ID + 2_500L;
+
+    private static final String PAGE_CONDITION = "WHERE d.deleted = false ORDER BY d.id";
+    private static final String ENTITY_PAGE_QUERY = "SELECT d FROM PoliceDog d LEFT JOIN FETCH d.supplier s " + PAGE_CONDITION;
+    private static final String PROJECTION_PAGE_QUERY = PoliceDogRepository.DOG_DETAIL_SELECT + PAGE_CONDITION;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private PoliceDogRepository dogRepository;
+    private EntityDtoMapper entityDtoMapper;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ServiceDogRegistryApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:hsqldb:mem:benchmark",
+                        "spring.jpa.open-in-view=false",
+                        "logging.level.root=WARN")
+                .run();
+        entityManager = context.getBean(EntityManager.class);
+        dogRepository = context.getBean(PoliceDogRepository.class);
+        entityDtoMapper = context.getBean(EntityDtoMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        BenchmarkData.seedDogs(context.getBean(JdbcTemplate.class), FIRST_SEEDED_ID, DOG_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<DogDetailDto> entityPage() {
+        return readOnlyTransaction.execute(status -> entityManager.createQuery(ENTITY_PAGE_QUERY, PoliceDog.class)
+                .setFirstResult(PAGE_NO * pageSize)
+                .setMaxResults(pageSize)
+                .getResultList()
+                .stream()
+                .map(entityDtoMapper::toDogDetailDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<DogDetailDto> projectionPage() {
+        return readOnlyTransaction.execute(status -> entityManager.createQuery(PROJECTION_PAGE_QUERY, DogDetailDto.class)
+                .setFirstResult(PAGE_NO * pageSize)
+                .setMaxResults(pageSize)
+                .getResultList());
+    }
+
+    @Benchmark
+    public DogDetailDto entityById() {
+        return readOnlyTransaction.execute(status ->
+                entityDtoMapper.toDogDetailDto(dogRepository.findById(DOG_ID).orElseThrow()));
+    }
+
+    @Benchmark
+    public DogDetailDto projectionById() {
+        return readOnlyTransaction.execute(status -> dogRepository.findDogDetailById(DOG_ID).orElseThrow());
+    }
+}
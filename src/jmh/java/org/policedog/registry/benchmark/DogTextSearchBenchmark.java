@@ -0,0 +1,100 @@
+package org.policedog.registry.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.policedog.registry.ServiceDogRegistryApplication;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.dto.DogDetailDto;
+import org.policedog.registry.dto.SearchFilter;
+import org.policedog.registry.search.DogTextIndex;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a name search run as {@code LIKE '%term%'} over every non-deleted dog with the same search
+ * restricted to the candidates of the {@link DogTextIndex}, reading a page and its count as the dog list
+ * does. The term matches at most a few seeded dogs, so the {@code LIKE} query reads the whole table to
+ * fill the page. {@code candidates} times the index lookup alone.
+ * <p>
+ * The index keeps no trigram positions, so a term whose trigrams are each common, such as
+ * {@code "Dog 999999"} among a million {@code "Dog <n>"} names, resolves more candidates than
+ * {@code registry.search.text-index.max-candidates} and falls back to the {@code LIKE} query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DogTextSearchBenchmark {
+
+    private static final long FIRST_SEEDED_ID = 1_000L;
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+    // Matches "Dog 12345" and, with a million dogs, the ten "Dog 12345x"
+    private static final String TERM = "Dog 12345";
+
+    @Param({"100000", "1000000"})
+    private int dogCount;
+
+    private ConfigurableApplicationContext context;
+    private PoliceDogRepository dogRepository;
+    private DogTextIndex dogTextIndex;
+    private TransactionTemplate readOnlyTransaction;
+    private SearchFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ServiceDogRegistryApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:hsqldb:mem:benchmark",
+                        "spring.jpa.open-in-view=false",
+                        "logging.level.root=WARN")
+                .run();
+        dogRepository = context.getBean(PoliceDogRepository.class);
+        dogTextIndex = context.getBean(DogTextIndex.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        BenchmarkData.seedDogs(context.getBean(JdbcTemplate.class), FIRST_SEEDED_ID, dogCount);
+        // The seeded dogs bypass the services, so the index is rebuilt to include them
+        dogTextIndex.rebuild();
+        filter = new SearchFilter(TERM, null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long likeScan() {
+        return readOnlyTransaction.execute(status -> {
+            Slice<DogDetailDto> page = dogRepository.searchDogDetails(filter, null, PAGE);
+            return page.getNumberOfElements() + dogRepository.countDogs(filter, null);
+        });
+    }
+
+    @Benchmark
+    public long textIndex() {
+        return readOnlyTransaction.execute(status -> {
+            List<Long> dogIds = dogTextIndex.candidateIds(filter).orElseThrow();
+            Slice<DogDetailDto> page = dogRepository.searchDogDetails(filter, dogIds, PAGE);
+            return page.getNumberOfElements() + dogRepository.countDogs(filter, dogIds);
+        });
+    }
+
+    @Benchmark
+    public Optional<List<Long>> candidates() {
+        return dogTextIndex.candidateIds(filter);
+    }
+}
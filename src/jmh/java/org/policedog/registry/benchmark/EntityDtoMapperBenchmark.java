@@ -0,0 +1,145 @@
+package org.policedog.registry.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.policedog.registry.domain.*;
+import org.policedog.registry.dto.DogDetailDto;
+import org.policedog.registry.dto.DogSummaryDto;
+import org.policedog.registry.dto.PageResponse;
+import org.policedog.registry.dto.SupplierDetailDto;
+import org.policedog.registry.mapper.EntityDtoMapper;
+import org.policedog.registry.mapper.EntityDtoMapperImpl;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline for the in-memory mapping done by {@link EntityDtoMapper}, without a database: converting pages
+ * of dogs with and without {@link Characteristics}, pages of suppliers with their dogs grouped up front, and
+ * single suppliers mapped together with their whole dogs collection.
+ * Run with {@code -prof gc} to see the allocation per operation; divide by the page size for the cost per DTO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityDtoMapperBenchmark {
+
+    private static final EntityDtoMapper MAPPER = new EntityDtoMapperImpl();
+
+    @State(Scope.Benchmark)
+    public static class DogPage {
+
+        @Param({"10", "100", "1000", "10000"})
+        int pageSize;
+
+        @Param({"true", "false"})
+        boolean withCharacteristics;
+
+        Page<PoliceDog> page;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Supplier supplier = supplier(1L);
+            List<PoliceDog> dogs = new ArrayList<>(pageSize);
+            for (int i = 0; i < pageSize; i++) {
+                dogs.add(dog(i, supplier, withCharacteristics));
+            }
+            page = new PageImpl<>(dogs, PageRequest.of(0, pageSize), pageSize * 10L);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SupplierPage {
+
+        @Param({"10", "100"})
+        int pageSize;
+
+        @Param({"10", "1000"})
+        int dogsPerSupplier;
+
+        Page<Supplier> page;
+        Map<Long, List<DogSummaryDto>> dogsBySupplierId;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            List<Supplier> suppliers = new ArrayList<>(pageSize);
+            dogsBySupplierId = new HashMap<>();
+            for (long supplierId = 1; supplierId <= pageSize; supplierId++) {
+                Supplier supplier = supplier(supplierId);
+                List<DogSummaryDto> dogSummaries = new ArrayList<>(dogsPerSupplier);
+                for (int i = 0; i < dogsPerSupplier; i++) {
+                    PoliceDog dog = dog((supplierId - 1) * dogsPerSupplier + i, supplier, true);
+                    supplier.getDogs().add(dog);
+                    dogSummaries.add(MAPPER.toDogSummaryDto(dog));
+                }
+                suppliers.add(supplier);
+                dogsBySupplierId.put(supplierId, dogSummaries);
+            }
+            page = new PageImpl<>(suppliers, PageRequest.of(0, pageSize), pageSize * 10L);
+        }
+    }
+
+    @Benchmark
+    public PageResponse<DogDetailDto> dogDetailPage(DogPage state) {
+        return MAPPER.toDogDetailPageResponse(state.page);
+    }
+
+    /**
+     * The supplier listing: supplier fields mapped per row, dogs already grouped by supplier ID.
+     */
+    @Benchmark
+    public PageResponse<SupplierDetailDto> supplierDetailPage(SupplierPage state) {
+        return MAPPER.toSupplierDetailPageResponse(state.page, state.dogsBySupplierId);
+    }
+
+    /**
+     * The single-supplier view, mapping each supplier's entity dogs collection.
+     */
+    @Benchmark
+    public List<SupplierDetailDto> supplierDetailWithDogs(SupplierPage state) {
+        return state.page.getContent().stream()
+                .map(MAPPER::toSupplierDetailDto)
+                .toList();
+    }
+
+    private static Supplier supplier(long id) {
+        Supplier supplier = new Supplier();
+        ReflectionTestUtils.setField(supplier, "id", id);
+        supplier.setCode("SUPPLIER_" + id);
+        supplier.setName("Supplier " + id);
+        supplier.setContactPerson("Contact " + id);
+        supplier.setEmail("contact" + id + "@supplier.com");
+        supplier.setPhone("555-" + id);
+        supplier.setDogs(new ArrayList<>());
+        return supplier;
+    }
+
+    private static PoliceDog dog(long id, Supplier supplier, boolean withCharacteristics) {
+        PoliceDog dog = new PoliceDog();
+        ReflectionTestUtils.setField(dog, "id", id);
+        ReflectionTestUtils.setField(dog, "version", 1L);
+        dog.setName("Dog " + id);
+        dog.setBreed(id % 2 == 0 ? "German Shepherd" : "Belgian Malinois");
+        dog.setSupplier(supplier);
+        dog.setBadgeNumber("BENCH-" + id);
+        dog.setGender(id % 2 == 0 ? Gender.MALE : Gender.FEMALE);
+        dog.setBirthDate(LocalDate.of(2020, 1, 1));
+        dog.setDateAcquired(LocalDate.of(2020, 6, 1));
+        dog.setStatus(Status.IN_SERVICE);
+        dog.setDeleted(false);
+        if (withCharacteristics) {
+            dog.setCharacteristics(new Characteristics(false, true, true, true, "Grain-free diet",
+                    true, "Daily agility training", false, null, "Calm"));
+        }
+        return dog;
+    }
+}
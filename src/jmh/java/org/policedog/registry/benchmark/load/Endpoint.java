@@ -0,0 +1,85 @@
+package org.policedog.registry.benchmark.load;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Read endpoints the load harness can drive, by the key used in the {@code mix} setting. Dog IDs are
+ * picked at random from the seeded range and suppliers from the three in {@code data.sql}.
+ */
+enum Endpoint {
+
+    DOG_BY_ID("dog-by-id") {
+        @Override
+        String path(Random random, LoadSettings settings) {
+            return "/api/dogs/dogs/" + randomDogId(random, settings);
+        }
+    },
+    DOG_PAGE("dog-page") {
+        @Override
+        String path(Random random, LoadSettings settings) {
+            return "/api/dogs/dogs?pageSize=20&pageNo=" + random.nextInt(settings.dogs() / 20);
+        }
+    },
+    DOG_CURSOR("dog-cursor") {
+        @Override
+        String path(Random random, LoadSettings settings) {
+            return "/api/dogs/dogs/cursor?pageSize=20";
+        }
+    },
+    DOG_SEARCH("dog-search") {
+        @Override
+        String path(Random random, LoadSettings settings) {
+            return "/api/dogs/dogs/search/by-gender?pageSize=20&gender=" + (random.nextBoolean() ? "MALE" : "FEMALE");
+        }
+    },
+    SUPPLIER_BY_ID("supplier-by-id") {
+        @Override
+        String path(Random random, LoadSettings settings) {
+            return "/api/dogs/supplier/" + randomSupplierId(random) + "?dogs=SUMMARY";
+        }
+    },
+    SUPPLIER_PAGE("supplier-page") {
+        @Override
+        String path(Random random, LoadSettings settings) {
+            return "/api/dogs/supplier?pageSize=10&includeTotal=false";
+        }
+    },
+    SUPPLIER_DOGS("supplier-dogs") {
+        @Override
+        String path(Random random, LoadSettings settings) {
+            return "/api/dogs/supplier/" + randomSupplierId(random) + "/dogs?pageSize=20";
+        }
+    };
+
+    static final long FIRST_SEEDED_DOG_ID = 1_000L;
+    private static final int SUPPLIER_COUNT = 3;
+
+    private final String key;
+
+    Endpoint(String key) {
+        this.key = key;
+    }
+
+    abstract String path(Random random, LoadSettings settings);
+
+    String key() {
+        return key;
+    }
+
+    static Endpoint fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint " + key + ", expected one of "
+                        + Arrays.stream(values()).map(Endpoint::key).toList()));
+    }
+
+    private static long randomDogId(Random random, LoadSettings settings) {
+        return FIRST_SEEDED_DOG_ID + random.nextInt(settings.dogs());
+    }
+
+    private static long randomSupplierId(Random random) {
+        return 1 + random.nextInt(SUPPLIER_COUNT);
+    }
+}
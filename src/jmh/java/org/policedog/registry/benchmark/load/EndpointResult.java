@@ -0,0 +1,62 @@
+package org.policedog.registry.benchmark.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Latency percentiles in microseconds and throughput in requests per second of one endpoint.
+ */
+record EndpointResult(String endpoint, long p50, long p99, long p999, double throughput) {
+
+    static EndpointResult of(String endpoint, Histogram histogram, Duration duration) {
+        return new EndpointResult(endpoint,
+                histogram.getValueAtPercentile(50.0),
+                histogram.getValueAtPercentile(99.0),
+                histogram.getValueAtPercentile(99.9),
+                histogram.getTotalCount() / (duration.toMillis() / 1000.0));
+    }
+
+    static EndpointResult from(Properties properties, String endpoint) {
+        if (properties.getProperty(endpoint + ".p50") == null) {
+            return null;
+        }
+        return new EndpointResult(endpoint,
+                Long.parseLong(properties.getProperty(endpoint + ".p50")),
+                Long.parseLong(properties.getProperty(endpoint + ".p99")),
+                Long.parseLong(properties.getProperty(endpoint + ".p999")),
+                Double.parseDouble(properties.getProperty(endpoint + ".throughput")));
+    }
+
+    void writeTo(Properties properties) {
+        properties.setProperty(endpoint + ".p50", Long.toString(p50));
+        properties.setProperty(endpoint + ".p99", Long.toString(p99));
+        properties.setProperty(endpoint + ".p999", Long.toString(p999));
+        properties.setProperty(endpoint + ".throughput", String.format(Locale.ROOT, "%.1f", throughput));
+    }
+
+    /**
+     * Lists every latency percentile more than {@code threshold} above the baseline and a throughput more
+     * than {@code threshold} below it.
+     */
+    List<String> regressionsAgainst(EndpointResult baseline, double threshold) {
+        List<String> regressions = new ArrayList<>();
+        checkLatency(regressions, "p50", p50, baseline.p50, threshold);
+        checkLatency(regressions, "p99", p99, baseline.p99, threshold);
+        checkLatency(regressions, "p999", p999, baseline.p999, threshold);
+        if (throughput < baseline.throughput * (1 - threshold)) {
+            regressions.add("%s throughput %.1f/s is below baseline %.1f/s".formatted(endpoint, throughput, baseline.throughput));
+        }
+        return regressions;
+    }
+
+    private void checkLatency(List<String> regressions, String percentile, long value, long baselineValue, double threshold) {
+        if (value > baselineValue * (1 + threshold)) {
+            regressions.add("%s %s %dus is above baseline %dus".formatted(endpoint, percentile, value, baselineValue));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package org.policedog.registry.benchmark.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.policedog.registry.ServiceDogRegistryApplication;
+import org.policedog.registry.benchmark.BenchmarkData;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Boots the registry on a random port against an in-memory HSQLDB seeded with extra dogs, then drives a
+ * weighted mix of dog and supplier read endpoints from concurrent clients. Each client sends its next
+ * request as soon as the previous one returns, so the latencies are service times under that concurrency.
+ * <p>
+ * After a warmup, per-endpoint latencies are recorded in HdrHistograms and written to {@code reports}:
+ * one percentile distribution per endpoint ({@code <endpoint>.hgrm}) and a {@code summary.properties}
+ * with p50, p99 and p999 in microseconds and the throughput. The summary is compared with the baseline
+ * and the run fails when any endpoint regresses by more than {@code threshold}; pass
+ * {@code updateBaseline=true} to replace the baseline with the run's results instead.
+ * <p>
+ * No baseline is committed: the first run on a machine records one, headed by the machine and the settings
+ * it was recorded with. Results are only comparable on the same machine with the same settings, so record
+ * the baseline on the reference machine, run it idle rather than on a throttled or shared one, and commit
+ * it from there. A run with other settings than the baseline's fails instead of comparing; a run on another
+ * machine is compared with a warning. {@link ThreadModeComparison} runs the same load on platform and
+ * virtual request threads.
+ */
+public class LoadHarness {
+
+    private static final String MACHINE = "run.machine";
+    private static final String SETTINGS = "run.settings";
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.parse(args);
+        List<EndpointResult> results = measure(settings);
+
+        Properties summary = new Properties();
+        summary.setProperty(MACHINE, machine());
+        summary.setProperty(SETTINGS, settings.describe());
+        results.forEach(result -> result.writeTo(summary));
+        store(summary, settings.reports().resolve("summary.properties"));
+        results.forEach(result -> System.out.printf(Locale.ROOT, "%-16s p50 %8dus  p99 %8dus  p999 %8dus  %10.1f req/s%n",
+                result.endpoint(), result.p50(), result.p99(), result.p999(), result.throughput()));
+
+        if (settings.updateBaseline() || !Files.exists(settings.baseline())) {
+            store(summary, settings.baseline());
+            System.out.println("Baseline recorded on " + summary.getProperty(MACHINE) + ": " + settings.baseline());
+            return;
+        }
+        List<String> regressions = compareWithBaseline(results, settings, summary);
+        if (!regressions.isEmpty()) {
+            regressions.forEach(regression -> System.out.println("REGRESSION " + regression));
+            System.exit(1);
+        }
+        System.out.println("No regressions above " + Math.round(settings.threshold() * 100) + "% of the baseline");
+    }
+
+    /**
+     * Boots the registry, drives the load against it and writes the per-endpoint reports.
+     */
+    static List<EndpointResult> measure(LoadSettings settings) throws Exception {
+        try (ConfigurableApplicationContext context = start(settings)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return run(settings, URI.create("http://localhost:" + port));
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LoadSettings settings) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ServiceDogRegistryApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:hsqldb:mem:load",
+                        "spring.jpa.open-in-view=false",
+                        "spring.threads.virtual.enabled=" + settings.virtualThreads(),
+                        "spring.datasource.hikari.maximum-pool-size=" + settings.connections(),
+                        "server.tomcat.max-connections=" + Math.max(8192, settings.clients() * 2),
+                        "logging.level.root=WARN")
+                .run();
+        BenchmarkData.seedDogs(context.getBean(JdbcTemplate.class), Endpoint.FIRST_SEEDED_DOG_ID, settings.dogs());
+        return context;
+    }
+
+    private static List<EndpointResult> run(LoadSettings settings, URI baseUri) throws Exception {
+        Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+        settings.mix().keySet().forEach(endpoint -> recorders.put(endpoint, new Recorder(3)));
+        AtomicLong failures = new AtomicLong();
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        WeightedEndpoints endpoints = new WeightedEndpoints(settings.mix());
+
+        long warmupEnd = System.nanoTime() + settings.warmup().toNanos();
+        long end = warmupEnd + settings.duration().toNanos();
+        // Virtual client threads, so thousands of clients cost little next to the server under test
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < settings.clients(); i++) {
+            clients.submit(() -> {
+                Random random = new Random();
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    Endpoint endpoint = endpoints.pick(random);
+                    HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(endpoint.path(random, settings))).GET().build();
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        long latencyMicros = (System.nanoTime() - now) / 1_000;
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        } else if (now >= warmupEnd) {
+                            recorders.get(endpoint).recordValue(latencyMicros);
+                        }
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        clients.shutdown();
+        if (!clients.awaitTermination(settings.warmup().plus(settings.duration()).toMillis() + 60_000, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Clients did not finish");
+        }
+        if (failures.get() > 0) {
+            throw new IllegalStateException(failures.get() + " requests failed or returned a status other than 200");
+        }
+
+        Files.createDirectories(settings.reports());
+        List<EndpointResult> results = new ArrayList<>();
+        for (Map.Entry<Endpoint, Recorder> entry : recorders.entrySet()) {
+            Histogram histogram = entry.getValue().getIntervalHistogram();
+            try (OutputStream out = Files.newOutputStream(settings.reports().resolve(entry.getKey().key() + ".hgrm"))) {
+                histogram.outputPercentileDistribution(new PrintStream(out), 1.0);
+            }
+            results.add(EndpointResult.of(entry.getKey().key(), histogram, settings.duration()));
+        }
+        return results;
+    }
+
+    private static List<String> compareWithBaseline(List<EndpointResult> results, LoadSettings settings,
+                                                    Properties summary) throws IOException {
+        Properties baseline = new Properties();
+        try (var in = Files.newInputStream(settings.baseline())) {
+            baseline.load(in);
+        }
+        if (!summary.getProperty(SETTINGS).equals(baseline.getProperty(SETTINGS))) {
+            return List.of("baseline was recorded with %s but this run used %s; rerun with the baseline's settings or updateBaseline=true"
+                    .formatted(baseline.getProperty(SETTINGS), summary.getProperty(SETTINGS)));
+        }
+        if (!summary.getProperty(MACHINE).equals(baseline.getProperty(MACHINE))) {
+            System.out.println("WARNING baseline was recorded on " + baseline.getProperty(MACHINE)
+                    + ", not this machine; differences may not be regressions");
+        }
+        List<String> regressions = new ArrayList<>();
+        for (EndpointResult result : results) {
+            EndpointResult expected = EndpointResult.from(baseline, result.endpoint());
+            if (expected == null) {
+                System.out.println("No baseline for " + result.endpoint());
+                continue;
+            }
+            regressions.addAll(result.regressionsAgainst(expected, settings.threshold()));
+        }
+        return regressions;
+    }
+
+    /**
+     * What the results depend on besides the code and the settings. Memory is the registry's maximum heap,
+     * which runs in this JVM.
+     */
+    private static String machine() {
+        return "%s %s %s, %d CPUs, %d MB max heap, Java %s".formatted(
+                System.getProperty("os.name"), System.getProperty("os.version"), System.getProperty("os.arch"),
+                Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory() / (1024 * 1024),
+                System.getProperty("java.version"));
+    }
+
+    private static void store(Properties properties, Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        List<String> lines = new ArrayList<>();
+        lines.add("# Recorded by LoadHarness on " + properties.getProperty(MACHINE));
+        lines.add("# with " + properties.getProperty(SETTINGS));
+        lines.add("# Latencies in microseconds, throughput in requests per second");
+        // Sorted so baseline diffs stay readable
+        new TreeSet<>(properties.stringPropertyNames())
+                .forEach(name -> lines.add(name + "=" + properties.getProperty(name)));
+        Files.write(file, lines);
+    }
+
+    private static final class WeightedEndpoints {
+        private final List<Endpoint> endpoints = new ArrayList<>();
+        private final int[] cumulativeWeights;
+
+        WeightedEndpoints(Map<Endpoint, Integer> mix) {
+            cumulativeWeights = new int[mix.size()];
+            int total = 0;
+            for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+                total += entry.getValue();
+                cumulativeWeights[endpoints.size()] = total;
+                endpoints.add(entry.getKey());
+            }
+        }
+
+        Endpoint pick(Random random) {
+            int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (value < cumulativeWeights[i]) {
+                    return endpoints.get(i);
+                }
+            }
+            throw new IllegalStateException("Weights exhausted");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.policedog.registry.benchmark.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Harness settings, passed as {@code key=value} arguments. Durations take the same format as Spring
+ * properties, e.g. {@code 30s}, and the mix is a comma separated list of {@code endpoint=weight}.
+ * {@code threads} is {@code platform} or {@code virtual} for the registry's request threads and
+ * {@code connections} the size of its JDBC pool.
+ */
+record LoadSettings(int clients, Duration warmup, Duration duration, int dogs,
+                    Map<Endpoint, Integer> mix, double threshold, Path baseline, Path reports, boolean updateBaseline,
+                    boolean virtualThreads, int connections) {
+
+    private static final String DEFAULT_MIX =
+            "dog-by-id=35,dog-page=15,dog-cursor=15,dog-search=10,supplier-by-id=10,supplier-page=10,supplier-dogs=5";
+
+    static LoadSettings parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return new LoadSettings(
+                Integer.parseInt(values.getOrDefault("clients", "8")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "30s")),
+                Integer.parseInt(values.getOrDefault("dogs", "5000")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Double.parseDouble(values.getOrDefault("threshold", "0.25")),
+                Path.of(values.getOrDefault("baseline", "src/jmh/load-baseline.properties")),
+                Path.of(values.getOrDefault("reports", "target/load-reports")),
+                Boolean.parseBoolean(values.getOrDefault("updateBaseline", "false")),
+                parseThreads(values.getOrDefault("threads", "platform")),
+                Integer.parseInt(values.getOrDefault("connections", "10")));
+    }
+
+    LoadSettings withThreads(boolean virtualThreads, Path reports) {
+        return new LoadSettings(clients, warmup, duration, dogs, mix, threshold, baseline, reports, updateBaseline,
+                virtualThreads, connections);
+    }
+
+    /**
+     * The settings that shape the load, and so the results: everything but the paths, the threshold and
+     * {@code updateBaseline}.
+     */
+    String describe() {
+        StringJoiner weights = new StringJoiner(",");
+        mix.forEach((endpoint, weight) -> weights.add(endpoint.key() + "=" + weight));
+        return "clients=%d warmup=%s duration=%s dogs=%d threads=%s connections=%d mix=%s".formatted(
+                clients, DurationStyle.SIMPLE.print(warmup), DurationStyle.SIMPLE.print(duration), dogs, threads(),
+                connections, weights);
+    }
+
+    String threads() {
+        return virtualThreads ? "virtual" : "platform";
+    }
+
+    private static boolean parseThreads(String threads) {
+        return switch (threads) {
+            case "platform" -> false;
+            case "virtual" -> true;
+            default -> throw new IllegalArgumentException("Expected threads=platform or threads=virtual but got " + threads);
+        };
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] keyAndWeight = entry.trim().split("=");
+            weights.put(Endpoint.fromKey(keyAndWeight[0]), Integer.parseInt(keyAndWeight[1]));
+        }
+        return weights;
+    }
+}
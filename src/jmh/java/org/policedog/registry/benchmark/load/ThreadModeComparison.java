@@ -0,0 +1,47 @@
+package org.policedog.registry.benchmark.load;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the {@link LoadHarness} load twice, once with Tomcat on its platform worker pool and once with a
+ * virtual thread per request, and prints both side by side. Takes the harness settings, with
+ * {@code clients} defaulting to 1000 so the platform pool of 200 workers is saturated and requests
+ * queue for the JDBC pool in both modes. Reports go to {@code reports/platform} and {@code reports/virtual};
+ * the baseline is not consulted.
+ */
+public class ThreadModeComparison {
+
+    public static void main(String[] args) throws Exception {
+        String[] withDefaults = new String[args.length + 1];
+        withDefaults[0] = "clients=1000";
+        System.arraycopy(args, 0, withDefaults, 1, args.length);
+        LoadSettings settings = LoadSettings.parse(withDefaults);
+
+        Map<String, EndpointResult> platform = byEndpoint(LoadHarness.measure(
+                settings.withThreads(false, settings.reports().resolve("platform"))));
+        Map<String, EndpointResult> virtual = byEndpoint(LoadHarness.measure(
+                settings.withThreads(true, settings.reports().resolve("virtual"))));
+
+        System.out.printf(Locale.ROOT, "%d clients, %d JDBC connections%n", settings.clients(), settings.connections());
+        System.out.printf(Locale.ROOT, "%-16s %-8s %10s %10s %10s %12s%n", "endpoint", "threads", "p50 us", "p99 us", "p999 us", "req/s");
+        platform.forEach((endpoint, result) -> {
+            print("platform", result);
+            print("virtual", virtual.get(endpoint));
+        });
+    }
+
+    private static Map<String, EndpointResult> byEndpoint(List<EndpointResult> results) {
+        return results.stream().collect(Collectors.toMap(EndpointResult::endpoint, Function.identity(),
+                (first, second) -> first, LinkedHashMap::new));
+    }
+
+    private static void print(String threads, EndpointResult result) {
+        System.out.printf(Locale.ROOT, "%-16s %-8s %10d %10d %10d %12.1f%n",
+                result.endpoint(), threads, result.p50(), result.p99(), result.p999(), result.throughput());
+    }
+}
@@ -0,0 +1,64 @@
+package org.policedog.registry.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.policedog.registry.transaction.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache of {@code COUNT(*)} results used to fill page totals without running the
+ * count query on every page request. Totals can lag behind writes made on other nodes by at most
+ * the configured TTL; writes made through this node invalidate the affected entity type. Counts taken
+ * within {@code registry.datasource.replica.stale-read-window} of such a write may come from a replica
+ * that has not caught up with it and are not cached.
+ */
+@Slf4j
+@Component
+public class CountCache {
+
+    private final Cache<CountKey, Long> counts;
+    private final RecentInvalidations<Class<?>> recentInvalidations;
+
+    public CountCache(@Value("${registry.count-cache.ttl:30s}") Duration ttl,
+                      @Value("${registry.count-cache.max-size:1000}") long maxSize,
+                      @Value("${registry.datasource.replica.stale-read-window:10s}") Duration staleReadWindow) {
+        this.counts = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+        this.recentInvalidations = new RecentInvalidations<>(staleReadWindow);
+    }
+
+    public long get(Class<?> entityType, Object filter, LongSupplier counter) {
+        CountKey key = new CountKey(entityType, filter);
+        long start = System.nanoTime();
+        long count = counts.get(key, k -> counter.getAsLong());
+        if (recentInvalidations.mayPredate(entityType, start)) {
+            counts.invalidate(key);
+        }
+        return count;
+    }
+
+    /**
+     * Drops every cached count for the entity type. The eviction is repeated when the current
+     * transaction completes so that a count cached from uncommitted (or rolled back) data in the
+     * meantime does not survive.
+     */
+    public void invalidate(Class<?> entityType) {
+        TransactionHooks.nowAndAfterCompletion(() -> evict(entityType));
+    }
+
+    private void evict(Class<?> entityType) {
+        recentInvalidations.record(entityType);
+        counts.asMap().keySet().removeIf(key -> key.entityType().equals(entityType));
+        log.debug("Invalidated cached counts for {}", entityType.getSimpleName());
+    }
+
+    private record CountKey(Class<?> entityType, Object filter) {
+    }
+}
@@ -0,0 +1,108 @@
+package org.policedog.registry.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.policedog.registry.dto.DogDetailDto;
+import org.policedog.registry.transaction.TransactionHooks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of {@link DogDetailDto}s by dog ID for the single-dog lookup. Concurrent misses on the
+ * same ID wait for one load instead of each querying the database. Cached instances are shared between
+ * callers and must not be modified.
+ * <p>
+ * Loads run on the calling thread outside the cache's internal locks; a synchronous Caffeine loader runs
+ * inside a {@code synchronized} map computation, which would pin a virtual thread to its carrier for the
+ * whole database query.
+ * <p>
+ * Writes made through this node invalidate the affected dogs; writes made on other nodes are picked up
+ * once the configured TTL expires. A dog loaded within {@code registry.datasource.replica.stale-read-window}
+ * of a write to it or its supplier may come from a replica that has not caught up with the write, and is
+ * returned without being cached. Hit, miss and eviction counts are published as {@code cache.*} meters
+ * tagged {@code cache=dogDetail}.
+ */
+@Slf4j
+@Component
+public class DogDetailCache {
+
+    private final AsyncCache<Long, DogDetailDto> dogs;
+    private final RecentInvalidations<Long> recentDogs;
+    private final RecentInvalidations<Long> recentSuppliers;
+
+    public DogDetailCache(@Value("${registry.dog-detail-cache.ttl:5m}") Duration ttl,
+                          @Value("${registry.dog-detail-cache.max-size:10000}") long maxSize,
+                          @Value("${registry.datasource.replica.stale-read-window:10s}") Duration staleReadWindow,
+                          MeterRegistry meterRegistry) {
+        this.dogs = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+        this.recentDogs = new RecentInvalidations<>(staleReadWindow);
+        this.recentSuppliers = new RecentInvalidations<>(staleReadWindow);
+        CaffeineCacheMetrics.monitor(meterRegistry, dogs, "dogDetail");
+    }
+
+    /**
+     * Returns the cached dog, loading it on a miss. A loader that throws, e.g. for an unknown ID, caches
+     * nothing.
+     */
+    public DogDetailDto get(Long id, Supplier<DogDetailDto> loader) {
+        CompletableFuture<DogDetailDto> load = new CompletableFuture<>();
+        CompletableFuture<DogDetailDto> dog = dogs.get(id, (key, executor) -> load);
+        if (dog == load) {
+            long start = System.nanoTime();
+            try {
+                DogDetailDto loaded = loader.get();
+                if (mayPredateWrite(id, loaded, start)) {
+                    dogs.asMap().remove(id, load);
+                }
+                load.complete(loaded);
+            } catch (RuntimeException | Error e) {
+                load.completeExceptionally(e);
+            }
+        }
+        try {
+            return dog.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Drops the dog now and again when the current transaction completes. A load of the same ID in
+     * progress is dropped too, so a value read before the commit cannot outlive it.
+     */
+    public void invalidate(Long id) {
+        TransactionHooks.nowAndAfterCompletion(() -> {
+            recentDogs.record(id);
+            dogs.synchronous().invalidate(id);
+            log.debug("Invalidated cached dog {}", id);
+        });
+    }
+
+    /**
+     * Drops every dog of the supplier, whose details are embedded in each {@link DogDetailDto}.
+     */
+    public void invalidateSupplier(Long supplierId) {
+        TransactionHooks.nowAndAfterCompletion(() -> {
+            recentSuppliers.record(supplierId);
+            dogs.synchronous().asMap().values().removeIf(dog -> dog.getSupplier() != null && supplierId.equals(dog.getSupplier().getId()));
+            log.debug("Invalidated cached dogs of supplier {}", supplierId);
+        });
+    }
+
+    private boolean mayPredateWrite(Long id, DogDetailDto dog, long loadStart) {
+        return recentDogs.mayPredate(id, loadStart)
+                || dog.getSupplier() != null && recentSuppliers.mayPredate(dog.getSupplier().getId(), loadStart);
+    }
+}
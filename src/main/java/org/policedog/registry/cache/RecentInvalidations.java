@@ -0,0 +1,43 @@
+package org.policedog.registry.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * When keys were last invalidated, so a cache can tell whether a value it just loaded may predate a write.
+ * Loads run in read-only transactions, which go to a read replica when replicas are configured, and a
+ * replica can still return the state from before a write for up to the stale read window after it. A value
+ * whose load started within that window of an invalidation of its key is therefore not kept: caching it
+ * would serve the old state for the cache's whole TTL instead of for the replica's lag.
+ */
+final class RecentInvalidations<K> {
+
+    // Keeps invalidations past the window for loads still running when it ends
+    private static final Duration LOAD_ALLOWANCE = Duration.ofMinutes(1);
+
+    private final long windowNanos;
+    private final Cache<K, Long> invalidatedAt;
+
+    RecentInvalidations(Duration staleReadWindow) {
+        this.windowNanos = staleReadWindow.toNanos();
+        this.invalidatedAt = Caffeine.newBuilder()
+                .expireAfterWrite(staleReadWindow.plus(LOAD_ALLOWANCE))
+                .build();
+    }
+
+    void record(K key) {
+        invalidatedAt.put(key, System.nanoTime());
+    }
+
+    /**
+     * Whether a load of {@code key} started at {@code loadStart}, a {@link System#nanoTime()} value, may have
+     * read the state from before its last invalidation. An invalidation while the load was running always
+     * counts.
+     */
+    boolean mayPredate(K key, long loadStart) {
+        Long at = invalidatedAt.getIfPresent(key);
+        return at != null && at - (loadStart - windowNanos) > 0;
+    }
+}
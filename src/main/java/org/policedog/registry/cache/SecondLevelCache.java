@@ -0,0 +1,37 @@
+package org.policedog.registry.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.policedog.registry.domain.Supplier;
+import org.policedog.registry.transaction.TransactionHooks;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evictions from Hibernate's second-level cache. Hibernate keeps the cache consistent with the writes it
+ * flushes itself; these cover changes it cannot see through the entity alone, such as a supplier code
+ * being replaced while the old code is still resolved from the natural-ID cache.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCache {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Evicts the supplier and every cached code resolution now and again when the current transaction
+     * completes, so nothing cached from the old state in the meantime survives.
+     */
+    public void evictSupplier(Long id) {
+        TransactionHooks.nowAndAfterCompletion(() -> evict(id));
+    }
+
+    private void evict(Long id) {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Supplier.class, id);
+        cache.evictNaturalIdData(Supplier.class);
+        log.debug("Evicted supplier {} from the second-level cache", id);
+    }
+}
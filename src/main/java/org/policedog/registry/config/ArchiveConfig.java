@@ -0,0 +1,16 @@
+package org.policedog.registry.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Schedules {@link org.policedog.registry.service.DogArchiveService} when
+ * {@code registry.archive.enabled=true}. Archiving is off by default, as only one node of a deployment
+ * should run it.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+@ConditionalOnProperty(name = "registry.archive.enabled", havingValue = "true")
+public class ArchiveConfig {
+}
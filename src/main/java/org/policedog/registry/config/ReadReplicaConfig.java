@@ -0,0 +1,75 @@
+package org.policedog.registry.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.policedog.registry.datasource.ReplicaRoutingDataSource;
+import org.policedog.registry.datasource.ReplicaRoutingDataSource.Replica;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes {@code @Transactional(readOnly = true)} work to read replicas when
+ * {@code registry.datasource.replica.urls} lists at least one replica; without it the single
+ * auto-configured data source is used for everything. The primary is configured through the usual
+ * {@code spring.datasource.*} properties and replicas share its driver and credentials. Pool settings under
+ * {@code spring.datasource.hikari.*} apply to every pool.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "registry.datasource.replica.urls")
+public class ReadReplicaConfig {
+
+    @Bean(initMethod = "start")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${registry.datasource.replica.urls}") List<String> replicaUrls,
+            @Value("${registry.datasource.replica.max-lag:5s}") Duration maxLag,
+            @Value("${registry.datasource.replica.lag-query:#{null}}") String lagQuery,
+            @Value("${registry.datasource.replica.check-interval:5s}") Duration checkInterval,
+            @Value("${registry.datasource.replica.connection-timeout:1s}") Duration connectionTimeout) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        // The pools are not beans, so they are not picked up by the data source pool metrics
+        primary.setMetricRegistry(meterRegistry);
+
+        List<Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrls.get(i))
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setMetricRegistry(meterRegistry);
+            replica.setReadOnly(true);
+            // Fail over to the primary quickly instead of waiting on an unreachable replica,
+            // and let the pool start even when the replica is down
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(new Replica(replica.getPoolName(), replica));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, maxLag, lagQuery, checkInterval);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
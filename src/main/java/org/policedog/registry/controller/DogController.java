@@ -1,8 +1,11 @@
 package org.policedog.registry.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,13 +13,25 @@ import org.policedog.registry.domain.Gender;
 import org.policedog.registry.domain.LeavingReason;
 import org.policedog.registry.domain.Status;
 import org.policedog.registry.dto.*;
+import org.policedog.registry.etag.ETags;
+import org.policedog.registry.export.ExportFormat;
+import org.policedog.registry.idempotency.IdempotencyStore;
+import org.policedog.registry.service.DogBulkService;
+import org.policedog.registry.service.DogExportService;
 import org.policedog.registry.service.DogService;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 
 @RequiredArgsConstructor
 @RestController
@@ -24,6 +39,9 @@ import java.util.List;
 public class DogController {
 
     private final DogService dogService;
+    private final DogExportService dogExportService;
+    private final DogBulkService dogBulkService;
+    private final IdempotencyStore idempotencyStore;
     private final ObjectMapper objectMapper;
 
     @PostMapping(consumes = "application/json", produces = "application/json")
@@ -35,61 +53,158 @@ public class DogController {
                     - Supplier code does not correspond to an existing supplier
                     - Badge number is not unique
                     - Required fields are missing or invalid
+                    
+                    **Idempotency-Key:**
+                    - A request sent again with the same 'Idempotency-Key' gets the original response back,
+                      marked 'Idempotent-Replayed: true', without creating another dog
+                    - Reusing a key for a different request returns 422 Unprocessable Entity
+                    - Resending a key while its first request is still running returns 409 Conflict
+                    - Keys are kept for 24 hours by default; failed requests do not keep their key
                     """, tags = {"Dog - Command Operations"}
     )
-    public ResponseEntity<DogDetailDto> createDog(@Valid @RequestBody CreateDogRequest createDogRequest) {
-        DogDetailDto dog = dogService.createDog(createDogRequest);
-        return ResponseEntity.status(HttpStatus.CREATED).body(dog);
+    public ResponseEntity<DogDetailDto> createDog(@Valid @RequestBody CreateDogRequest createDogRequest,
+                                                  @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "createDog", createDogRequest, DogDetailDto.class, () -> {
+            DogDetailDto dog = dogService.createDog(createDogRequest);
+            return ResponseEntity.status(HttpStatus.CREATED).body(dog);
+        });
+    }
+
+    @PostMapping(value = "/bulk", consumes = "application/json", produces = "application/json")
+    @Operation(summary = "Create police dogs in bulk",
+            description = """
+                    Create many police dogs from a JSON array of the same items accepted by the single create.
+                    The array is read as a stream and saved in chunks, each chunk in its own transaction.
+                    
+                    The response has one result per item, in request order, with the ID of each created dog
+                    or the reason it was not created. An item is not created when:
+                    - It is not a valid create request (missing or invalid fields)
+                    - Supplier code does not correspond to an existing supplier
+                    - Badge number already exists, or was used by an earlier item of the same request
+                    
+                    A JSON syntax error stops the processing; items before it are still created.
+                    """, tags = {"Dog - Command Operations"})
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(mediaType = "application/json",
+            array = @ArraySchema(schema = @Schema(implementation = CreateDogRequest.class))))
+    public ResponseEntity<BulkCreateDogResponse> createDogs(InputStream requestBody) throws IOException {
+        BulkCreateDogResponse response = dogBulkService.createDogs(requestBody);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping(produces = "application/json")
     @Operation(summary = "Get a paginated list of active (non-deleted) police dogs with optional filters",
             description = """
                     Retrieve a paginated list of police dogs in the system that are not marked as deleted.
-                    Optional filters can be applied by providing a JSON string in the 'filter' query parameter.
+                    Optional filters are passed as query parameters and combined with AND:
+                    
+                    - name, breed, supplierCode: partial match -- ?name=Rex&supplierCode=ELITE_K9
+                    - status, gender, leavingReason: exact match -- ?status=IN_SERVICE&gender=FEMALE
+                    - birthDateFrom/birthDateTo, dateAcquiredFrom/dateAcquiredTo, leavingDateFrom/leavingDateTo:
+                      inclusive ISO date ranges, either end optional -- ?dateAcquiredFrom=2020-01-01
+                    
+                    Results are ordered by ID unless 'sort' (ID, NAME, BREED, BADGE_NUMBER, BIRTH_DATE,
+                    DATE_ACQUIRED) and optionally 'direction' (ASC, DESC) are given.
                     
-                    ***Filter Parameters:**
-                    - name: Filter by dog name (partial match) -- {"name": "Rex"}
-                    - breed: Filter by dog breed (partial match) -- {"breed": "German Shepherd"}
-                    - supplierCode: Filter by supplier code (partial match) -- {"supplierCode": "ELITE_K9"}
+                    The JSON 'filter' parameter is deprecated; it is still accepted for name, breed and
+                    supplierCode but cannot be combined with the filter parameters above.
                     
+                    Page size is limited to 100. For deep paging prefer the cursor endpoint.
+                    
+                    Set 'includeTotal' to false to skip calculating totalElements and totalPages (for example
+                    for infinite scrolling); only 'last' then tells whether more pages exist. Totals, when
+                    included, may lag behind the latest changes by a few seconds.
                     """, tags = {"Dog - Query Operations"})
     public ResponseEntity<PageResponse<DogDetailDto>> getDogs(
+            @ParameterObject SearchFilter searchFilter,
             @Parameter(
                     name = "filter",
-                    description = "Search filters as JSON string",
+                    description = "Deprecated: search filters as JSON string, use the filter parameters instead",
+                    deprecated = true,
                     example = "{\"name\":\"Rex\",\"breed\":\"German Shepherd\",\"supplierCode\":\"ELITE_K9\"}",
-                    schema = @Schema(
-                            type = "string",
-                            format = "json",
-                            implementation = SearchFilter.class
-                    )
+                    schema = @Schema(type = "string", format = "json")
             )
-            @RequestParam(required = false) String filter, @RequestParam(defaultValue = "0") int pageNo, @RequestParam(defaultValue = "10") int pageSize) {
-        if (StringUtils.hasText(filter)) {
-            try {
-                SearchFilter searchFilter = objectMapper.readValue(filter, SearchFilter.class);
-                PageResponse<DogDetailDto> dogs = dogService.getDogs(searchFilter, pageNo, pageSize);
-                return ResponseEntity.ok(dogs);
-            } catch (Exception e) {
-                throw new IllegalArgumentException("Invalid filter parameter", e);
-            }
-        }
-        PageResponse<DogDetailDto> dogs = dogService.getDogs(new SearchFilter(), pageNo, pageSize);
+            @RequestParam(required = false) String filter, @RequestParam(defaultValue = "0") int pageNo, @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
+        SearchFilter resolvedFilter = resolveFilter(searchFilter, filter);
+        PageResponse<DogDetailDto> dogs = includeTotal
+                ? dogService.getDogs(resolvedFilter, pageNo, pageSize)
+                : dogService.getDogsSlice(resolvedFilter, pageNo, pageSize);
         return ResponseEntity.ok(dogs);
     }
 
+    @GetMapping(value = "/cursor", produces = "application/json")
+    @Operation(summary = "Get active (non-deleted) police dogs using cursor pagination",
+            description = """
+                    Retrieve active police dogs ordered by ID, one page at a time.
+                    Leave 'cursor' out for the first page, then pass the 'nextCursor' from the previous
+                    response metadata to get the following page. The last page has no 'nextCursor'.
+                    
+                    Unlike offset pagination the cost of a page does not grow with its depth, and pages
+                    neither repeat nor skip dogs when new dogs are added concurrently.
+                    Totals are not calculated in this mode.
+                    
+                    Accepts the same filters as the paginated list, except 'sort': pages are always ordered by ID.
+                    Page size is limited to 100.
+                    """, tags = {"Dog - Query Operations"})
+    public ResponseEntity<PageResponse<DogDetailDto>> getDogsByCursor(
+            @ParameterObject SearchFilter searchFilter,
+            @Parameter(
+                    name = "filter",
+                    description = "Deprecated: search filters as JSON string, use the filter parameters instead",
+                    deprecated = true,
+                    example = "{\"name\":\"Rex\",\"breed\":\"German Shepherd\",\"supplierCode\":\"ELITE_K9\"}",
+                    schema = @Schema(type = "string", format = "json")
+            )
+            @RequestParam(required = false) String filter, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "10") int pageSize) {
+        PageResponse<DogDetailDto> dogs = dogService.getDogsAfter(resolveFilter(searchFilter, filter), cursor, pageSize);
+        return ResponseEntity.ok(dogs);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export all police dogs as NDJSON or CSV",
+            description = """
+                    Stream every police dog ordered by ID in a single response, for bulk consumers that would
+                    otherwise page through the whole registry.
+                    
+                    - NDJSON (default): one dog per line, in the same shape as the other dog endpoints
+                    - CSV: one row per dog with a header row; supplier code/name and each characteristic get their own column
+                    
+                    Deleted dogs are only included when 'includeDeleted' is true.
+                    """, tags = {"Dog - Query Operations"})
+    public ResponseEntity<StreamingResponseBody> exportDogs(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                                            @RequestParam(defaultValue = "false") boolean includeDeleted) {
+        StreamingResponseBody body = outputStream -> dogExportService.exportDogs(format, includeDeleted, outputStream);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("dogs." + format.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get a police dog by ID including deleted dogs",
             description = """
                     Retrieve the details of a specific police dog by its ID.
                     
+                    The response carries an ETag that changes whenever the dog or its supplier does. Send it back in
+                    'If-None-Match' to get 304 Not Modified without a body while neither has changed,
+                    or in 'If-Match' on update and retire to guard against overwriting someone else's change.
+                    
                     Error will be returned in the following cases:
                     - Dog cannot be found
                     """, tags = {"Dog - Query Operations"})
-    public ResponseEntity<DogDetailDto> getDog(@PathVariable Long id) {
+    public ResponseEntity<DogDetailDto> getDog(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                               WebRequest request) {
+        // A matching If-None-Match is answered with 304 from the version columns before the dog is loaded.
+        // Without one the tag is not read separately: the cached dog carries the versions it is built from
+        if (ifNoneMatch != null && request.checkNotModified(dogService.getDogETag(id))) {
+            return null;
+        }
         DogDetailDto dog = dogService.getDogById(id);
-        return ResponseEntity.ok(dog);
+        return ResponseEntity.ok().eTag(ETags.dog(dog)).body(dog);
     }
 
     @DeleteMapping("/{id}")
@@ -116,9 +231,12 @@ public class DogController {
                     - Dog is LEFT the service
                     - Supplier code does not correspond to an existing supplier
                     - Badge number is not unique
+                    - 'If-Match' is given and does not match the dog's current ETag (412 Precondition Failed)
+                    - The dog is still being changed concurrently after the update was retried (409 Conflict)
                     """, tags = {"Dog - Command Operations"})
-    public ResponseEntity<DogDetailDto> updateDog(@PathVariable Long id, @Valid @RequestBody UpdateDogRequest updateDogRequest) {
-        DogDetailDto updatedDog = dogService.updateDog(id, updateDogRequest);
+    public ResponseEntity<DogDetailDto> updateDog(@PathVariable Long id, @Valid @RequestBody UpdateDogRequest updateDogRequest,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        DogDetailDto updatedDog = dogService.updateDog(id, updateDogRequest, ifMatch);
         return ResponseEntity.ok(updatedDog);
     }
 
@@ -131,20 +249,37 @@ public class DogController {
                     - If the dog is already retired, then this method returns the existing retired dog details without error
                     - Multiple retire requests on the same dog have the same effect
                     - If the dog is deleted, an error is returned
+                    - If 'If-Match' is given and does not match the dog's current ETag, 412 Precondition Failed is returned
+                    - If the dog is still being changed concurrently after the retire was retried, 409 Conflict is returned
+                    - A retire sent again with the same 'Idempotency-Key' gets the original response back, marked
+                      'Idempotent-Replayed: true', even if the dog has changed since; reusing the key for a different
+                      dog, body or 'If-Match' returns 422 Unprocessable Entity
                     
                     """, tags = {"Dog - Lifecycle Operations"})
-    public ResponseEntity<DogDetailDto> retireDog(@PathVariable Long id, @Valid @RequestBody RetireDogRequest retireDogRequest) {
-        DogDetailDto dog = dogService.retireDog(id, retireDogRequest);
-        return ResponseEntity.ok(dog);
+    public ResponseEntity<DogDetailDto> retireDog(@PathVariable Long id, @Valid @RequestBody RetireDogRequest retireDogRequest,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "retireDog", Arrays.asList(id, retireDogRequest, ifMatch),
+                DogDetailDto.class, () -> {
+                    DogDetailDto dog = dogService.retireDog(id, retireDogRequest, ifMatch);
+                    return ResponseEntity.ok(dog);
+                });
     }
 
     @GetMapping("/search/by-gender")
     @Operation(summary = "Get Dogs by Gender",
             description = """
                     Get Dogs by Gender -- MALE / FEMALE
+                    
+                    Results are ordered by ID and cursor paginated: leave 'cursor' out for the first page, then
+                    pass the 'nextCursor' from the previous response metadata. Page size is limited to 100.
+                    Deleted dogs are only returned when 'includeDeleted' is true.
                     """, tags = {"Dog - Query Operations"})
-    public ResponseEntity<List<DogDetailDto>> getDogsByGender(@RequestParam Gender gender) {
-        List<DogDetailDto> dogs = dogService.getDogsByGender(gender);
+    public ResponseEntity<PageResponse<DogDetailDto>> getDogsByGender(@RequestParam Gender gender,
+                                                                      @RequestParam(defaultValue = "false") boolean includeDeleted,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "10") int pageSize) {
+        PageResponse<DogDetailDto> dogs = dogService.getDogsByGender(gender, includeDeleted, cursor, pageSize);
         return ResponseEntity.ok(dogs);
     }
 
@@ -152,9 +287,16 @@ public class DogController {
     @Operation(summary = "Get Dogs by Status",
             description = """
                     Get Dogs by Status -- TRAINING / IN_SERVICE / RETIRED / LEFT
+                    
+                    Results are ordered by ID and cursor paginated: leave 'cursor' out for the first page, then
+                    pass the 'nextCursor' from the previous response metadata. Page size is limited to 100.
+                    Deleted dogs are only returned when 'includeDeleted' is true.
                     """, tags = {"Dog - Query Operations"})
-    public ResponseEntity<List<DogDetailDto>> getDogsByStatus(@RequestParam Status status) {
-        List<DogDetailDto> dogs = dogService.getDogsByStatus(status);
+    public ResponseEntity<PageResponse<DogDetailDto>> getDogsByStatus(@RequestParam Status status,
+                                                                      @RequestParam(defaultValue = "false") boolean includeDeleted,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "10") int pageSize) {
+        PageResponse<DogDetailDto> dogs = dogService.getDogsByStatus(status, includeDeleted, cursor, pageSize);
         return ResponseEntity.ok(dogs);
     }
 
@@ -162,9 +304,33 @@ public class DogController {
     @Operation(summary = "Get Dogs by LeavingReason",
             description = """
                     Get Dogs by LeavingReason -- TRANSFERRED / RETIRED_PUT_DOWN / KIA / REJECTED / RETIRED_RE_HOUSED / DIED
+                    
+                    Results are ordered by ID and cursor paginated: leave 'cursor' out for the first page, then
+                    pass the 'nextCursor' from the previous response metadata. Page size is limited to 100.
+                    Deleted dogs are only returned when 'includeDeleted' is true.
                     """, tags = {"Dog - Query Operations"})
-    public ResponseEntity<List<DogDetailDto>> getDogsByLeavingReason(@RequestParam LeavingReason leavingReason) {
-        List<DogDetailDto> dogs = dogService.getDogsByLeavingReason(leavingReason);
+    public ResponseEntity<PageResponse<DogDetailDto>> getDogsByLeavingReason(@RequestParam LeavingReason leavingReason,
+                                                                             @RequestParam(defaultValue = "false") boolean includeDeleted,
+                                                                             @RequestParam(required = false) String cursor,
+                                                                             @RequestParam(defaultValue = "10") int pageSize) {
+        PageResponse<DogDetailDto> dogs = dogService.getDogsByLeavingReason(leavingReason, includeDeleted, cursor, pageSize);
         return ResponseEntity.ok(dogs);
     }
+
+    /**
+     * Returns the filter bound from query parameters, or the deprecated JSON filter when only that is given.
+     */
+    private SearchFilter resolveFilter(SearchFilter searchFilter, String filter) {
+        if (!StringUtils.hasText(filter)) {
+            return searchFilter;
+        }
+        if (!searchFilter.isEmpty()) {
+            throw new IllegalArgumentException("The filter parameter cannot be combined with the other filter parameters");
+        }
+        try {
+            return objectMapper.readValue(filter, SearchFilter.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid filter parameter", e);
+        }
+    }
 }
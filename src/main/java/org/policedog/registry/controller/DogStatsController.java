@@ -0,0 +1,32 @@
+package org.policedog.registry.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.policedog.registry.dto.DogStatsDto;
+import org.policedog.registry.service.DogStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/dogs/stats")
+public class DogStatsController {
+
+    private final DogStatsService dogStatsService;
+
+    @GetMapping(produces = "application/json")
+    @Operation(summary = "Get counts of police dogs by status, gender, leaving reason and supplier",
+            description = """
+                    Count the active (non-deleted) police dogs by status, gender and leaving reason, with every
+                    value present even when its count is 0, and by supplier code for suppliers that have dogs.
+                    
+                    Counts are kept in memory and updated as dogs are created, updated, retired and deleted, so
+                    this never queries the database. Changes made through other instances of the registry are
+                    only reflected once this one restarts.
+                    """, tags = {"Dog - Query Operations"})
+    public ResponseEntity<DogStatsDto> getStats() {
+        return ResponseEntity.ok(dogStatsService.getStats());
+    }
+}
@@ -0,0 +1,98 @@
+package org.policedog.registry.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.RequiredArgsConstructor;
+import org.policedog.registry.domain.ImportType;
+import org.policedog.registry.dto.ImportJobDto;
+import org.policedog.registry.service.ImportJobService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/dogs/imports")
+public class ImportJobController {
+    private final ImportJobService importJobService;
+
+    @PostMapping(value = "/dogs", consumes = "text/csv", produces = "application/json")
+    @Operation(summary = "Start a CSV import of police dogs",
+            description = """
+                    Upload a CSV file of police dogs to be created in the background. The response is returned as soon
+                    as the file is stored; poll the job in the Location header to follow its progress.
+
+                    The header row names the columns: name, breed, supplierCode, badgeNumber, gender, birthDate and
+                    status are required; the characteristic flags, notes and temperament are optional.
+                    Rows are imported in chunks, several at a time, each in its own transaction together with its
+                    checkpoint. A row that is invalid, refers to an unknown supplier or reuses a badge number is
+                    rejected and reported on the job without stopping the import. As chunks run in parallel, which
+                    of two rows sharing a badge number in different chunks is created is not defined.
+
+                    Error will be returned in the following cases:
+                    - The header row is missing required columns
+                    """, tags = {"Import Operations"})
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(mediaType = "text/csv",
+            schema = @Schema(type = "string", format = "binary")))
+    public ResponseEntity<ImportJobDto> importDogs(InputStream requestBody) throws IOException {
+        return accepted(importJobService.startImport(ImportType.DOGS, requestBody));
+    }
+
+    @PostMapping(value = "/suppliers", consumes = "text/csv", produces = "application/json")
+    @Operation(summary = "Start a CSV import of suppliers",
+            description = """
+                    Upload a CSV file of suppliers to be created in the background. The response is returned as soon
+                    as the file is stored; poll the job in the Location header to follow its progress.
+
+                    The header row names the columns: code and name are required; contactPerson, email and phone
+                    are optional. A row that is invalid or reuses a supplier code is rejected and reported on the job.
+
+                    Error will be returned in the following cases:
+                    - The header row is missing required columns
+                    """, tags = {"Import Operations"})
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(mediaType = "text/csv",
+            schema = @Schema(type = "string", format = "binary")))
+    public ResponseEntity<ImportJobDto> importSuppliers(InputStream requestBody) throws IOException {
+        return accepted(importJobService.startImport(ImportType.SUPPLIERS, requestBody));
+    }
+
+    @GetMapping(value = "/{id}", produces = "application/json")
+    @Operation(summary = "Get the progress of an import job",
+            description = """
+                    Retrieve the status of an import job with the number of committed chunks, created and rejected
+                    rows, and the first rejected rows with the reason they were rejected.
+
+                    Error will be returned in the following cases:
+                    - Import job with the given ID does not exist
+                    """, tags = {"Import Operations"})
+    public ResponseEntity<ImportJobDto> getImportJob(@PathVariable Long id) {
+        return ResponseEntity.ok(importJobService.getJob(id));
+    }
+
+    @PostMapping(value = "/{id}/resume", produces = "application/json")
+    @Operation(summary = "Resume a failed import job",
+            description = """
+                    Restart a failed import job from its stored file. Chunks committed by earlier runs are skipped,
+                    so no row is imported twice.
+
+                    Error will be returned in the following cases:
+                    - Import job with the given ID does not exist
+                    - Import job is already completed or still running
+                    """, tags = {"Import Operations"})
+    public ResponseEntity<ImportJobDto> resumeImportJob(@PathVariable Long id) {
+        return accepted(importJobService.resumeImport(id));
+    }
+
+    private static ResponseEntity<ImportJobDto> accepted(ImportJobDto job) {
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/dogs/imports/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+}
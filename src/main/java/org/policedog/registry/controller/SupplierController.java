@@ -4,35 +4,82 @@ import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.policedog.registry.dto.*;
+import org.policedog.registry.idempotency.IdempotencyStore;
 import org.policedog.registry.service.SupplierService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/api/dogs/supplier")
 public class SupplierController {
     private final SupplierService supplierService;
+    private final IdempotencyStore idempotencyStore;
 
     @GetMapping(value = "/{id}", produces = "application/json")
     @Operation(summary = "Get a supplier by ID including their dogs",
             description = """
                     Retrieve the details of a specific supplier by its ID, including the list of police dogs supplied by them.
+                    
+                    Use 'dogs' to choose how much of the dogs is returned:
+                    - FULL (default): every dog supplied, deleted ones included
+                    - SUMMARY: only 'dogCount', the number of non-deleted dogs
+                    - NONE: no dog information
+                    
+                    Suppliers with many dogs are best read with SUMMARY or NONE and their dogs paged through
+                    /api/dogs/supplier/{id}/dogs.
+                    
+                    The response carries an ETag for the supplier and the requested view of its dogs; send it
+                    back in 'If-None-Match' to get 304 Not Modified without a body while nothing has changed.
+                    """, tags = {"Supplier - Query Operations"})
+    public ResponseEntity<SupplierDetailDto> getSupplier(@PathVariable Long id,
+                                                         @RequestParam(defaultValue = "FULL") SupplierDogsView dogs,
+                                                         WebRequest request) {
+        String eTag = supplierService.getSupplierETag(id, dogs);
+        // A matching If-None-Match is answered with 304 before the supplier and its dogs are loaded. A change
+        // between the two reads sends newer data under the older tag, which the next request simply refetches
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        SupplierDetailDto supplier = supplierService.getSupplierById(id, dogs);
+        return ResponseEntity.ok().eTag(eTag).body(supplier);
+    }
+
+    @GetMapping(value = "/{id}/dogs", produces = "application/json")
+    @Operation(summary = "Get the dogs of a supplier",
+            description = """
+                    Retrieve the police dogs supplied by a specific supplier, ordered by ID.
+                    
+                    Results are cursor paginated: leave 'cursor' out for the first page, then pass the 'nextCursor'
+                    from the previous response metadata. Page size is limited to 100.
+                    Deleted dogs are only returned when 'includeDeleted' is true.
+                    
+                    Error will be returned in the following cases:
+                    - Supplier with the given ID does not exist
                     """, tags = {"Supplier - Query Operations"})
-    public ResponseEntity<SupplierDetailDto> getSupplier(@PathVariable Long id) {
-        SupplierDetailDto supplier = supplierService.getSupplierById(id);
-        return ResponseEntity.ok(supplier);
+    public ResponseEntity<PageResponse<DogSummaryDto>> getSupplierDogs(@PathVariable Long id,
+                                                                       @RequestParam(defaultValue = "false") boolean includeDeleted,
+                                                                       @RequestParam(required = false) String cursor,
+                                                                       @RequestParam(defaultValue = "10") int pageSize) {
+        PageResponse<DogSummaryDto> dogs = supplierService.getSupplierDogs(id, includeDeleted, cursor, pageSize);
+        return ResponseEntity.ok(dogs);
     }
 
     @GetMapping(produces = "application/json")
     @Operation(summary = "Get a paginated list of suppliers",
             description = """
-                    Retrieve a paginated list of suppliers in the system.
+                    Retrieve a paginated list of suppliers in the system. Page size is limited to 100.
                     
+                    Set 'includeTotal' to false to skip calculating totalElements and totalPages;
+                    only 'last' then tells whether more pages exist.
                     """, tags = {"Supplier - Query Operations"})
-    public ResponseEntity<PageResponse<SupplierDetailDto>> getSuppliers(@RequestParam(defaultValue = "0") int pageNo, @RequestParam(defaultValue = "10") int pageSize) {
-        PageResponse<SupplierDetailDto> suppliers = supplierService.getSuppliers(pageNo, pageSize);
+    public ResponseEntity<PageResponse<SupplierDetailDto>> getSuppliers(@RequestParam(defaultValue = "0") int pageNo, @RequestParam(defaultValue = "10") int pageSize,
+                                                                        @RequestParam(defaultValue = "true") boolean includeTotal) {
+        PageResponse<SupplierDetailDto> suppliers = includeTotal
+                ? supplierService.getSuppliers(pageNo, pageSize)
+                : supplierService.getSuppliersSlice(pageNo, pageSize);
         return ResponseEntity.ok(suppliers);
     }
 
@@ -44,11 +91,19 @@ public class SupplierController {
                     Error will be returned in the following cases:
                     - Supplier code is not unique
                     - Required fields are missing or invalid
+                    
+                    A request sent again with the same 'Idempotency-Key' gets the original response back, marked
+                    'Idempotent-Replayed: true', without creating another supplier. Reusing a key for a different
+                    request returns 422 Unprocessable Entity, and resending it while the first request is still
+                    running returns 409 Conflict.
                     """, tags = {"Supplier - Command Operations"}
     )
-    public ResponseEntity<SupplierDetailDto> createSupplier(@Valid @RequestBody SupplierRequest createSupplierRequest) {
-        SupplierDetailDto supplier = supplierService.createSupplier(createSupplierRequest);
-        return ResponseEntity.status(HttpStatus.CREATED).body(supplier);
+    public ResponseEntity<SupplierDetailDto> createSupplier(@Valid @RequestBody SupplierRequest createSupplierRequest,
+                                                            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "createSupplier", createSupplierRequest, SupplierDetailDto.class, () -> {
+            SupplierDetailDto supplier = supplierService.createSupplier(createSupplierRequest);
+            return ResponseEntity.status(HttpStatus.CREATED).body(supplier);
+        });
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,57 @@
+package org.policedog.registry.dao;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.policedog.registry.dao.PoliceDogRepository.DogStatsRow;
+import org.policedog.registry.dao.PoliceDogRepository.DogVersion;
+import org.policedog.registry.domain.ArchivedPoliceDog;
+import org.policedog.registry.dto.DogDetailDto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Reads of the dog archive, with the same projections as {@link PoliceDogRepository}. The active roster
+ * queries never read it; a dog's detail, badge number checks, exports and statistics do. Bulk badge number
+ * checks read both tables in {@link PoliceDogRepository#findExistingBadgeNumbers}.
+ */
+public interface ArchivedDogRepository extends JpaRepository<ArchivedPoliceDog, Long> {
+
+    @Query(PoliceDogRepository.DOG_DETAIL_COLUMNS + "FROM ArchivedPoliceDog d LEFT JOIN d.supplier s WHERE d.id = :id")
+    Optional<DogDetailDto> findDogDetailById(@Param("id") Long id);
+
+    /**
+     * The archived counterpart of {@link PoliceDogRepository#findVersionById}.
+     */
+    @Query("SELECT new org.policedog.registry.dao.PoliceDogRepository$DogVersion(d.version, s.id, s.version) " +
+            "FROM ArchivedPoliceDog d LEFT JOIN d.supplier s WHERE d.id = :id")
+    Optional<DogVersion> findVersionById(@Param("id") Long id);
+
+    boolean existsByBadgeNumber(String badgeNumber);
+
+    /**
+     * Forward-only read of the archive for exports, as {@link PoliceDogRepository#streamDogs}.
+     */
+    @Query("SELECT d FROM ArchivedPoliceDog d LEFT JOIN FETCH d.supplier " +
+            "WHERE d.deleted = false OR d.deleted = :includeDeleted " +
+            "ORDER BY d.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ArchivedPoliceDog> streamDogs(@Param("includeDeleted") boolean includeDeleted);
+
+    /**
+     * The archived counterpart of {@link PoliceDogRepository#countDogsForStats()}.
+     */
+    @Query("SELECT new org.policedog.registry.dao.PoliceDogRepository$DogStatsRow(" +
+            "d.status, d.gender, d.leavingReason, s.id, s.code, COUNT(d)) " +
+            "FROM ArchivedPoliceDog d LEFT JOIN d.supplier s WHERE d.deleted = false " +
+            "GROUP BY d.status, d.gender, d.leavingReason, s.id, s.code")
+    List<DogStatsRow> countDogsForStats();
+}
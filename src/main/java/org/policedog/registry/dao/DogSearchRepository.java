@@ -0,0 +1,37 @@
+package org.policedog.registry.dao;
+
+import org.policedog.registry.dto.DogDetailDto;
+import org.policedog.registry.dto.SearchFilter;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Dog list queries built from a {@link SearchFilter}, emitting only the predicates of the criteria that
+ * are set. Each combination of criteria gives one fixed SQL text with bound values, so the database can
+ * use the index of a criterion and reuse the statement's plan, which a single query of
+ * {@code (:x IS NULL OR d.x = :x)} conditions defeats.
+ * <p>
+ * {@code dogIds}, when not {@code null}, restricts the dogs to those IDs, typically the candidates the
+ * {@link org.policedog.registry.search.DogTextIndex} resolved for the filter's substring criteria, which
+ * are still applied to them. An empty collection matches no dogs without querying.
+ */
+public interface DogSearchRepository {
+
+    /**
+     * A page of non-deleted dogs in the filter's order, with one extra row read to tell whether
+     * another page follows.
+     */
+    Slice<DogDetailDto> searchDogDetails(SearchFilter filter, Collection<Long> dogIds, Pageable pageable);
+
+    long countDogs(SearchFilter filter, Collection<Long> dogIds);
+
+    /**
+     * Keyset variant of {@link #searchDogDetails}: non-deleted dogs with an ID above {@code afterId},
+     * ordered by ID whatever the filter's order.
+     */
+    List<DogDetailDto> searchDogDetailsAfter(SearchFilter filter, Collection<Long> dogIds, long afterId, Limit limit);
+}
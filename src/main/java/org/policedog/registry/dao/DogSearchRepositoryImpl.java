@@ -0,0 +1,160 @@
+package org.policedog.registry.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.policedog.registry.domain.PoliceDog;
+import org.policedog.registry.domain.Supplier;
+import org.policedog.registry.dto.DogDetailDto;
+import org.policedog.registry.dto.DogSortField;
+import org.policedog.registry.dto.SearchFilter;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+class DogSearchRepositoryImpl implements DogSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<DogDetailDto> searchDogDetails(SearchFilter filter, Collection<Long> dogIds, Pageable pageable) {
+        if (dogIds != null && dogIds.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DogDetailDto> query = cb.createQuery(DogDetailDto.class);
+        Root<PoliceDog> dog = query.from(PoliceDog.class);
+        Join<PoliceDog, Supplier> supplier = dog.join("supplier", JoinType.LEFT);
+        query.select(dogDetail(cb, dog, supplier))
+                .where(predicates(cb, dog, supplier, filter, dogIds).toArray(Predicate[]::new))
+                .orderBy(order(cb, dog, filter));
+
+        List<DogDetailDto> dogs = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = dogs.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? dogs.subList(0, pageable.getPageSize()) : dogs, pageable, hasNext);
+    }
+
+    @Override
+    public long countDogs(SearchFilter filter, Collection<Long> dogIds) {
+        if (dogIds != null && dogIds.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<PoliceDog> dog = query.from(PoliceDog.class);
+        // The supplier is only joined when its code is filtered on
+        Join<PoliceDog, Supplier> supplier = filter.getSupplierCode() == null ? null : dog.join("supplier");
+        query.select(cb.count(dog)).where(predicates(cb, dog, supplier, filter, dogIds).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public List<DogDetailDto> searchDogDetailsAfter(SearchFilter filter, Collection<Long> dogIds, long afterId, Limit limit) {
+        if (dogIds != null && dogIds.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DogDetailDto> query = cb.createQuery(DogDetailDto.class);
+        Root<PoliceDog> dog = query.from(PoliceDog.class);
+        Join<PoliceDog, Supplier> supplier = dog.join("supplier", JoinType.LEFT);
+        List<Predicate> predicates = predicates(cb, dog, supplier, filter, dogIds);
+        predicates.add(cb.greaterThan(dog.get("id"), afterId));
+        query.select(dogDetail(cb, dog, supplier))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(dog.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit.max())
+                .getResultList();
+    }
+
+    private static List<Predicate> predicates(CriteriaBuilder cb, Root<PoliceDog> dog, Join<PoliceDog, Supplier> supplier,
+                                              SearchFilter filter, Collection<Long> dogIds) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (dogIds == null) {
+            // A comparison rather than isFalse, which renders as "not(deleted)" and cannot seek an index
+            predicates.add(cb.equal(dog.get("deleted"), false));
+        } else {
+            // Here isFalse on purpose, so the database reads the IDs by primary key rather than seeking
+            // every non-deleted dog on the (deleted, id) index
+            predicates.add(dog.get("id").in(dogIds));
+            predicates.add(cb.isFalse(dog.get("deleted")));
+        }
+        contains(cb, predicates, dog.get("name"), filter.getName());
+        contains(cb, predicates, dog.get("breed"), filter.getBreed());
+        if (filter.getSupplierCode() != null) {
+            contains(cb, predicates, supplier.get("code"), filter.getSupplierCode());
+        }
+        equal(cb, predicates, dog.get("status"), filter.getStatus());
+        equal(cb, predicates, dog.get("gender"), filter.getGender());
+        equal(cb, predicates, dog.get("leavingReason"), filter.getLeavingReason());
+        between(cb, predicates, dog.get("birthDate"), filter.getBirthDateFrom(), filter.getBirthDateTo());
+        between(cb, predicates, dog.get("dateAcquired"), filter.getDateAcquiredFrom(), filter.getDateAcquiredTo());
+        between(cb, predicates, dog.get("leavingDate"), filter.getLeavingDateFrom(), filter.getLeavingDateTo());
+        return predicates;
+    }
+
+    private static void contains(CriteriaBuilder cb, List<Predicate> predicates, Path<String> attribute, String value) {
+        if (value != null) {
+            predicates.add(cb.like(attribute, "%" + value + "%"));
+        }
+    }
+
+    private static void equal(CriteriaBuilder cb, List<Predicate> predicates, Path<?> attribute, Object value) {
+        if (value != null) {
+            predicates.add(cb.equal(attribute, value));
+        }
+    }
+
+    private static void between(CriteriaBuilder cb, List<Predicate> predicates, Path<LocalDate> attribute,
+                                LocalDate from, LocalDate to) {
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(attribute, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThanOrEqualTo(attribute, to));
+        }
+    }
+
+    private static List<Order> order(CriteriaBuilder cb, Root<PoliceDog> dog, SearchFilter filter) {
+        DogSortField sort = filter.getSort() == null ? DogSortField.ID : filter.getSort();
+        boolean descending = filter.getDirection() == Sort.Direction.DESC;
+        List<Order> order = new ArrayList<>();
+        order.add(descending ? cb.desc(dog.get(sort.getAttribute())) : cb.asc(dog.get(sort.getAttribute())));
+        if (sort != DogSortField.ID) {
+            order.add(cb.asc(dog.get("id")));
+        }
+        return order;
+    }
+
+    /**
+     * The criteria counterpart of {@link PoliceDogRepository#DOG_DETAIL_SELECT}.
+     */
+    private static CompoundSelection<DogDetailDto> dogDetail(CriteriaBuilder cb, Root<PoliceDog> dog,
+                                                             Join<PoliceDog, Supplier> supplier) {
+        Path<Object> characteristics = dog.get("characteristics");
+        return cb.construct(DogDetailDto.class,
+                dog.get("id"), dog.get("name"), dog.get("breed"),
+                supplier.get("id"), supplier.get("code"), supplier.get("name"), supplier.get("contactPerson"),
+                supplier.get("email"), supplier.get("phone"),
+                dog.get("badgeNumber"), dog.get("gender"), dog.get("birthDate"), dog.get("dateAcquired"),
+                dog.get("status"), dog.get("leavingDate"), dog.get("leavingReason"),
+                characteristics.get("isAggressive"), characteristics.get("requiresSeparateKennel"),
+                characteristics.get("isNoiceTolerant"), characteristics.get("hasSpecialDiet"),
+                characteristics.get("dietaryRequirements"), characteristics.get("requiresExercise"),
+                characteristics.get("exerciseNotes"), characteristics.get("hasMedicalConditions"),
+                characteristics.get("medicalNotes"), characteristics.get("temperament"),
+                dog.get("deleted"), dog.get("deletedAt"), dog.get("version"), supplier.get("version"));
+    }
+}
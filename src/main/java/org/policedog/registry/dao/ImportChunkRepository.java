@@ -0,0 +1,21 @@
+package org.policedog.registry.dao;
+
+import org.policedog.registry.domain.ImportChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Set;
+
+public interface ImportChunkRepository extends JpaRepository<ImportChunk, Long> {
+
+    @Query("SELECT c.chunkIndex FROM ImportChunk c WHERE c.jobId = :jobId")
+    Set<Integer> findChunkIndexes(@Param("jobId") Long jobId);
+
+    @Query("SELECT new org.policedog.registry.dao.ImportChunkRepository$Progress(COUNT(c), COALESCE(SUM(c.createdRows), 0), COALESCE(SUM(c.failedRows), 0)) " +
+            "FROM ImportChunk c WHERE c.jobId = :jobId")
+    Progress summarise(@Param("jobId") Long jobId);
+
+    record Progress(long committedChunks, long createdRows, long failedRows) {
+    }
+}
@@ -0,0 +1,7 @@
+package org.policedog.registry.dao;
+
+import org.policedog.registry.domain.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+}
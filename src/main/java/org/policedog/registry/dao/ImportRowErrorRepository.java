@@ -0,0 +1,12 @@
+package org.policedog.registry.dao;
+
+import org.policedog.registry.domain.ImportRowError;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ImportRowErrorRepository extends JpaRepository<ImportRowError, Long> {
+
+    List<ImportRowError> findByJobIdOrderByRowNumber(Long jobId, Limit limit);
+}
@@ -1,31 +1,183 @@
 package org.policedog.registry.dao;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.policedog.registry.domain.Gender;
 import org.policedog.registry.domain.LeavingReason;
 import org.policedog.registry.domain.PoliceDog;
 import org.policedog.registry.domain.Status;
-import org.springframework.data.domain.Page;
+import org.policedog.registry.dto.DogDetailDto;
+import org.policedog.registry.dto.DogSummaryDto;
+import org.policedog.registry.search.DogText;
+import org.policedog.registry.search.DogTextIndex;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface PoliceDogRepository extends JpaRepository<PoliceDog, Long> {
+/**
+ * Read queries project straight into {@link DogDetailDto} with a constructor expression, so they
+ * run as a single select joined to the supplier and skip entity hydration, dirty-checking snapshots
+ * and the MapStruct copy. Write paths keep loading managed {@link PoliceDog} entities. The filtered dog
+ * list is built per request by {@link DogSearchRepository}.
+ */
+public interface PoliceDogRepository extends JpaRepository<PoliceDog, Long>, DogSearchRepository {
 
+    String DOG_DETAIL_COLUMNS = "SELECT new org.policedog.registry.dto.DogDetailDto(" +
+            "d.id, d.name, d.breed, " +
+            "s.id, s.code, s.name, s.contactPerson, s.email, s.phone, " +
+            "d.badgeNumber, d.gender, d.birthDate, d.dateAcquired, d.status, d.leavingDate, d.leavingReason, " +
+            "d.characteristics.isAggressive, d.characteristics.requiresSeparateKennel, d.characteristics.isNoiceTolerant, " +
+            "d.characteristics.hasSpecialDiet, d.characteristics.dietaryRequirements, d.characteristics.requiresExercise, " +
+            "d.characteristics.exerciseNotes, d.characteristics.hasMedicalConditions, d.characteristics.medicalNotes, " +
+            "d.characteristics.temperament, " +
+            "d.deleted, d.deletedAt, d.version, s.version) ";
+
+    String DOG_DETAIL_SELECT = DOG_DETAIL_COLUMNS + "FROM PoliceDog d LEFT JOIN d.supplier s ";
+
+    /**
+     * Forward-only read of the whole registry for exports. The caller must consume the stream inside a
+     * transaction and close it; rows are read-only so Hibernate keeps no dirty-checking snapshots.
+     */
+    @Query("SELECT d FROM PoliceDog d LEFT JOIN FETCH d.supplier " +
+            "WHERE d.deleted = false OR d.deleted = :includeDeleted " +
+            "ORDER BY d.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<PoliceDog> streamDogs(@Param("includeDeleted") boolean includeDeleted);
+
+    /**
+     * The text of every non-deleted dog, read forward-only to build the {@link DogTextIndex}.
+     */
+    @Query("SELECT new org.policedog.registry.search.DogText(d.id, d.name, d.breed, s.id, s.code) " +
+            "FROM PoliceDog d LEFT JOIN d.supplier s WHERE d.deleted = false")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<DogText> streamDogText();
+
+    /**
+     * The next dogs to archive, locked until the archiving transaction ends: those deleted before
+     * {@code deletedBefore} and those that left or retired before {@code leftBefore}. Retired dogs
+     * without a leaving date are kept.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT d FROM PoliceDog d " +
-            "WHERE (:name IS NULL OR d.name LIKE %:name%) " +
-            "AND (:breed IS NULL OR d.breed LIKE %:breed%) " +
-            "AND (:supplierCode IS NULL OR d.supplier.code LIKE %:supplierCode%)" +
-            "AND d.deleted = false")
-    Page<PoliceDog> findDogs(@Param("name") String name, @Param("breed") String breed, @Param("supplierCode") String supplierCode, Pageable pageable);
+            "WHERE (d.deleted = true AND d.deletedAt < :deletedBefore) " +
+            "OR (d.deleted = false AND d.status IN (org.policedog.registry.domain.Status.LEFT, org.policedog.registry.domain.Status.RETIRED) " +
+            "AND d.leavingDate < :leftBefore) " +
+            "ORDER BY d.id")
+    List<PoliceDog> findDogsToArchive(@Param("deletedBefore") LocalDateTime deletedBefore,
+                                      @Param("leftBefore") LocalDate leftBefore, Limit limit);
+
+    @Query(DOG_DETAIL_SELECT + "WHERE d.id = :id")
+    Optional<DogDetailDto> findDogDetailById(@Param("id") Long id);
+
+    /**
+     * The versions a dog's ETag is built from: its own and its supplier's, whose details the dog embeds.
+     */
+    @Query("SELECT new org.policedog.registry.dao.PoliceDogRepository$DogVersion(d.version, s.id, s.version) " +
+            "FROM PoliceDog d LEFT JOIN d.supplier s WHERE d.id = :id")
+    Optional<DogVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * The ID and version of every dog of a supplier, deleted ones included, in ID order: what the supplier's
+     * FULL view ETag is built from without loading the dogs.
+     */
+    @Query("SELECT new org.policedog.registry.dao.PoliceDogRepository$DogIdVersion(d.id, d.version) " +
+            "FROM PoliceDog d WHERE d.supplier.id = :supplierId ORDER BY d.id")
+    List<DogIdVersion> findDogVersionsBySupplier(@Param("supplierId") Long supplierId);
 
     boolean existsByBadgeNumber(String badgeNumber);
 
-    List<PoliceDog> findAllByGender(Gender gender);
+    /**
+     * The given badge numbers taken by a dog of the registry or of the archive, in one statement.
+     */
+    @Query("SELECT d.badgeNumber FROM PoliceDog d WHERE d.badgeNumber IN :badgeNumbers " +
+            "UNION SELECT a.badgeNumber FROM ArchivedPoliceDog a WHERE a.badgeNumber IN :badgeNumbers")
+    Set<String> findExistingBadgeNumbers(@Param("badgeNumbers") Collection<String> badgeNumbers);
+
+    /*
+     * Keyset searches on a single attribute. "d.deleted = false OR d.deleted = :includeDeleted" only
+     * widens to deleted dogs when asked, and each attribute has an index on (attribute, deleted, id)
+     * so the seek and ordering are resolved from the index.
+     */
+    String DELETED_AWARE_SEEK = "AND (d.deleted = false OR d.deleted = :includeDeleted) " +
+            "AND d.id > :afterId " +
+            "ORDER BY d.id";
+
+    @Query(DOG_DETAIL_SELECT + "WHERE d.gender = :gender " + DELETED_AWARE_SEEK)
+    List<DogDetailDto> findDogDetailsByGender(@Param("gender") Gender gender, @Param("includeDeleted") boolean includeDeleted,
+                                              @Param("afterId") long afterId, Limit limit);
+
+    @Query(DOG_DETAIL_SELECT + "WHERE d.status = :status " + DELETED_AWARE_SEEK)
+    List<DogDetailDto> findDogDetailsByStatus(@Param("status") Status status, @Param("includeDeleted") boolean includeDeleted,
+                                              @Param("afterId") long afterId, Limit limit);
+
+    @Query(DOG_DETAIL_SELECT + "WHERE d.leavingReason = :leavingReason " + DELETED_AWARE_SEEK)
+    List<DogDetailDto> findDogDetailsByLeavingReason(@Param("leavingReason") LeavingReason leavingReason, @Param("includeDeleted") boolean includeDeleted,
+                                                     @Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Keyset page of one supplier's dogs, seeking on the (supplier_id, deleted, id) index so large
+     * suppliers never have their whole dogs collection loaded.
+     */
+    @Query("SELECT new org.policedog.registry.dto.DogSummaryDto(d.id, d.name, d.breed, d.badgeNumber, d.gender, d.birthDate) " +
+            "FROM PoliceDog d WHERE d.supplier.id = :supplierId " + DELETED_AWARE_SEEK)
+    List<DogSummaryDto> findDogSummariesBySupplier(@Param("supplierId") Long supplierId, @Param("includeDeleted") boolean includeDeleted,
+                                                   @Param("afterId") long afterId, Limit limit);
+
+    long countBySupplierIdAndDeletedFalse(Long supplierId);
+
+    /**
+     * All dogs of a page of suppliers in one statement, so supplier lists do not initialise each
+     * supplier's dogs collection separately. Deleted dogs are included, as in {@code Supplier.dogs}.
+     */
+    @Query("SELECT new org.policedog.registry.dao.PoliceDogRepository$SupplierDogSummary(" +
+            "d.supplier.id, d.id, d.name, d.breed, d.badgeNumber, d.gender, d.birthDate) " +
+            "FROM PoliceDog d WHERE d.supplier.id IN :supplierIds ORDER BY d.id")
+    List<SupplierDogSummary> findDogSummariesBySupplierIds(@Param("supplierIds") Collection<Long> supplierIds);
+
+    /**
+     * Non-deleted dogs grouped by every attribute the registry statistics count on, in one statement.
+     */
+    @Query("SELECT new org.policedog.registry.dao.PoliceDogRepository$DogStatsRow(" +
+            "d.status, d.gender, d.leavingReason, s.id, s.code, COUNT(d)) " +
+            "FROM PoliceDog d LEFT JOIN d.supplier s WHERE d.deleted = false " +
+            "GROUP BY d.status, d.gender, d.leavingReason, s.id, s.code")
+    List<DogStatsRow> countDogsForStats();
+
+    record DogVersion(Long version, Long supplierId, Long supplierVersion) {
+    }
+
+    record DogIdVersion(Long id, Long version) {
+    }
+
+    record DogStatsRow(Status status, Gender gender, LeavingReason leavingReason, Long supplierId, String supplierCode,
+                       Long count) {
+    }
 
-    List<PoliceDog> findAllByStatus(Status status);
+    record SupplierDogSummary(Long supplierId, Long id, String name, String breed, String badgeNumber,
+                              Gender gender, LocalDate birthDate) {
 
-    List<PoliceDog> findAllByLeavingReason(LeavingReason leavingReason);
+        public DogSummaryDto toDogSummaryDto() {
+            return new DogSummaryDto(id, name, breed, badgeNumber, gender, birthDate);
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package org.policedog.registry.dao;
+
+import org.policedog.registry.domain.Supplier;
+
+import java.util.Optional;
+
+public interface SupplierNaturalIdRepository {
+
+    /**
+     * Looks the supplier up by its natural ID. Unlike a query on {@code code}, this is answered from the
+     * second-level cache once the supplier has been loaded, without reaching the database.
+     */
+    Optional<Supplier> findByNaturalCode(String code);
+}
@@ -0,0 +1,21 @@
+package org.policedog.registry.dao;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.policedog.registry.domain.Supplier;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+class SupplierNaturalIdRepositoryImpl implements SupplierNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<Supplier> findByNaturalCode(String code) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Supplier.class)
+                .loadOptional(code);
+    }
+}
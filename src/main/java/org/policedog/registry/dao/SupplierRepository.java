@@ -1,13 +1,29 @@
 package org.policedog.registry.dao;
 
 import org.policedog.registry.domain.Supplier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public interface SupplierRepository extends JpaRepository<Supplier, Long> {
-    Optional<Supplier> findByCode(String code);
+public interface SupplierRepository extends JpaRepository<Supplier, Long>, SupplierNaturalIdRepository {
 
     boolean existsByCode(String code);
 
+    Slice<Supplier> findAllBy(Pageable pageable);
+
+    List<Supplier> findAllByCodeIn(Collection<String> codes);
+
+    @Query("SELECT s.code FROM Supplier s WHERE s.code IN :codes")
+    Set<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+    @Query("SELECT s.version FROM Supplier s WHERE s.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
 }
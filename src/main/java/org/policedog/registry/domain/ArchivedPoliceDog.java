@@ -0,0 +1,63 @@
+package org.policedog.registry.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A {@link PoliceDog} moved to the archive table by {@link org.policedog.registry.service.DogArchiveService}
+ * after it left, retired or was deleted, keeping its ID, badge number and version. Archived dogs are
+ * read-only.
+ */
+@Entity
+@Table(name = "police_dog_archive")
+@Immutable
+@Data
+@NoArgsConstructor
+public class ArchivedPoliceDog {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    private String breed;
+
+    @ManyToOne
+    @JoinColumn(name = "supplier_id")
+    private Supplier supplier;
+
+    @Column(unique = true, nullable = false)
+    private String badgeNumber;
+
+    @Enumerated(EnumType.STRING)
+    private Gender gender;
+
+    private LocalDate birthDate;
+
+    private LocalDate dateAcquired;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    private LocalDate leavingDate;
+
+    @Enumerated(EnumType.STRING)
+    private LeavingReason leavingReason;
+
+    @Embedded
+    private Characteristics characteristics;
+
+    private Long version;
+
+    private Boolean deleted;
+
+    private LocalDateTime deletedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,51 @@
+package org.policedog.registry.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+import static jakarta.persistence.GenerationType.IDENTITY;
+import static lombok.AccessLevel.NONE;
+
+/**
+ * Checkpoint of an import chunk, saved in the same transaction as the chunk's rows: a chunk has been
+ * imported exactly when its checkpoint exists.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_import_chunk_job_chunk", columnNames = {"jobId", "chunkIndex"}))
+public class ImportChunk {
+
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    @Setter(NONE)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long jobId;
+
+    private int chunkIndex;
+
+    private long firstRow;
+
+    private int createdRows;
+
+    private int failedRows;
+
+    private LocalDateTime committedAt;
+
+    public ImportChunk(Long jobId, int chunkIndex, long firstRow, int createdRows, int failedRows) {
+        this.jobId = jobId;
+        this.chunkIndex = chunkIndex;
+        this.firstRow = firstRow;
+        this.createdRows = createdRows;
+        this.failedRows = failedRows;
+        this.committedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,57 @@
+package org.policedog.registry.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+import static jakarta.persistence.GenerationType.IDENTITY;
+import static lombok.AccessLevel.NONE;
+
+/**
+ * A CSV import. The uploaded file is kept at {@code filePath} until the import completes, so a failed
+ * import can be resumed; progress is tracked by the {@link ImportChunk} checkpoints.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportJob {
+
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    @Setter(NONE)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportStatus status;
+
+    @Column(nullable = false)
+    private String filePath;
+
+    /**
+     * Chunk size the import started with, kept so a resumed import cuts the file into the same chunks.
+     */
+    private int chunkSize;
+
+    private Long totalRows;
+
+    @Column(length = 2000)
+    private String error;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Setter(NONE)
+    private Long version;
+}
@@ -0,0 +1,36 @@
+package org.policedog.registry.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import static jakarta.persistence.GenerationType.IDENTITY;
+import static lombok.AccessLevel.NONE;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportRowError {
+
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    @Setter(NONE)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long jobId;
+
+    private long rowNumber;
+
+    @Column(length = 1000)
+    private String message;
+
+    public ImportRowError(Long jobId, long rowNumber, String message) {
+        this.jobId = jobId;
+        this.rowNumber = rowNumber;
+        this.message = message;
+    }
+}
@@ -0,0 +1,5 @@
+package org.policedog.registry.domain;
+
+public enum ImportStatus {
+    RUNNING, COMPLETED, FAILED
+}
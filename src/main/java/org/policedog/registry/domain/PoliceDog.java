@@ -11,7 +11,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
-import static jakarta.persistence.GenerationType.IDENTITY;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 import static lombok.AccessLevel.NONE;
 
 @Entity
@@ -22,7 +22,8 @@ import static lombok.AccessLevel.NONE;
 public class PoliceDog {
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "police_dog_seq")
+    @SequenceGenerator(name = "police_dog_seq", sequenceName = "police_dog_seq", allocationSize = 50)
     @Setter(NONE)
     private Long id;
 
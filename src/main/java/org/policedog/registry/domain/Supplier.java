@@ -5,22 +5,36 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import static lombok.AccessLevel.NONE;
 
+/**
+ * Suppliers are few and rarely change, so they live in the second-level cache together with the
+ * code to ID resolution of their natural ID; see {@link org.policedog.registry.dao.SupplierRepository#findByNaturalCode}.
+ */
 @Entity
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@jakarta.persistence.Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// The default region name ends in "##NaturalId", which Caffeine cannot look up in application.conf
+@NaturalIdCache(region = "supplier-natural-id")
 public class Supplier {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "supplier_seq")
+    @SequenceGenerator(name = "supplier_seq", sequenceName = "supplier_seq", allocationSize = 50)
     @Setter(NONE)
     private Long id;
 
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String code;
 
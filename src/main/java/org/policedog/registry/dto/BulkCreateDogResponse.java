@@ -0,0 +1,24 @@
+package org.policedog.registry.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkCreateDogResponse {
+
+    private int created;
+    private int failed;
+    private List<BulkItemResult> results;
+
+    public static BulkCreateDogResponse of(List<BulkItemResult> results) {
+        int created = (int) results.stream()
+                .filter(result -> result.getOutcome() == BulkItemResult.Outcome.CREATED)
+                .count();
+        return new BulkCreateDogResponse(created, results.size() - created, results);
+    }
+}
@@ -0,0 +1,37 @@
+package org.policedog.registry.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+
+    public enum Outcome {
+        CREATED, FAILED
+    }
+
+    @Schema(description = "Zero based position of the item in the request", example = "0")
+    private int index;
+    @Schema(description = "Badge number of the item, when it could be read", example = "BDG456")
+    private String badgeNumber;
+    @Schema(description = "Whether the item was created", example = "CREATED")
+    private Outcome outcome;
+    @Schema(description = "ID of the created dog", example = "12")
+    private Long id;
+    @Schema(description = "Why the item was not created", example = "Dog with badge number BDG456 already exists")
+    private String error;
+
+    public static BulkItemResult created(int index, String badgeNumber, Long id) {
+        return new BulkItemResult(index, badgeNumber, Outcome.CREATED, id, null);
+    }
+
+    public static BulkItemResult failed(int index, String badgeNumber, String error) {
+        return new BulkItemResult(index, badgeNumber, Outcome.FAILED, null, error);
+    }
+}
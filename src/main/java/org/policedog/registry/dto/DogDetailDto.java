@@ -1,5 +1,6 @@
 package org.policedog.registry.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,6 +10,8 @@ import org.policedog.registry.domain.Status;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 @Data
 @AllArgsConstructor
@@ -29,4 +32,45 @@ public class DogDetailDto {
     private CharacteristicsDto characteristics;
     private Boolean deleted;
     private LocalDateTime deletedAt;
+    @JsonIgnore
+    private Long version;
+    @JsonIgnore
+    private Long supplierVersion;
+
+    /**
+     * Flat constructor for JPQL constructor expressions, which cannot instantiate the nested supplier
+     * and characteristics DTOs themselves. Mirrors the entity mapping: no supplier when the dog has
+     * none, and no characteristics when every characteristic column is null.
+     */
+    public DogDetailDto(Long id, String name, String breed,
+                        Long supplierId, String supplierCode, String supplierName,
+                        String supplierContactPerson, String supplierEmail, String supplierPhone,
+                        String badgeNumber, Gender gender, LocalDate birthDate, LocalDate dateAcquired,
+                        Status status, LocalDate leavingDate, LeavingReason leavingReason,
+                        Boolean isAggressive, Boolean requiresSeparateKennel, Boolean isNoiceTolerant,
+                        Boolean hasSpecialDiet, String dietaryRequirements, Boolean requiresExercise,
+                        String exerciseNotes, Boolean hasMedicalConditions, String medicalNotes, String temperament,
+                        Boolean deleted, LocalDateTime deletedAt, Long version, Long supplierVersion) {
+        this.id = id;
+        this.name = name;
+        this.breed = breed;
+        this.supplier = supplierId == null ? null
+                : new SupplierSummaryDto(supplierId, supplierCode, supplierName, supplierContactPerson, supplierEmail, supplierPhone);
+        this.badgeNumber = badgeNumber;
+        this.gender = gender;
+        this.birthDate = birthDate;
+        this.dateAcquired = dateAcquired;
+        this.status = status;
+        this.leavingDate = leavingDate;
+        this.leavingReason = leavingReason;
+        this.characteristics = Stream.of(isAggressive, requiresSeparateKennel, isNoiceTolerant, hasSpecialDiet,
+                        dietaryRequirements, requiresExercise, exerciseNotes, hasMedicalConditions, medicalNotes, temperament)
+                .allMatch(Objects::isNull) ? null
+                : new CharacteristicsDto(isAggressive, requiresSeparateKennel, isNoiceTolerant, hasSpecialDiet,
+                dietaryRequirements, requiresExercise, exerciseNotes, hasMedicalConditions, medicalNotes, temperament);
+        this.deleted = deleted;
+        this.deletedAt = deletedAt;
+        this.version = version;
+        this.supplierVersion = supplierVersion;
+    }
 }
@@ -0,0 +1,22 @@
+package org.policedog.registry.dto;
+
+import lombok.Getter;
+
+/**
+ * Orderings offered by the paginated dog list. Ties are broken by ID so pages never overlap.
+ */
+@Getter
+public enum DogSortField {
+    ID("id"),
+    NAME("name"),
+    BREED("breed"),
+    BADGE_NUMBER("badgeNumber"),
+    BIRTH_DATE("birthDate"),
+    DATE_ACQUIRED("dateAcquired");
+
+    private final String attribute;
+
+    DogSortField(String attribute) {
+        this.attribute = attribute;
+    }
+}
@@ -0,0 +1,28 @@
+package org.policedog.registry.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.policedog.registry.domain.Gender;
+import org.policedog.registry.domain.LeavingReason;
+import org.policedog.registry.domain.Status;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DogStatsDto {
+
+    @Schema(description = "Number of non-deleted dogs", example = "42")
+    private long total;
+    @Schema(description = "Non-deleted dogs by status, with every status present")
+    private Map<Status, Long> byStatus;
+    @Schema(description = "Non-deleted dogs by gender, with every gender present")
+    private Map<Gender, Long> byGender;
+    @Schema(description = "Non-deleted dogs that have left by leaving reason, with every reason present")
+    private Map<LeavingReason, Long> byLeavingReason;
+    @Schema(description = "Non-deleted dogs by supplier code, for suppliers with at least one dog")
+    private Map<String, Long> bySupplier;
+}
@@ -0,0 +1,46 @@
+package org.policedog.registry.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.policedog.registry.domain.ImportStatus;
+import org.policedog.registry.domain.ImportType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportJobDto {
+
+    private Long id;
+    private ImportType type;
+    private ImportStatus status;
+    @Schema(description = "Number of data rows in the file, known once the import has completed", example = "250000")
+    private Long totalRows;
+    @Schema(description = "Number of chunks committed so far", example = "42")
+    private long committedChunks;
+    @Schema(description = "Rows created by the committed chunks", example = "41950")
+    private long createdRows;
+    @Schema(description = "Rows rejected by the committed chunks", example = "50")
+    private long failedRows;
+    @Schema(description = "Why the import failed; resuming it retries the chunks not yet committed")
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    @Schema(description = "First rejected rows, ordered by row number")
+    private List<RowError> rowErrors;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        @Schema(description = "Data row number, the header not counted", example = "17")
+        private long row;
+        private String message;
+    }
+}
@@ -1,5 +1,6 @@
 package org.policedog.registry.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,15 +14,34 @@ public class PageResponse<T> {
     private List<T> content;
     private PageMetadata metadata;
 
+    /**
+     * Offset pages populate page number and totals. Slice pages skip the totals, and cursor pages
+     * additionally leave out the page number and carry the {@code nextCursor} to pass back for the
+     * following page instead.
+     */
     @Data
     @AllArgsConstructor
     @NoArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class PageMetadata {
-        private int page;
+        private Integer page;
         private int size;
-        private long totalElements;
-        private int totalPages;
+        private Long totalElements;
+        private Integer totalPages;
         private boolean first;
         private boolean last;
+        private String nextCursor;
+
+        public PageMetadata(int page, int size, long totalElements, int totalPages, boolean first, boolean last) {
+            this(page, size, totalElements, totalPages, first, last, null);
+        }
+
+        public static PageMetadata slice(int page, int size, boolean first, boolean last) {
+            return new PageMetadata(page, size, null, null, first, last, null);
+        }
+
+        public static PageMetadata cursor(int size, boolean first, String nextCursor) {
+            return new PageMetadata(null, size, null, null, first, nextCursor == null, nextCursor);
+        }
     }
 }
@@ -1,16 +1,63 @@
 package org.policedog.registry.dto;
 
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.policedog.registry.domain.Gender;
+import org.policedog.registry.domain.LeavingReason;
+import org.policedog.registry.domain.Status;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 
+import java.time.LocalDate;
+
+/**
+ * Optional criteria of the dog list, bound from query parameters. Only the criteria that are set become
+ * predicates of the query; date ranges include both ends and either end may be left open.
+ */
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class SearchFilter {
 
+    @Schema(description = "Partial match on the dog name", example = "Rex")
     private String name;
+    @Schema(description = "Partial match on the breed", example = "German Shepherd")
     private String breed;
+    @Schema(description = "Partial match on the supplier code", example = "ELITE_K9")
     private String supplierCode;
+    private Status status;
+    private Gender gender;
+    private LeavingReason leavingReason;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate birthDateFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate birthDateTo;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateAcquiredFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateAcquiredTo;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate leavingDateFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate leavingDateTo;
+    @Schema(description = "Order of the paginated list, by ID when not set; the cursor list is always ordered by ID")
+    private DogSortField sort;
+    @Schema(description = "Direction of 'sort'", defaultValue = "ASC")
+    private Sort.Direction direction;
+
+    public SearchFilter(String name, String breed, String supplierCode) {
+        this.name = name;
+        this.breed = breed;
+        this.supplierCode = supplierCode;
+    }
+
+    /**
+     * Whether no criterion or ordering is set.
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return equals(new SearchFilter());
+    }
 }
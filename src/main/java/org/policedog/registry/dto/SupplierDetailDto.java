@@ -1,5 +1,8 @@
 package org.policedog.registry.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,8 +17,15 @@ public class SupplierDetailDto {
     private Long id;
     private String code;
     private String name;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "The supplier's dogs, left out unless the FULL view is requested")
     private List<DogSummaryDto> dogs;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Number of non-deleted dogs, only set by the SUMMARY view", example = "1250")
+    private Long dogCount;
     private String contactPerson;
     private String email;
     private String phone;
+    @JsonIgnore
+    private Long version;
 }
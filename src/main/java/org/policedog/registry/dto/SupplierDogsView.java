@@ -0,0 +1,14 @@
+package org.policedog.registry.dto;
+
+/**
+ * How much of a supplier's dogs the supplier detail response carries. Large suppliers should be read
+ * with {@code SUMMARY} or {@code NONE} and their dogs paged through the nested dogs resource.
+ */
+public enum SupplierDogsView {
+    /** Every dog of the supplier, deleted ones included. */
+    FULL,
+    /** Only the number of non-deleted dogs. */
+    SUMMARY,
+    /** No dog information at all. */
+    NONE
+}
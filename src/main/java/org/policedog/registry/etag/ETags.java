@@ -0,0 +1,76 @@
+package org.policedog.registry.etag;
+
+import org.policedog.registry.dao.PoliceDogRepository.DogIdVersion;
+import org.policedog.registry.dto.DogDetailDto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Strong entity tags built from {@code @Version} columns, so a record's tag changes exactly when the
+ * record, or anything else its representation embeds, does. Dog tags cover the supplier the dog embeds;
+ * supplier tags cover the dogs embedded in the requested view, whose changes do not touch the supplier's
+ * own version. Tags depend on stored data only, so every node gives the same tag for the same state.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String dog(Long id, Long version, Long supplierId, Long supplierVersion) {
+        StringBuilder tag = new StringBuilder("\"dog-").append(id).append("-v").append(version);
+        if (supplierId != null) {
+            tag.append("-s").append(supplierId).append("-v").append(supplierVersion);
+        }
+        return tag.append('"').toString();
+    }
+
+    public static String dog(DogDetailDto dog) {
+        Long supplierId = dog.getSupplier() == null ? null : dog.getSupplier().getId();
+        return dog(dog.getId(), dog.getVersion(), supplierId, dog.getSupplierVersion());
+    }
+
+    /**
+     * The tag of a supplier without its dogs.
+     */
+    public static String supplier(Long id, Long version) {
+        return "\"supplier-" + id + "-v" + version + "\"";
+    }
+
+    /**
+     * The tag of a supplier with the number of its non-deleted dogs.
+     */
+    public static String supplier(Long id, Long version, long dogCount) {
+        return "\"supplier-" + id + "-v" + version + "-n" + dogCount + "\"";
+    }
+
+    /**
+     * The tag of a supplier with all its dogs: a SHA-256 digest of every dog's ID and version, in ID order,
+     * which changes when a dog is added, removed or modified.
+     */
+    public static String supplier(Long id, Long version, List<DogIdVersion> dogs) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (DogIdVersion dog : dogs) {
+                digest.update((dog.id() + ":" + dog.version() + ";").getBytes(StandardCharsets.US_ASCII));
+            }
+            return "\"supplier-" + id + "-v" + version + "-d" + HexFormat.of().formatHex(digest.digest()) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Evaluates an {@code If-Match} header against the current tag with the strong comparison RFC 9110
+     * requires: {@code *} matches any existing record, weak tags never match.
+     */
+    public static boolean matches(String ifMatch, String currentETag) {
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(currentETag));
+    }
+}
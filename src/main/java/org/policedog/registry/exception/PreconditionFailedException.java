@@ -0,0 +1,7 @@
+package org.policedog.registry.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,99 @@
+package org.policedog.registry.export;
+
+import org.policedog.registry.dto.CharacteristicsDto;
+import org.policedog.registry.dto.DogDetailDto;
+import org.policedog.registry.dto.SupplierSummaryDto;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Flattens {@link DogDetailDto} into RFC 4180 CSV: the supplier is reduced to its code and name and
+ * every characteristic gets its own column. Missing values are written as empty fields.
+ */
+class CsvDogExportWriter implements DogExportWriter {
+
+    private static final List<Column> COLUMNS = List.of(
+            new Column("id", DogDetailDto::getId),
+            new Column("name", DogDetailDto::getName),
+            new Column("breed", DogDetailDto::getBreed),
+            new Column("supplierCode", supplier(SupplierSummaryDto::getCode)),
+            new Column("supplierName", supplier(SupplierSummaryDto::getName)),
+            new Column("badgeNumber", DogDetailDto::getBadgeNumber),
+            new Column("gender", DogDetailDto::getGender),
+            new Column("birthDate", DogDetailDto::getBirthDate),
+            new Column("dateAcquired", DogDetailDto::getDateAcquired),
+            new Column("status", DogDetailDto::getStatus),
+            new Column("leavingDate", DogDetailDto::getLeavingDate),
+            new Column("leavingReason", DogDetailDto::getLeavingReason),
+            new Column("isAggressive", characteristics(CharacteristicsDto::getIsAggressive)),
+            new Column("requiresSeparateKennel", characteristics(CharacteristicsDto::getRequiresSeparateKennel)),
+            new Column("isNoiceTolerant", characteristics(CharacteristicsDto::getIsNoiceTolerant)),
+            new Column("hasSpecialDiet", characteristics(CharacteristicsDto::getHasSpecialDiet)),
+            new Column("dietaryRequirements", characteristics(CharacteristicsDto::getDietaryRequirements)),
+            new Column("requiresExercise", characteristics(CharacteristicsDto::getRequiresExercise)),
+            new Column("exerciseNotes", characteristics(CharacteristicsDto::getExerciseNotes)),
+            new Column("hasMedicalConditions", characteristics(CharacteristicsDto::getHasMedicalConditions)),
+            new Column("medicalNotes", characteristics(CharacteristicsDto::getMedicalNotes)),
+            new Column("temperament", characteristics(CharacteristicsDto::getTemperament)),
+            new Column("deleted", DogDetailDto::getDeleted),
+            new Column("deletedAt", DogDetailDto::getDeletedAt)
+    );
+
+    private final Writer writer;
+
+    CsvDogExportWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writeRow(COLUMNS.stream().map(Column::header));
+    }
+
+    @Override
+    public void write(DogDetailDto dog) throws IOException {
+        writeRow(COLUMNS.stream().map(column -> column.value().apply(dog)));
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeRow(Stream<?> values) throws IOException {
+        Object[] row = values.toArray();
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(row[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.chars().noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static Function<DogDetailDto, Object> supplier(Function<SupplierSummaryDto, Object> getter) {
+        return dog -> dog.getSupplier() == null ? null : getter.apply(dog.getSupplier());
+    }
+
+    private static Function<DogDetailDto, Object> characteristics(Function<CharacteristicsDto, Object> getter) {
+        return dog -> dog.getCharacteristics() == null ? null : getter.apply(dog.getCharacteristics());
+    }
+
+    private record Column(String header, Function<DogDetailDto, Object> value) {
+    }
+}
@@ -0,0 +1,15 @@
+package org.policedog.registry.export;
+
+import org.policedog.registry.dto.DogDetailDto;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Writes exported dogs one row at a time. Implementations buffer on top of the response stream,
+ * so callers must {@link #flush()} once done; the underlying stream is left open.
+ */
+public interface DogExportWriter extends Flushable {
+
+    void write(DogDetailDto dog) throws IOException;
+}
@@ -0,0 +1,32 @@
+package org.policedog.registry.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson") {
+        @Override
+        public DogExportWriter open(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+            return new NdjsonDogExportWriter(outputStream, objectMapper);
+        }
+    },
+    CSV(new MediaType("text", "csv"), "csv") {
+        @Override
+        public DogExportWriter open(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+            return new CsvDogExportWriter(outputStream);
+        }
+    };
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    public abstract DogExportWriter open(OutputStream outputStream, ObjectMapper objectMapper) throws IOException;
+}
@@ -0,0 +1,35 @@
+package org.policedog.registry.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.policedog.registry.dto.DogDetailDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * One {@link DogDetailDto} JSON document per line, serialised with the application's
+ * {@link ObjectMapper} so rows look exactly like the REST responses.
+ */
+class NdjsonDogExportWriter implements DogExportWriter {
+
+    private final ObjectMapper objectMapper;
+    private final JsonGenerator generator;
+
+    NdjsonDogExportWriter(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.generator = objectMapper.createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void write(DogDetailDto dog) throws IOException {
+        objectMapper.writeValue(generator, dog);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+}
@@ -0,0 +1,159 @@
+package org.policedog.registry.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.policedog.registry.exception.IdempotencyKeyInProgressException;
+import org.policedog.registry.exception.IdempotencyKeyReusedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the responses of create and retire requests sent with an {@code Idempotency-Key} header, so a
+ * client resending a request whose response it never received gets the original response back instead of
+ * creating or retiring again. A replay is answered from memory without calling the service.
+ * <p>
+ * Each key is stored with a fingerprint of the operation and its request, and with the response status,
+ * headers and body serialized as JSON. Resending a key with a different request is rejected with 422, and
+ * resending it while the first request is still running with 409. Only successful responses are stored;
+ * when the request fails the key is released so it can be sent again.
+ * <p>
+ * Keys are held for {@code registry.idempotency.ttl}, at most {@code registry.idempotency.max-keys} of them,
+ * and only on the node that served the request; a retry reaching another node is processed again. Hit,
+ * miss and eviction counts are published as {@code cache.*} meters tagged {@code cache=idempotency}.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry> entries;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyStore(@Value("${registry.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${registry.idempotency.max-keys:10000}") long maxKeys,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxKeys)
+                .recordStats()
+                .build();
+        this.objectMapper = objectMapper;
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "idempotency");
+    }
+
+    /**
+     * Runs {@code action} once per key, returning the stored response for later requests with the same key.
+     *
+     * @param key       the request's {@code Idempotency-Key} header, or {@code null} to just run the action
+     * @param operation the operation the key is used for, part of the fingerprint
+     * @param request   everything else the response depends on, such as the body and path variables
+     * @param bodyType  the type the stored body is read back as
+     */
+    public <T> ResponseEntity<T> execute(String key, String operation, Object request, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String fingerprint = fingerprint(operation, request);
+        Entry inFlight = new Entry(fingerprint, null);
+        Entry entry = entries.get(key, k -> inFlight);
+        if (entry != inFlight) {
+            return replay(key, fingerprint, entry, bodyType);
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            entries.invalidate(key);
+            throw e;
+        }
+        if (response.getStatusCode().is2xxSuccessful()) {
+            entries.put(key, new Entry(fingerprint, new StoredResponse(response.getStatusCode().value(),
+                    HttpHeaders.readOnlyHttpHeaders(response.getHeaders()), serialize(response.getBody()))));
+        } else {
+            entries.invalidate(key);
+        }
+        return response;
+    }
+
+    private <T> ResponseEntity<T> replay(String key, String fingerprint, Entry entry, Class<T> bodyType) {
+        if (!entry.fingerprint().equals(fingerprint)) {
+            log.warn("Idempotency key {} was reused for a different request", key);
+            throw new IdempotencyKeyReusedException(HEADER + " " + key + " was already used for a different request");
+        }
+        StoredResponse response = entry.response();
+        if (response == null) {
+            log.warn("Idempotency key {} was resent while its request is in progress", key);
+            throw new IdempotencyKeyInProgressException("A request with " + HEADER + " " + key + " is still in progress");
+        }
+        log.info("Replaying the stored response for idempotency key {}", key);
+        return ResponseEntity.status(response.status())
+                .headers(response.headers())
+                .header(REPLAYED_HEADER, "true")
+                .body(deserialize(response.body(), bodyType));
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T deserialize(byte[] body, Class<T> bodyType) {
+        try {
+            return body == null ? null : objectMapper.readValue(body, bodyType);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param response the stored response, or {@code null} while the first request is running
+     */
+    private record Entry(String fingerprint, StoredResponse response) {
+    }
+
+    private record StoredResponse(int status, HttpHeaders headers, byte[] body) {
+    }
+}
@@ -0,0 +1,17 @@
+package org.policedog.registry.imports;
+
+import java.util.Map;
+
+/**
+ * A data row of an import file, keyed by header. {@code rowNumber} counts data rows from 1.
+ */
+public record CsvRow(long rowNumber, Map<String, String> values) {
+
+    /**
+     * Returns the trimmed value of a column, or {@code null} when the column is missing or blank.
+     */
+    public String get(String column) {
+        String value = values.get(column);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,79 @@
+package org.policedog.registry.imports;
+
+import org.policedog.registry.domain.Gender;
+import org.policedog.registry.domain.Status;
+import org.policedog.registry.dto.CharacteristicsDto;
+import org.policedog.registry.dto.CreateDogRequest;
+import org.policedog.registry.dto.SupplierRequest;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Maps import rows to the same requests the REST API accepts, so imported rows are validated with the
+ * same constraints. Column names follow the request fields, which also lets a dog CSV export be imported
+ * again (columns that are not part of the request, like {@code id}, are ignored).
+ * Values that cannot be converted raise an {@link IllegalArgumentException} naming the column.
+ */
+public final class ImportRowMapper {
+
+    private static final List<String> CHARACTERISTIC_COLUMNS = List.of("isAggressive", "requiresSeparateKennel",
+            "isNoiceTolerant", "hasSpecialDiet", "dietaryRequirements", "requiresExercise", "exerciseNotes",
+            "hasMedicalConditions", "medicalNotes", "temperament");
+
+    private ImportRowMapper() {
+    }
+
+    public static CreateDogRequest toCreateDogRequest(CsvRow row) {
+        CreateDogRequest request = new CreateDogRequest();
+        request.setName(row.get("name"));
+        request.setBreed(row.get("breed"));
+        request.setSupplierCode(row.get("supplierCode"));
+        request.setBadgeNumber(row.get("badgeNumber"));
+        request.setGender(convert(row, "gender", Gender::valueOf));
+        request.setBirthDate(convert(row, "birthDate", LocalDate::parse));
+        request.setStatus(convert(row, "status", Status::valueOf));
+        if (CHARACTERISTIC_COLUMNS.stream().anyMatch(column -> row.get(column) != null)) {
+            request.setCharacteristics(new CharacteristicsDto(
+                    convert(row, "isAggressive", ImportRowMapper::parseBoolean),
+                    convert(row, "requiresSeparateKennel", ImportRowMapper::parseBoolean),
+                    convert(row, "isNoiceTolerant", ImportRowMapper::parseBoolean),
+                    convert(row, "hasSpecialDiet", ImportRowMapper::parseBoolean),
+                    row.get("dietaryRequirements"),
+                    convert(row, "requiresExercise", ImportRowMapper::parseBoolean),
+                    row.get("exerciseNotes"),
+                    convert(row, "hasMedicalConditions", ImportRowMapper::parseBoolean),
+                    row.get("medicalNotes"),
+                    row.get("temperament")));
+        }
+        return request;
+    }
+
+    public static SupplierRequest toSupplierRequest(CsvRow row) {
+        return new SupplierRequest(row.get("code"), row.get("name"), row.get("contactPerson"), row.get("email"), row.get("phone"));
+    }
+
+    private static <T> T convert(CsvRow row, String column, Function<String, T> converter) {
+        String value = row.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return converter.apply(value);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException(value);
+    }
+}
@@ -4,27 +4,50 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.Mappings;
+import org.policedog.registry.dao.ImportChunkRepository;
+import org.policedog.registry.domain.ArchivedPoliceDog;
 import org.policedog.registry.domain.Characteristics;
+import org.policedog.registry.domain.ImportJob;
+import org.policedog.registry.domain.ImportRowError;
 import org.policedog.registry.domain.PoliceDog;
 import org.policedog.registry.domain.Supplier;
 import org.policedog.registry.dto.*;
+import org.policedog.registry.pagination.Pagination;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @Mapper(componentModel = "spring")
 public interface EntityDtoMapper {
 
+    @Mapping(target = "supplierVersion", source = "supplier.version")
     DogDetailDto toDogDetailDto(PoliceDog dog);
 
+    @Mapping(target = "supplierVersion", source = "supplier.version")
+    DogDetailDto toDogDetailDto(ArchivedPoliceDog dog);
+
+    @Mapping(target = "archivedAt", ignore = true)
+    ArchivedPoliceDog toArchivedPoliceDog(PoliceDog dog);
+
     DogSummaryDto toDogSummaryDto(PoliceDog dog);
 
     SupplierSummaryDto toSupplierSummaryDto(Supplier supplier);
 
     CharacteristicsDto toCharacteristicsDto(Characteristics characteristics);
 
+    @Mapping(target = "dogCount", ignore = true)
     SupplierDetailDto toSupplierDetailDto(Supplier supplier);
 
+    /**
+     * Maps the supplier's own fields only, leaving its lazy dogs collection unloaded.
+     */
+    @Mappings({@Mapping(target = "dogs", ignore = true),
+            @Mapping(target = "dogCount", ignore = true)})
+    SupplierDetailDto toSupplierDetailDtoWithoutDogs(Supplier supplier);
+
     default PageResponse<DogDetailDto> toDogDetailPageResponse(Page<PoliceDog> page) {
         if (page == null) {
             return null;
@@ -45,6 +68,53 @@ public interface EntityDtoMapper {
         return new PageResponse<>(dogDetailDtos, metadata);
     }
 
+    /**
+     * Wraps an already projected page, e.g. {@link DogDetailDto}s built by a constructor expression.
+     */
+    default <T> PageResponse<T> toPageResponse(Page<T> page) {
+        if (page == null) {
+            return null;
+        }
+
+        PageResponse.PageMetadata metadata = new PageResponse.PageMetadata(
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.isFirst(),
+                page.isLast()
+        );
+        return new PageResponse<>(page.getContent(), metadata);
+    }
+
+    default <T> PageResponse<T> toSliceResponse(Slice<T> slice) {
+        if (slice == null) {
+            return null;
+        }
+
+        return new PageResponse<>(slice.getContent(), toSliceMetadata(slice));
+    }
+
+    /**
+     * Builds a cursor page from a keyset query that fetched one row more than {@code pageSize};
+     * the extra row only tells us whether a next page exists and is not returned.
+     */
+    default PageResponse<DogDetailDto> toDogDetailCursorResponse(List<DogDetailDto> dogs, int pageSize, boolean first) {
+        return toCursorResponse(dogs, pageSize, first, DogDetailDto::getId);
+    }
+
+    default PageResponse<DogSummaryDto> toDogSummaryCursorResponse(List<DogSummaryDto> dogs, int pageSize, boolean first) {
+        return toCursorResponse(dogs, pageSize, first, DogSummaryDto::getId);
+    }
+
+    private <T> PageResponse<T> toCursorResponse(List<T> rows, int pageSize, boolean first, Function<T, Long> idOf) {
+        boolean hasNext = rows.size() > pageSize;
+        List<T> pageContent = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasNext ? Pagination.encodeCursor(idOf.apply(pageContent.get(pageSize - 1))) : null;
+        return new PageResponse<>(pageContent, PageResponse.PageMetadata.cursor(pageSize, first, nextCursor));
+    }
+
     @Mappings({@Mapping(target = "id", ignore = true),
     @Mapping(target = "supplier", ignore = true),
     @Mapping(target = "dateAcquired", ignore = true),
@@ -70,14 +140,16 @@ public interface EntityDtoMapper {
 
     void updateCharacteristicsFromDto(CharacteristicsDto characteristicsDto, @MappingTarget Characteristics characteristics);
 
-    default PageResponse<SupplierDetailDto> toSupplierDetailPageResponse(Page<Supplier> page) {
+    /**
+     * Maps a page of suppliers with their dogs loaded up front, keyed by supplier ID, instead of
+     * initialising each supplier's lazy dogs collection.
+     */
+    default PageResponse<SupplierDetailDto> toSupplierDetailPageResponse(Page<Supplier> page, Map<Long, List<DogSummaryDto>> dogsBySupplierId) {
         if (page == null) {
             return null;
         }
 
-        List<SupplierDetailDto> supplierDetailDtos = page.getContent().stream()
-                .map(this::toSupplierDetailDto)
-                .toList();
+        List<SupplierDetailDto> supplierDetailDtos = toSupplierDetailDtos(page.getContent(), dogsBySupplierId);
 
         PageResponse.PageMetadata metadata = new PageResponse.PageMetadata(
                 page.getNumber(),
@@ -90,6 +162,59 @@ public interface EntityDtoMapper {
         return new PageResponse<>(supplierDetailDtos, metadata);
     }
 
+    default PageResponse<SupplierDetailDto> toSupplierDetailSliceResponse(Slice<Supplier> slice, Map<Long, List<DogSummaryDto>> dogsBySupplierId) {
+        if (slice == null) {
+            return null;
+        }
+
+        List<SupplierDetailDto> supplierDetailDtos = toSupplierDetailDtos(slice.getContent(), dogsBySupplierId);
+
+        return new PageResponse<>(supplierDetailDtos, toSliceMetadata(slice));
+    }
+
+    private List<SupplierDetailDto> toSupplierDetailDtos(List<Supplier> suppliers, Map<Long, List<DogSummaryDto>> dogsBySupplierId) {
+        return suppliers.stream()
+                .map(supplier -> {
+                    SupplierDetailDto supplierDetailDto = toSupplierDetailDtoWithoutDogs(supplier);
+                    supplierDetailDto.setDogs(dogsBySupplierId.getOrDefault(supplier.getId(), List.of()));
+                    return supplierDetailDto;
+                })
+                .toList();
+    }
+
+    private PageResponse.PageMetadata toSliceMetadata(Slice<?> slice) {
+        return PageResponse.PageMetadata.slice(
+                slice.getNumber(),
+                slice.getSize(),
+                slice.isFirst(),
+                slice.isLast()
+        );
+    }
+
+    default ImportJobDto toImportJobDto(ImportJob job, ImportChunkRepository.Progress progress, List<ImportRowError> rowErrors) {
+        if (job == null) {
+            return null;
+        }
+
+        List<ImportJobDto.RowError> rowErrorDtos = rowErrors.stream()
+                .map(rowError -> new ImportJobDto.RowError(rowError.getRowNumber(), rowError.getMessage()))
+                .toList();
+
+        return new ImportJobDto(
+                job.getId(),
+                job.getType(),
+                job.getStatus(),
+                job.getTotalRows(),
+                progress.committedChunks(),
+                progress.createdRows(),
+                progress.failedRows(),
+                job.getError(),
+                job.getCreatedAt(),
+                job.getUpdatedAt(),
+                rowErrorDtos
+        );
+    }
+
     @Mappings({@Mapping(target = "id", ignore = true),
             @Mapping(target = "dogs", ignore = true),
             @Mapping(target = "version", ignore = true)})
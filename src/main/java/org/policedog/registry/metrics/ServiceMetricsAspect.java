@@ -0,0 +1,85 @@
+package org.policedog.registry.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ValidationException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.policedog.registry.dto.PageResponse;
+import org.policedog.registry.exception.PreconditionFailedException;
+import org.policedog.registry.exception.ResourceNotFoundException;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public {@code DogService} and {@code SupplierService} operation as {@code registry.service},
+ * tagged with the service, the operation (method name) and its outcome. The outcomes follow the status
+ * the exception handler maps each failure to, so they line up with the HTTP responses:
+ * {@code success}, {@code not_found} (404), {@code precondition_failed} (412), {@code conflict} (409),
+ * {@code validation} (400) or {@code error}.
+ * <p>
+ * Operations returning a {@link PageResponse} also record the number of rows returned as
+ * {@code registry.service.result.size}.
+ * <p>
+ * Runs outside the transaction advice so commit time and failures raised on commit, such as optimistic
+ * locking conflicts, are included.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    static final String TIMER = "registry.service";
+    static final String RESULT_SIZE = "registry.service.result.size";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * org.policedog.registry.service.DogService.*(..)) || " +
+            "execution(public * org.policedog.registry.service.SupplierService.*(..))")
+    public Object timeOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String operation = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            Object result = joinPoint.proceed();
+            if (result instanceof PageResponse<?> page && page.getContent() != null) {
+                DistributionSummary.builder(RESULT_SIZE)
+                        .tag("service", service)
+                        .tag("operation", operation)
+                        .register(meterRegistry)
+                        .record(page.getContent().size());
+            }
+            return result;
+        } catch (Throwable e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER)
+                    .tag("service", service)
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    static String outcomeOf(Throwable e) {
+        return switch (e) {
+            case ResourceNotFoundException ignored -> "not_found";
+            case PreconditionFailedException ignored -> "precondition_failed";
+            case OptimisticLockingFailureException ignored -> "conflict";
+            case DataIntegrityViolationException ignored -> "conflict";
+            case IllegalArgumentException ignored -> "validation";
+            case IllegalStateException ignored -> "validation";
+            case ValidationException ignored -> "validation";
+            default -> "error";
+        };
+    }
+}
@@ -0,0 +1,109 @@
+package org.policedog.registry.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries {@link RetryOnConflict} operations that fail with an {@link OptimisticLockingFailureException},
+ * up to {@code registry.retry.max-attempts} attempts in all. Before each retry it sleeps for a random time
+ * of up to {@code registry.retry.initial-backoff}, doubled for every further retry and capped at
+ * {@code registry.retry.max-backoff}, so writers that collided do not collide again in step. Once the
+ * attempts are used up the last conflict is rethrown and answered with 409.
+ * <p>
+ * Every conflict is counted as {@code registry.service.conflicts} and every retry as
+ * {@code registry.service.retries}, both tagged with the service and operation; the conflicts not followed
+ * by a retry are the ones returned to clients.
+ * <p>
+ * Runs inside {@code ServiceMetricsAspect}, so an operation is timed once with all its attempts, and outside
+ * the transaction advice, so each attempt reloads the entity in a new transaction. An operation joining a
+ * caller's transaction is not retried, as that transaction is already marked for rollback.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ConflictRetryAspect {
+
+    static final String CONFLICTS = "registry.service.conflicts";
+    static final String RETRIES = "registry.service.retries";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    public ConflictRetryAspect(MeterRegistry meterRegistry,
+                               @Value("${registry.retry.max-attempts:3}") int maxAttempts,
+                               @Value("${registry.retry.initial-backoff:20ms}") Duration initialBackoff,
+                               @Value("${registry.retry.max-backoff:200ms}") Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("registry.retry.max-attempts must be at least 1");
+        }
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    @Around("@annotation(org.policedog.registry.retry.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String operation = joinPoint.getSignature().getName();
+        boolean retryable = !TransactionSynchronizationManager.isActualTransactionActive();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                counter(CONFLICTS, service, operation).increment();
+                if (!retryable || attempt >= maxAttempts) {
+                    log.warn("{}.{} failed on a conflict after {} attempts", service, operation, attempt);
+                    throw e;
+                }
+                log.info("{}.{} conflicted on attempt {}, retrying", service, operation, attempt);
+                if (!backOff(attempt)) {
+                    throw e;
+                }
+                counter(RETRIES, service, operation).increment();
+            }
+        }
+    }
+
+    /**
+     * Sleeps before the retry following {@code attempt}.
+     *
+     * @return {@code false} when interrupted, in which case no retry should follow
+     */
+    private boolean backOff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1)));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Counter counter(String name, String service, String operation) {
+        return Counter.builder(name)
+                .tag("service", service)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,16 @@
+package org.policedog.registry.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated service operation again, in a new transaction, when it fails on an optimistic locking
+ * conflict; see {@link ConflictRetryAspect}. Only for operations that are idempotent, as an attempt may be
+ * repeated after another writer's change.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
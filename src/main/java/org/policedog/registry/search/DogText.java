@@ -0,0 +1,15 @@
+package org.policedog.registry.search;
+
+import org.policedog.registry.domain.PoliceDog;
+
+/**
+ * The text of a dog that {@link DogTextIndex} indexes.
+ */
+public record DogText(Long id, String name, String breed, Long supplierId, String supplierCode) {
+
+    public static DogText of(PoliceDog dog) {
+        return new DogText(dog.getId(), dog.getName(), dog.getBreed(),
+                dog.getSupplier() == null ? null : dog.getSupplier().getId(),
+                dog.getSupplier() == null ? null : dog.getSupplier().getCode());
+    }
+}
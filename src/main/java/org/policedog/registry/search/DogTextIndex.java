@@ -0,0 +1,232 @@
+package org.policedog.registry.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.dto.SearchFilter;
+import org.policedog.registry.transaction.TransactionHooks;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Trigram index over the name, breed and supplier code of non-deleted dogs, held in memory so the
+ * substring criteria of the dog list resolve to candidate dog IDs instead of a {@code LIKE '%term%'}
+ * that no B-tree index can serve. The list query then reads only the candidates by primary key and
+ * keeps its {@code LIKE} predicates to drop those whose trigrams matched out of order.
+ * <p>
+ * The index is built from the database once the application has started and then follows each dog
+ * write when its transaction commits, as {@code DogStatsService} does. Only writes made through this
+ * node are seen, so disable it with {@code registry.search.text-index.enabled=false} when several nodes
+ * write to the same database.
+ * <p>
+ * A filter falls back to the plain {@code LIKE} query when none of its terms has a full trigram, when a
+ * term contains the {@code LIKE} wildcards {@code %} or {@code _}, or when more than
+ * {@code registry.search.text-index.max-candidates} dogs match, as a long {@code IN} list would cost
+ * more than the scan it replaces.
+ */
+@Slf4j
+@Component
+public class DogTextIndex implements SmartInitializingSingleton {
+
+    private final PoliceDogRepository dogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxCandidates;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TrigramIndex names = new TrigramIndex();
+    private final TrigramIndex breeds = new TrigramIndex();
+    private final TrigramIndex supplierCodes = new TrigramIndex();
+    private final Map<Long, String> supplierCodeById = new HashMap<>();
+    private final Map<Long, SortedIds> dogsBySupplier = new HashMap<>();
+    private volatile boolean loaded;
+
+    public DogTextIndex(PoliceDogRepository dogRepository, PlatformTransactionManager transactionManager,
+                        @Value("${registry.search.text-index.enabled:true}") boolean enabled,
+                        @Value("${registry.search.text-index.max-candidates:1000}") int maxCandidates) {
+        this.dogRepository = dogRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Replaces the index with the text of the dogs now in the database, for instance after dogs were
+     * written outside the application. Searches wait for the rebuild to finish.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            breeds.clear();
+            supplierCodes.clear();
+            supplierCodeById.clear();
+            dogsBySupplier.clear();
+            long count = transactionTemplate.execute(status -> {
+                long indexed = 0;
+                try (Stream<DogText> dogs = dogRepository.streamDogText()) {
+                    Iterator<DogText> iterator = dogs.iterator();
+                    while (iterator.hasNext()) {
+                        add(iterator.next());
+                        indexed++;
+                    }
+                }
+                return indexed;
+            });
+            loaded = true;
+            log.info("Indexed the text of {} dogs in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The ascending IDs of the dogs that may match the name, breed and supplier code of {@code filter},
+     * or empty when the filter is to be run as a plain {@code LIKE} query instead.
+     */
+    public Optional<List<Long>> candidateIds(SearchFilter filter) {
+        boolean indexName = indexable(filter.getName());
+        boolean indexBreed = indexable(filter.getBreed());
+        boolean indexSupplierCode = indexable(filter.getSupplierCode());
+        if (!loaded || !(indexName || indexBreed || indexSupplierCode)) {
+            return Optional.empty();
+        }
+
+        long[] candidates = null;
+        lock.readLock().lock();
+        try {
+            if (indexName) {
+                candidates = names.candidates(filter.getName());
+            }
+            if (indexBreed) {
+                candidates = retain(candidates, breeds.candidates(filter.getBreed()));
+            }
+            if (indexSupplierCode) {
+                candidates = retain(candidates, dogsOfSuppliers(supplierCodes.candidates(filter.getSupplierCode())));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (candidates.length > maxCandidates) {
+            return Optional.empty();
+        }
+        return Optional.of(LongStream.of(candidates).boxed().toList());
+    }
+
+    /**
+     * Moves a dog's text from its state before a write to its state after, once the current transaction
+     * commits.
+     *
+     * @param before the dog before the write, or {@code null} when it was created
+     * @param after  the dog after the write, or {@code null} when it was deleted
+     */
+    public void dogChanged(DogText before, DogText after) {
+        if (enabled) {
+            TransactionHooks.afterCommit(() -> {
+                lock.writeLock().lock();
+                try {
+                    if (before != null) {
+                        remove(before);
+                    }
+                    if (after != null) {
+                        add(after);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        }
+    }
+
+    public void dogsCreated(List<DogText> created) {
+        if (enabled && !created.isEmpty()) {
+            TransactionHooks.afterCommit(() -> {
+                lock.writeLock().lock();
+                try {
+                    created.forEach(this::add);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        }
+    }
+
+    public void supplierRenamed(Long supplierId, String code) {
+        if (enabled) {
+            TransactionHooks.afterCommit(() -> {
+                lock.writeLock().lock();
+                try {
+                    String previousCode = supplierCodeById.get(supplierId);
+                    if (previousCode != null) {
+                        supplierCodes.remove(supplierId, previousCode);
+                        supplierCodes.add(supplierId, code);
+                        supplierCodeById.put(supplierId, code);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        }
+    }
+
+    private void add(DogText dog) {
+        names.add(dog.id(), dog.name());
+        breeds.add(dog.id(), dog.breed());
+        if (dog.supplierId() != null) {
+            if (supplierCodeById.putIfAbsent(dog.supplierId(), dog.supplierCode()) == null) {
+                supplierCodes.add(dog.supplierId(), dog.supplierCode());
+            }
+            dogsBySupplier.computeIfAbsent(dog.supplierId(), id -> new SortedIds()).add(dog.id());
+        }
+    }
+
+    private void remove(DogText dog) {
+        names.remove(dog.id(), dog.name());
+        breeds.remove(dog.id(), dog.breed());
+        if (dog.supplierId() != null) {
+            SortedIds dogs = dogsBySupplier.get(dog.supplierId());
+            if (dogs != null) {
+                dogs.remove(dog.id());
+            }
+        }
+    }
+
+    private long[] dogsOfSuppliers(long[] supplierIds) {
+        List<long[]> dogs = new ArrayList<>();
+        for (long supplierId : supplierIds) {
+            SortedIds supplierDogs = dogsBySupplier.get(supplierId);
+            if (supplierDogs != null) {
+                dogs.add(supplierDogs.toArray());
+            }
+        }
+        // A dog has one supplier, so the concatenation only needs sorting
+        long[] dogIds = dogs.stream().flatMapToLong(LongStream::of).toArray();
+        Arrays.sort(dogIds);
+        return dogIds;
+    }
+
+    private static long[] retain(long[] candidates, long[] matches) {
+        return candidates == null ? matches : SortedIds.intersect(candidates, matches);
+    }
+
+    private static boolean indexable(String term) {
+        return term != null && term.length() >= TrigramIndex.GRAM_LENGTH && term.indexOf('%') < 0 && term.indexOf('_') < 0;
+    }
+}
@@ -0,0 +1,85 @@
+package org.policedog.registry.search;
+
+import java.util.Arrays;
+
+/**
+ * Ascending, distinct IDs in a growable primitive array. Dog IDs come from a sequence, so adds are
+ * nearly always appends; an out-of-order add or a remove shifts the tail of the array.
+ */
+final class SortedIds {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    void add(long id) {
+        int index = size == 0 || ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            return;
+        }
+        int insertion = -index - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, insertion, ids, insertion + 1, size - insertion);
+        ids[insertion] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * The IDs of {@code candidates}, an ascending array, that are also in this set.
+     */
+    long[] retain(long[] candidates) {
+        long[] retained = new long[Math.min(candidates.length, size)];
+        int count = 0;
+        for (long id : candidates) {
+            if (contains(id)) {
+                retained[count++] = id;
+            }
+        }
+        return Arrays.copyOf(retained, count);
+    }
+
+    /**
+     * The intersection of two ascending arrays.
+     */
+    static long[] intersect(long[] left, long[] right) {
+        long[] intersection = new long[Math.min(left.length, right.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                intersection[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(intersection, count);
+    }
+}
@@ -0,0 +1,74 @@
+package org.policedog.registry.search;
+
+import java.util.*;
+
+/**
+ * Maps every three-character substring of the indexed values to the IDs whose value contains it.
+ * A value containing a term contains all of the term's trigrams, so intersecting their IDs gives a
+ * superset of the matches; it is a superset because the trigrams need not be adjacent in the value.
+ * Matching is case-sensitive, like the {@code LIKE} it stands in for. Not thread-safe.
+ */
+final class TrigramIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<String, SortedIds> postings = new HashMap<>();
+
+    void add(long id, String value) {
+        for (String gram : grams(value)) {
+            postings.computeIfAbsent(gram, key -> new SortedIds()).add(id);
+        }
+    }
+
+    /**
+     * @param value the value {@code id} was added with
+     */
+    void remove(long id, String value) {
+        for (String gram : grams(value)) {
+            SortedIds ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * The ascending IDs whose value may contain {@code term}, which must be at least
+     * {@link #GRAM_LENGTH} characters long.
+     */
+    long[] candidates(String term) {
+        List<SortedIds> lists = new ArrayList<>();
+        for (String gram : grams(term)) {
+            SortedIds ids = postings.get(gram);
+            if (ids == null) {
+                return new long[0];
+            }
+            lists.add(ids);
+        }
+        // Starting from the rarest trigram keeps every later step a lookup of few IDs
+        lists.sort(Comparator.comparingInt(SortedIds::size));
+        long[] candidates = lists.getFirst().toArray();
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            candidates = lists.get(i).retain(candidates);
+        }
+        return candidates;
+    }
+
+    void clear() {
+        postings.clear();
+    }
+
+    private static Set<String> grams(String value) {
+        if (value == null || value.length() < GRAM_LENGTH) {
+            return Set.of();
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
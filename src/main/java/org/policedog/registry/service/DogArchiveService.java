@@ -0,0 +1,104 @@
+package org.policedog.registry.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.policedog.registry.cache.CountCache;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.domain.ArchivedPoliceDog;
+import org.policedog.registry.domain.PoliceDog;
+import org.policedog.registry.mapper.EntityDtoMapper;
+import org.policedog.registry.search.DogText;
+import org.policedog.registry.search.DogTextIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves dogs that left or retired, or were deleted, more than {@code registry.archive.min-age} ago from
+ * {@code police_dog} to {@code police_dog_archive}, so the active roster queries only read the dogs still
+ * in service. Dogs are moved in batches of {@code registry.archive.batch-size}, each in its own transaction
+ * with the batch's rows locked, so a large backlog never holds one long transaction.
+ * <p>
+ * Archived dogs keep their ID and badge number and are still returned by {@link DogService#getDogById},
+ * exports and the registry statistics, but are read-only. The job runs every {@code registry.archive.interval}
+ * when {@code registry.archive.enabled=true}.
+ */
+@Slf4j
+@Service
+public class DogArchiveService {
+
+    private final PoliceDogRepository dogRepository;
+    private final EntityDtoMapper entityDtoMapper;
+    private final EntityManager entityManager;
+    private final CountCache countCache;
+    private final DogTextIndex dogTextIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int batchSize;
+
+    public DogArchiveService(PoliceDogRepository dogRepository, EntityDtoMapper entityDtoMapper,
+                             EntityManager entityManager, CountCache countCache, DogTextIndex dogTextIndex,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${registry.archive.min-age:365d}") Duration minAge,
+                             @Value("${registry.archive.batch-size:500}") int batchSize) {
+        this.dogRepository = dogRepository;
+        this.entityDtoMapper = entityDtoMapper;
+        this.entityManager = entityManager;
+        this.countCache = countCache;
+        this.dogTextIndex = dogTextIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${registry.archive.interval:1h}", initialDelayString = "${registry.archive.interval:1h}")
+    public void archiveInactiveDogs() {
+        archiveDogs(LocalDateTime.now().minus(minAge));
+    }
+
+    /**
+     * Archives the dogs deleted before {@code cutoff} and those whose leaving date is before its day.
+     *
+     * @return the number of dogs archived
+     */
+    public long archiveDogs(LocalDateTime cutoff) {
+        long archived = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            archived += batch;
+        } while (batch == batchSize);
+        log.info("Archived {} dogs inactive since before {}", archived, cutoff);
+        return archived;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<PoliceDog> dogs = dogRepository.findDogsToArchive(cutoff, cutoff.toLocalDate(), Limit.of(batchSize));
+        if (dogs.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime archivedAt = LocalDateTime.now();
+        for (PoliceDog dog : dogs) {
+            ArchivedPoliceDog archivedDog = entityDtoMapper.toArchivedPoliceDog(dog);
+            archivedDog.setArchivedAt(archivedAt);
+            entityManager.persist(archivedDog);
+            if (!dog.getDeleted()) {
+                dogTextIndex.dogChanged(DogText.of(dog), null);
+            }
+        }
+        // The copies are inserted before the originals go, so a dog is never in neither table
+        entityManager.flush();
+        dogRepository.deleteAllByIdInBatch(dogs.stream().map(PoliceDog::getId).toList());
+        entityManager.clear();
+        countCache.invalidate(PoliceDog.class);
+        return dogs.size();
+    }
+}
@@ -0,0 +1,233 @@
+package org.policedog.registry.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.policedog.registry.cache.CountCache;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.dao.SupplierRepository;
+import org.policedog.registry.domain.PoliceDog;
+import org.policedog.registry.domain.Supplier;
+import org.policedog.registry.dto.BulkCreateDogResponse;
+import org.policedog.registry.dto.BulkItemResult;
+import org.policedog.registry.dto.CreateDogRequest;
+import org.policedog.registry.mapper.EntityDtoMapper;
+import org.policedog.registry.search.DogText;
+import org.policedog.registry.search.DogTextIndex;
+import org.policedog.registry.service.DogStatsService.DogFacts;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.policedog.registry.dto.BulkItemResult.Outcome.CREATED;
+
+/**
+ * Creates dogs in chunks, each chunk in its own transaction. Per chunk the suppliers not seen before
+ * are looked up with one query and the badge numbers are checked with another, and the inserts go out
+ * as JDBC batches thanks to the pooled sequence IDs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DogBulkService {
+
+    static final String CHUNK_ROLLED_BACK_MESSAGE = "Not created, the chunk it was part of was rolled back";
+
+    private final PoliceDogRepository dogRepository;
+    private final SupplierRepository supplierRepository;
+    private final EntityDtoMapper entityDtoMapper;
+    private final CountCache countCache;
+    private final DogStatsService dogStatsService;
+    private final DogTextIndex dogTextIndex;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${registry.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Reads a JSON array of {@link CreateDogRequest}s one element at a time, so the request body is never
+     * held in memory as a whole. Items that cannot be bound or fail validation are reported and skipped;
+     * a JSON syntax error ends the processing, with the items before it still created.
+     */
+    public BulkCreateDogResponse createDogs(InputStream json) throws IOException {
+        List<BulkItemResult> results = new ArrayList<>();
+        BulkContext context = new BulkContext();
+        List<BulkItem> chunk = new ArrayList<>(chunkSize);
+
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Bulk request body must be a JSON array");
+            }
+            int index = 0;
+            while (true) {
+                JsonNode node;
+                try {
+                    if (parser.nextToken() == JsonToken.END_ARRAY) {
+                        break;
+                    }
+                    node = parser.readValueAsTree();
+                } catch (JsonProcessingException e) {
+                    log.error("Bulk create stopped at item {} due to malformed JSON", index, e);
+                    results.add(BulkItemResult.failed(index, null, "Malformed JSON, items from here on were not processed"));
+                    break;
+                }
+                readItem(index++, node, results).ifPresent(chunk::add);
+                if (chunk.size() == chunkSize) {
+                    results.addAll(createChunk(chunk, context));
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(createChunk(chunk, context));
+        }
+
+        results.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+        BulkCreateDogResponse response = BulkCreateDogResponse.of(results);
+        log.info("Bulk create finished: {} created, {} failed", response.getCreated(), response.getFailed());
+        return response;
+    }
+
+    private Optional<BulkItem> readItem(int index, JsonNode node, List<BulkItemResult> results) {
+        CreateDogRequest request;
+        try {
+            request = objectMapper.treeToValue(node, CreateDogRequest.class);
+        } catch (JsonProcessingException e) {
+            results.add(BulkItemResult.failed(index, node.path("badgeNumber").asText(null), "Invalid item: " + e.getOriginalMessage()));
+            return Optional.empty();
+        }
+        if (request == null) {
+            results.add(BulkItemResult.failed(index, null, "Item is null"));
+            return Optional.empty();
+        }
+
+        Optional<String> validationError = validationError(request);
+        if (validationError.isPresent()) {
+            results.add(BulkItemResult.failed(index, request.getBadgeNumber(), validationError.get()));
+            return Optional.empty();
+        }
+        return Optional.of(new BulkItem(index, request));
+    }
+
+    /**
+     * Checks a request against its bean validation constraints, returning the violations as one message.
+     */
+    public <T> Optional<String> validationError(T request) {
+        Set<ConstraintViolation<T>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; ")));
+    }
+
+    private List<BulkItemResult> createChunk(List<BulkItem> items, BulkContext context) {
+        List<BulkItemResult> results = new ArrayList<>(items.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> saveChunk(items, context, results));
+        } catch (DataAccessException | TransactionException e) {
+            log.error("Bulk create chunk starting at item {} rolled back", items.get(0).index(), e);
+            results.replaceAll(result -> {
+                if (result.getOutcome() != CREATED) {
+                    return result;
+                }
+                context.claimedBadgeNumbers.remove(result.getBadgeNumber());
+                return BulkItemResult.failed(result.getIndex(), result.getBadgeNumber(), CHUNK_ROLLED_BACK_MESSAGE);
+            });
+        }
+        return results;
+    }
+
+    /**
+     * Creates the dogs of one chunk, adding a result per item to {@code results}. Must be called inside the
+     * caller's transaction, as {@link #createDogs} and the import jobs do with their transaction templates:
+     * the chunk commits or rolls back as a whole with it. The persistence context is flushed and cleared at
+     * the end, so callers can commit chunk after chunk without it growing.
+     */
+    public void saveChunk(List<BulkItem> items, BulkContext context, List<BulkItemResult> results) {
+        resolveSuppliers(items, context);
+        Set<String> existingBadgeNumbers = dogRepository.findExistingBadgeNumbers(
+                items.stream().map(item -> item.request().getBadgeNumber()).collect(Collectors.toSet()));
+        List<DogFacts> created = new ArrayList<>();
+        List<DogText> createdText = new ArrayList<>();
+
+        for (BulkItem item : items) {
+            CreateDogRequest request = item.request();
+            Long supplierId = context.supplierIds.get(request.getSupplierCode());
+            if (supplierId == null) {
+                results.add(BulkItemResult.failed(item.index(), request.getBadgeNumber(),
+                        "Supplier with code " + request.getSupplierCode() + " not found"));
+            } else if (existingBadgeNumbers.contains(request.getBadgeNumber())
+                    || !context.claimedBadgeNumbers.add(request.getBadgeNumber())) {
+                results.add(BulkItemResult.failed(item.index(), request.getBadgeNumber(),
+                        "Dog with badge number " + request.getBadgeNumber() + " already exists"));
+            } else {
+                PoliceDog dog = entityDtoMapper.toPoliceDog(request);
+                dog.setSupplier(entityManager.getReference(Supplier.class, supplierId));
+                dogRepository.save(dog);
+                results.add(BulkItemResult.created(item.index(), request.getBadgeNumber(), dog.getId()));
+                // The supplier is an uninitialised reference, so its code comes from the request
+                created.add(new DogFacts(dog.getStatus(), dog.getGender(), dog.getLeavingReason(), supplierId, request.getSupplierCode()));
+                createdText.add(new DogText(dog.getId(), dog.getName(), dog.getBreed(), supplierId, request.getSupplierCode()));
+            }
+        }
+
+        dogRepository.flush();
+        entityManager.clear();
+        countCache.invalidate(PoliceDog.class);
+        dogStatsService.dogsCreated(created);
+        dogTextIndex.dogsCreated(createdText);
+    }
+
+    private void resolveSuppliers(List<BulkItem> items, BulkContext context) {
+        Set<String> unresolvedCodes = items.stream()
+                .map(item -> item.request().getSupplierCode())
+                .filter(code -> !context.supplierIds.containsKey(code) && !context.unknownSupplierCodes.contains(code))
+                .collect(Collectors.toSet());
+        if (unresolvedCodes.isEmpty()) {
+            return;
+        }
+        supplierRepository.findAllByCodeIn(unresolvedCodes)
+                .forEach(supplier -> context.supplierIds.put(supplier.getCode(), supplier.getId()));
+        // Remember unknown codes too so they are not looked up again in later chunks
+        unresolvedCodes.stream()
+                .filter(code -> !context.supplierIds.containsKey(code))
+                .forEach(context.unknownSupplierCodes::add);
+    }
+
+    public record BulkItem(int index, CreateDogRequest request) {
+    }
+
+    /**
+     * State shared by the chunks of one bulk run: supplier IDs by code, codes known not to exist and the
+     * badge numbers already taken by earlier items. Import jobs save the chunks of a run in parallel, so
+     * the fields are concurrent collections and a badge number is claimed with a single atomic add: of two
+     * chunks creating the same badge number at once, only one creates the dog. Two chunks resolving the
+     * same unknown supplier code at once may both look it up, which costs a query but changes no result.
+     */
+    public static class BulkContext {
+        private final Map<String, Long> supplierIds = new ConcurrentHashMap<>();
+        private final Set<String> unknownSupplierCodes = ConcurrentHashMap.newKeySet();
+        private final Set<String> claimedBadgeNumbers = ConcurrentHashMap.newKeySet();
+    }
+}
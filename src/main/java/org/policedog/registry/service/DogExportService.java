@@ -0,0 +1,71 @@
+package org.policedog.registry.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.policedog.registry.dao.ArchivedDogRepository;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.domain.ArchivedPoliceDog;
+import org.policedog.registry.domain.PoliceDog;
+import org.policedog.registry.dto.DogDetailDto;
+import org.policedog.registry.export.DogExportWriter;
+import org.policedog.registry.export.ExportFormat;
+import org.policedog.registry.mapper.EntityDtoMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DogExportService {
+
+    private final PoliceDogRepository dogRepository;
+    private final ArchivedDogRepository archivedDogRepository;
+    private final EntityDtoMapper entityDtoMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Value("${registry.export.clear-interval:500}")
+    private int clearInterval;
+
+    /**
+     * Streams every dog to {@code outputStream} in the requested format and returns the number of rows
+     * written. The persistence context is cleared every {@code registry.export.clear-interval} rows, so
+     * memory use does not grow with the size of the registry. Archived dogs follow the dogs of the registry.
+     */
+    @Transactional(readOnly = true)
+    public long exportDogs(ExportFormat format, boolean includeDeleted, OutputStream outputStream) throws IOException {
+        DogExportWriter writer = format.open(outputStream, objectMapper);
+        long rows;
+        try (Stream<PoliceDog> dogs = dogRepository.streamDogs(includeDeleted)) {
+            rows = write(dogs, entityDtoMapper::toDogDetailDto, writer, 0);
+        }
+        try (Stream<ArchivedPoliceDog> dogs = archivedDogRepository.streamDogs(includeDeleted)) {
+            rows = write(dogs, entityDtoMapper::toDogDetailDto, writer, rows);
+        }
+        writer.flush();
+        log.info("Exported {} dogs as {}", rows, format);
+        return rows;
+    }
+
+    private <T> long write(Stream<T> dogs, Function<T, DogDetailDto> toDogDetailDto, DogExportWriter writer, long rows)
+            throws IOException {
+        Iterator<T> iterator = dogs.iterator();
+        while (iterator.hasNext()) {
+            writer.write(toDogDetailDto.apply(iterator.next()));
+            if (++rows % clearInterval == 0) {
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+        return rows;
+    }
+}
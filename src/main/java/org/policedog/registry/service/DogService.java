@@ -3,16 +3,31 @@ package org.policedog.registry.service;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.policedog.registry.cache.CountCache;
+import org.policedog.registry.cache.DogDetailCache;
+import org.policedog.registry.dao.ArchivedDogRepository;
 import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.dao.PoliceDogRepository.DogVersion;
 import org.policedog.registry.domain.*;
 import org.policedog.registry.dto.*;
+import org.policedog.registry.etag.ETags;
+import org.policedog.registry.exception.PreconditionFailedException;
 import org.policedog.registry.exception.ResourceNotFoundException;
 import org.policedog.registry.mapper.EntityDtoMapper;
-import org.springframework.data.domain.Page;
+import org.policedog.registry.pagination.Pagination;
+import org.policedog.registry.retry.RetryOnConflict;
+import org.policedog.registry.search.DogText;
+import org.policedog.registry.search.DogTextIndex;
+import org.policedog.registry.service.DogStatsService.DogFacts;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,15 +41,21 @@ import static org.policedog.registry.domain.Status.RETIRED;
 public class DogService {
 
     private final PoliceDogRepository dogRepository;
+    private final ArchivedDogRepository archivedDogRepository;
     private final SupplierService supplierService;
     private final EntityDtoMapper entityDtoMapper;
+    private final CountCache countCache;
+    private final DogDetailCache dogDetailCache;
+    private final DogStatsService dogStatsService;
+    private final DogTextIndex dogTextIndex;
+    private final PlatformTransactionManager transactionManager;
 
     @Transactional
     public DogDetailDto createDog(CreateDogRequest createDogRequest) {
         String supplierCode = createDogRequest.getSupplierCode();
         Supplier supplier = getSupplierByCode(supplierCode);
 
-        if (dogRepository.existsByBadgeNumber(createDogRequest.getBadgeNumber())) {
+        if (badgeNumberExists(createDogRequest.getBadgeNumber())) {
             log.error("Dog with badge number {} already exists", createDogRequest.getBadgeNumber());
             throw new IllegalArgumentException("Dog with badge number " + createDogRequest.getBadgeNumber() + " already exists");
         }
@@ -44,17 +65,44 @@ public class DogService {
         supplier.getDogs().add(dog);
 
         var savedDog = dogRepository.save(dog);
+        countCache.invalidate(PoliceDog.class);
+        dogStatsService.dogChanged(null, DogFacts.of(savedDog));
+        dogTextIndex.dogChanged(null, DogText.of(savedDog));
         log.info("Created new dog with ID {}", savedDog.getId());
         return entityDtoMapper.toDogDetailDto(savedDog);
     }
 
     @Transactional(readOnly = true)
     public PageResponse<DogDetailDto> getDogs(SearchFilter filter, int pageNo, int pageSize) {
+        Pagination.validatePageSize(pageSize);
         Pageable pageable = PageRequest.of(pageNo, pageSize);
-        Page<PoliceDog> pageRequest = dogRepository.findDogs(filter.getName(), filter.getBreed(), filter.getSupplierCode(), pageable);
-        return entityDtoMapper.toDogDetailPageResponse(pageRequest);
+        List<Long> dogIds = dogTextIndex.candidateIds(filter).orElse(null);
+        Slice<DogDetailDto> slice = dogRepository.searchDogDetails(filter, dogIds, pageable);
+        long total = countCache.get(PoliceDog.class, filter, () -> dogRepository.countDogs(filter, dogIds));
+        return entityDtoMapper.toPageResponse(new PageImpl<>(slice.getContent(), pageable, total));
     }
 
+    @Transactional(readOnly = true)
+    public PageResponse<DogDetailDto> getDogsSlice(SearchFilter filter, int pageNo, int pageSize) {
+        Pagination.validatePageSize(pageSize);
+        Pageable pageable = PageRequest.of(pageNo, pageSize);
+        Slice<DogDetailDto> slice = dogRepository.searchDogDetails(filter, dogTextIndex.candidateIds(filter).orElse(null), pageable);
+        return entityDtoMapper.toSliceResponse(slice);
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<DogDetailDto> getDogsAfter(SearchFilter filter, String cursor, int pageSize) {
+        Pagination.validatePageSize(pageSize);
+        if (filter.getSort() != null && filter.getSort() != DogSortField.ID) {
+            throw new IllegalArgumentException("Cursor pagination is ordered by ID and cannot be sorted by " + filter.getSort());
+        }
+        long afterId = Pagination.decodeCursor(cursor);
+        List<DogDetailDto> dogs = dogRepository.searchDogDetailsAfter(filter, dogTextIndex.candidateIds(filter).orElse(null),
+                afterId, Limit.of(pageSize + 1));
+        return entityDtoMapper.toDogDetailCursorResponse(dogs, pageSize, afterId == 0L);
+    }
+
+    @RetryOnConflict
     @Transactional
     public void deleteDogById(Long id) {
         PoliceDog dog = getDogWithId(id);
@@ -67,12 +115,22 @@ public class DogService {
         dog.setDeleted(true);
         dog.setDeletedAt(LocalDateTime.now());
         dogRepository.save(dog);
+        countCache.invalidate(PoliceDog.class);
+        dogStatsService.dogChanged(DogFacts.of(dog), null);
+        dogTextIndex.dogChanged(DogText.of(dog), null);
+        dogDetailCache.invalidate(id);
         log.info("Soft deleted dog with ID {}", id);
     }
 
+    /**
+     * @param ifMatch the request's {@code If-Match} header, or {@code null} for an unconditional update
+     */
+    @RetryOnConflict
     @Transactional
-    public DogDetailDto updateDog(Long id, UpdateDogRequest updateDogRequest) {
+    public DogDetailDto updateDog(Long id, UpdateDogRequest updateDogRequest, String ifMatch) {
+        Long expectedVersion = checkIfMatch(id, ifMatch);
         PoliceDog dog = getDogWithId(id);
+        checkVersionUnchanged(dog, expectedVersion);
 
         if (dog.getDeleted()) {
             log.error("Cannot update deleted dog with ID {}", id);
@@ -84,10 +142,12 @@ public class DogService {
             throw new IllegalStateException("Cannot update retired dog with ID " + id);
         }
 
+        DogFacts before = DogFacts.of(dog);
+        DogText textBefore = DogText.of(dog);
         String newBadgeNumber = updateDogRequest.getBadgeNumber();
         // Has badge number changed?
         if (!dog.getBadgeNumber().equals(newBadgeNumber)) {
-            if (dogRepository.existsByBadgeNumber(newBadgeNumber)) {
+            if (badgeNumberExists(newBadgeNumber)) {
                 log.error("Dog with badge number {} already exists", newBadgeNumber);
                 throw new IllegalArgumentException("Dog with badge number " + newBadgeNumber + " already exists");
             }
@@ -106,13 +166,23 @@ public class DogService {
         entityDtoMapper.updatePoliceDogFromDto(updateDogRequest, dog);
 
         var updatedDog = dogRepository.save(dog);
+        countCache.invalidate(PoliceDog.class);
+        dogDetailCache.invalidate(id);
+        dogStatsService.dogChanged(before, DogFacts.of(updatedDog));
+        dogTextIndex.dogChanged(textBefore, DogText.of(updatedDog));
         log.info("Updated dog with ID {}", id);
         return entityDtoMapper.toDogDetailDto(updatedDog);
     }
 
+    /**
+     * @param ifMatch the request's {@code If-Match} header, or {@code null} for an unconditional retire
+     */
+    @RetryOnConflict
     @Transactional
-    public DogDetailDto retireDog(Long id, @Valid RetireDogRequest retireDogRequest) {
+    public DogDetailDto retireDog(Long id, @Valid RetireDogRequest retireDogRequest, String ifMatch) {
+        Long expectedVersion = checkIfMatch(id, ifMatch);
         PoliceDog dog = getDogWithId(id);
+        checkVersionUnchanged(dog, expectedVersion);
 
         if (dog.getDeleted()) {
             log.error("Cannot retire deleted dog with ID {}", id);
@@ -123,51 +193,134 @@ public class DogService {
             return entityDtoMapper.toDogDetailDto(dog);
         }
 
+        DogFacts before = DogFacts.of(dog);
         dog.setStatus(Status.RETIRED);
         dog.setLeavingDate(retireDogRequest.getLeavingDate());
         dog.setLeavingReason(retireDogRequest.getLeavingReason());
         var retiredDog = dogRepository.save(dog);
+        countCache.invalidate(PoliceDog.class);
+        dogDetailCache.invalidate(id);
+        dogStatsService.dogChanged(before, DogFacts.of(retiredDog));
         log.info("Retired dog with ID {}", id);
         return entityDtoMapper.toDogDetailDto(retiredDog);
     }
 
+    /**
+     * The ETag of a dog, registered or archived, read from version columns only, so a conditional request
+     * is answered without loading the dog.
+     */
     @Transactional(readOnly = true)
+    public String getDogETag(Long id) {
+        DogVersion version = dogRepository.findVersionById(id)
+                .or(() -> archivedDogRepository.findVersionById(id))
+                .orElseThrow(() -> {
+                    log.error("Dog with ID {} not found", id);
+                    return new ResourceNotFoundException("Dog with ID " + id + " not found");
+                });
+        return ETags.dog(id, version.version(), version.supplierId(), version.supplierVersion());
+    }
+
+    /**
+     * Served from {@link DogDetailCache}. Not transactional, so a cache hit does not open a transaction
+     * (nor take a connection when no replicas are configured). A miss runs in one read-only transaction
+     * that looks the dog up in the registry and then in the archive of dogs moved there by
+     * {@link DogArchiveService}, so both lookups are routed to the same database.
+     */
     public DogDetailDto getDogById(Long id) {
-        PoliceDog dog = getDogWithId(id);
-        return entityDtoMapper.toDogDetailDto(dog);
+        return dogDetailCache.get(id, () -> readOnlyTransaction().execute(status -> dogRepository.findDogDetailById(id)
+                .or(() -> archivedDogRepository.findDogDetailById(id))
+                .orElseThrow(() -> {
+                    log.error("Dog with ID {} not found", id);
+                    return new ResourceNotFoundException("Dog with ID " + id + " not found");
+                })));
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<DogDetailDto> getDogsByGender(Gender gender, boolean includeDeleted, String cursor, int pageSize) {
+        Pagination.validatePageSize(pageSize);
+        long afterId = Pagination.decodeCursor(cursor);
+        List<DogDetailDto> dogs = dogRepository.findDogDetailsByGender(gender, includeDeleted, afterId, Limit.of(pageSize + 1));
+        return entityDtoMapper.toDogDetailCursorResponse(dogs, pageSize, afterId == 0L);
     }
 
-    public List<DogDetailDto> getDogsByGender(Gender gender) {
-        List<PoliceDog> dogs = dogRepository.findAllByGender(gender);
-        return mapDogs(dogs);
+    @Transactional(readOnly = true)
+    public PageResponse<DogDetailDto> getDogsByStatus(Status status, boolean includeDeleted, String cursor, int pageSize) {
+        Pagination.validatePageSize(pageSize);
+        long afterId = Pagination.decodeCursor(cursor);
+        List<DogDetailDto> dogs = dogRepository.findDogDetailsByStatus(status, includeDeleted, afterId, Limit.of(pageSize + 1));
+        return entityDtoMapper.toDogDetailCursorResponse(dogs, pageSize, afterId == 0L);
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<DogDetailDto> getDogsByLeavingReason(LeavingReason leavingReason, boolean includeDeleted, String cursor, int pageSize) {
+        Pagination.validatePageSize(pageSize);
+        long afterId = Pagination.decodeCursor(cursor);
+        List<DogDetailDto> dogs = dogRepository.findDogDetailsByLeavingReason(leavingReason, includeDeleted, afterId, Limit.of(pageSize + 1));
+        return entityDtoMapper.toDogDetailCursorResponse(dogs, pageSize, afterId == 0L);
+    }
+
+    /**
+     * Rejects a conditional write whose {@code If-Match} does not match the dog's current ETag. Only the
+     * version columns of the dog and its supplier are read, so a stale write fails before the dog is loaded.
+     *
+     * @return the version the write is conditioned on, or {@code null} when there is no condition
+     */
+    private Long checkIfMatch(Long id, String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        DogVersion version = dogRepository.findVersionById(id)
+                .orElseThrow(() -> dogNotFound(id));
+        if (!ETags.matches(ifMatch, ETags.dog(id, version.version(), version.supplierId(), version.supplierVersion()))) {
+            log.error("If-Match {} does not match version {} of dog with ID {}", ifMatch, version, id);
+            throw new PreconditionFailedException("Dog with ID " + id + " has been modified");
+        }
+        return version.version();
     }
 
-    public List<DogDetailDto> getDogsByStatus(Status status) {
-        List<PoliceDog> dogs = dogRepository.findAllByStatus(status);
-        return mapDogs(dogs);
+    /**
+     * Closes the gap between {@link #checkIfMatch} and loading the dog; changes after the load are caught
+     * by the optimistic lock when the transaction flushes.
+     */
+    private void checkVersionUnchanged(PoliceDog dog, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(dog.getVersion())) {
+            log.error("Dog with ID {} was modified after its If-Match check", dog.getId());
+            throw new PreconditionFailedException("Dog with ID " + dog.getId() + " has been modified");
+        }
     }
 
-    public List<DogDetailDto> getDogsByLeavingReason(LeavingReason leavingReason) {
-        List<PoliceDog> dogs = dogRepository.findAllByLeavingReason(leavingReason);
-        return mapDogs(dogs);
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate;
     }
 
     private PoliceDog getDogWithId(Long id) {
         return dogRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.error("Dog with ID {} not found for deletion", id);
-                    return new ResourceNotFoundException("Dog with ID " + id + " not found");
-                });
+                .orElseThrow(() -> dogNotFound(id));
     }
 
-    private Supplier getSupplierByCode(String supplierCode) {
-        return supplierService.getSupplierByCode(supplierCode);
+    /**
+     * Archived dogs are read-only, so a write to one is rejected rather than reported as not found.
+     */
+    private RuntimeException dogNotFound(Long id) {
+        if (archivedDogRepository.existsById(id)) {
+            log.error("Dog with ID {} is archived and cannot be changed", id);
+            return new IllegalStateException("Dog with ID " + id + " is archived and cannot be changed");
+        }
+        log.error("Dog with ID {} not found", id);
+        return new ResourceNotFoundException("Dog with ID " + id + " not found");
     }
 
-    private List<DogDetailDto> mapDogs(List<PoliceDog> dogs) {
-        return dogs.stream()
-                .map(entityDtoMapper::toDogDetailDto)
-                .toList();
+    /**
+     * Badge numbers stay taken by archived dogs, which keep theirs.
+     */
+    private boolean badgeNumberExists(String badgeNumber) {
+        return dogRepository.existsByBadgeNumber(badgeNumber) || archivedDogRepository.existsByBadgeNumber(badgeNumber);
+    }
+
+    private Supplier getSupplierByCode(String supplierCode) {
+        return supplierService.getSupplierByCode(supplierCode);
     }
 
 }
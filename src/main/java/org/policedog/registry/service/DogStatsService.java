@@ -0,0 +1,160 @@
+package org.policedog.registry.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.policedog.registry.dao.ArchivedDogRepository;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.dao.PoliceDogRepository.DogStatsRow;
+import org.policedog.registry.domain.Gender;
+import org.policedog.registry.domain.LeavingReason;
+import org.policedog.registry.domain.PoliceDog;
+import org.policedog.registry.domain.Status;
+import org.policedog.registry.dto.DogStatsDto;
+import org.policedog.registry.transaction.TransactionHooks;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of non-deleted dogs by status, gender, leaving reason and supplier, held in memory so the
+ * statistics endpoint never queries the database. The counters are built from a single GROUP BY once
+ * the application has started, before it takes requests, and then moved by each dog write when its
+ * transaction commits; rolled back writes leave them untouched.
+ * <p>
+ * Only writes made through this node are counted, so with several nodes each one's counts drift by the
+ * writes made elsewhere until it restarts.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class DogStatsService implements SmartInitializingSingleton {
+
+    private final PoliceDogRepository dogRepository;
+    private final ArchivedDogRepository archivedDogRepository;
+
+    private final LongAdder total = new LongAdder();
+    private final Map<Status, LongAdder> byStatus = counters(Status.class);
+    private final Map<Gender, LongAdder> byGender = counters(Gender.class);
+    private final Map<LeavingReason, LongAdder> byLeavingReason = counters(LeavingReason.class);
+    private final Map<Long, SupplierCount> bySupplier = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    /**
+     * Replaces the counters with the current counts in the database. Archived dogs are counted as well,
+     * so archiving leaves the statistics unchanged.
+     */
+    void load() {
+        List<DogStatsRow> rows = new ArrayList<>(dogRepository.countDogsForStats());
+        rows.addAll(archivedDogRepository.countDogsForStats());
+        total.reset();
+        byStatus.values().forEach(LongAdder::reset);
+        byGender.values().forEach(LongAdder::reset);
+        byLeavingReason.values().forEach(LongAdder::reset);
+        bySupplier.clear();
+        rows.forEach(row -> add(new DogFacts(row.status(), row.gender(), row.leavingReason(), row.supplierId(), row.supplierCode()),
+                row.count()));
+        log.info("Loaded dog statistics: {} dogs", total.sum());
+    }
+
+    public DogStatsDto getStats() {
+        Map<String, Long> supplierCounts = new TreeMap<>();
+        bySupplier.values().forEach(supplier -> {
+            long count = supplier.count.sum();
+            if (count > 0) {
+                supplierCounts.put(supplier.code, count);
+            }
+        });
+        return new DogStatsDto(total.sum(), sums(byStatus), sums(byGender), sums(byLeavingReason), supplierCounts);
+    }
+
+    /**
+     * Moves the counters from the dog's state before a write to its state after, once the current
+     * transaction commits.
+     *
+     * @param before the dog before the write, or {@code null} when it was created
+     * @param after  the dog after the write, or {@code null} when it was deleted
+     */
+    public void dogChanged(DogFacts before, DogFacts after) {
+        TransactionHooks.afterCommit(() -> {
+            if (before != null) {
+                add(before, -1);
+            }
+            if (after != null) {
+                add(after, 1);
+            }
+        });
+    }
+
+    public void dogsCreated(List<DogFacts> created) {
+        if (!created.isEmpty()) {
+            TransactionHooks.afterCommit(() -> created.forEach(dog -> add(dog, 1)));
+        }
+    }
+
+    public void supplierRenamed(Long supplierId, String code) {
+        TransactionHooks.afterCommit(() -> {
+            SupplierCount supplier = bySupplier.get(supplierId);
+            if (supplier != null) {
+                supplier.code = code;
+            }
+        });
+    }
+
+    private void add(DogFacts dog, long count) {
+        total.add(count);
+        addTo(byStatus, dog.status(), count);
+        addTo(byGender, dog.gender(), count);
+        addTo(byLeavingReason, dog.leavingReason(), count);
+        if (dog.supplierId() != null) {
+            bySupplier.computeIfAbsent(dog.supplierId(), id -> new SupplierCount(dog.supplierCode())).count.add(count);
+        }
+    }
+
+    private static <E extends Enum<E>> void addTo(Map<E, LongAdder> counters, E key, long count) {
+        if (key != null) {
+            counters.get(key).add(count);
+        }
+    }
+
+    private static <E extends Enum<E>> Map<E, LongAdder> counters(Class<E> type) {
+        Map<E, LongAdder> counters = new EnumMap<>(type);
+        for (E key : type.getEnumConstants()) {
+            counters.put(key, new LongAdder());
+        }
+        return Collections.unmodifiableMap(counters);
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> sums(Map<E, LongAdder> counters) {
+        Map<E, Long> sums = new LinkedHashMap<>();
+        counters.forEach((key, counter) -> sums.put(key, counter.sum()));
+        return sums;
+    }
+
+    /**
+     * The attributes of a dog the statistics count on.
+     */
+    public record DogFacts(Status status, Gender gender, LeavingReason leavingReason, Long supplierId, String supplierCode) {
+
+        public static DogFacts of(PoliceDog dog) {
+            return new DogFacts(dog.getStatus(), dog.getGender(), dog.getLeavingReason(),
+                    dog.getSupplier() == null ? null : dog.getSupplier().getId(),
+                    dog.getSupplier() == null ? null : dog.getSupplier().getCode());
+        }
+    }
+
+    private static final class SupplierCount {
+        private volatile String code;
+        private final LongAdder count = new LongAdder();
+
+        SupplierCount(String code) {
+            this.code = code;
+        }
+    }
+}
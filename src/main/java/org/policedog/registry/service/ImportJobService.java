@@ -0,0 +1,382 @@
+package org.policedog.registry.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.policedog.registry.cache.CountCache;
+import org.policedog.registry.dao.ImportChunkRepository;
+import org.policedog.registry.dao.ImportJobRepository;
+import org.policedog.registry.dao.ImportRowErrorRepository;
+import org.policedog.registry.dao.SupplierRepository;
+import org.policedog.registry.domain.*;
+import org.policedog.registry.dto.BulkItemResult;
+import org.policedog.registry.dto.CreateDogRequest;
+import org.policedog.registry.dto.ImportJobDto;
+import org.policedog.registry.dto.SupplierRequest;
+import org.policedog.registry.exception.ResourceNotFoundException;
+import org.policedog.registry.imports.CsvRecordReader;
+import org.policedog.registry.imports.CsvRow;
+import org.policedog.registry.imports.ImportRowMapper;
+import org.policedog.registry.mapper.EntityDtoMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.policedog.registry.dto.BulkItemResult.Outcome.FAILED;
+
+/**
+ * Runs CSV imports in the background. The file is cut into chunks of {@code registry.import.chunk-size}
+ * rows which are committed in parallel, {@code registry.import.parallelism} at a time. Every chunk
+ * transaction also saves the chunk's checkpoint and rejected rows, so a failed import can be resumed and
+ * only re-runs the chunks that were not committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportJobService {
+
+    private static final int ROW_ERRORS_SHOWN = 50;
+    private static final Map<ImportType, List<String>> REQUIRED_COLUMNS = Map.of(
+            ImportType.DOGS, List.of("name", "breed", "supplierCode", "badgeNumber", "gender", "birthDate", "status"),
+            ImportType.SUPPLIERS, List.of("code", "name"));
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportChunkRepository importChunkRepository;
+    private final ImportRowErrorRepository importRowErrorRepository;
+    private final SupplierRepository supplierRepository;
+    private final DogBulkService dogBulkService;
+    private final EntityDtoMapper entityDtoMapper;
+    private final CountCache countCache;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+
+    @Value("${registry.import.directory:${java.io.tmpdir}/dog-registry-imports}")
+    private Path directory;
+
+    @Value("${registry.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${registry.import.parallelism:4}")
+    private int parallelism;
+
+    @Value("${registry.import.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ExecutorService jobExecutor;
+    private ExecutorService chunkExecutor;
+
+    @PostConstruct
+    void startExecutors() {
+        jobExecutor = Executors.newFixedThreadPool(maxConcurrentJobs, threadFactory("import-job-"));
+        // A full queue makes the reading thread import the chunk itself, which keeps the file reading
+        // from running ahead of the database
+        chunkExecutor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism), threadFactory("import-chunk-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * The pool sizes bound how many connections imports take from the JDBC pool, so they are kept with
+     * virtual threads too; only the threads themselves become virtual.
+     */
+    private ThreadFactory threadFactory(String prefix) {
+        return virtualThreads
+                ? Thread.ofVirtual().name(prefix, 1).factory()
+                : new CustomizableThreadFactory(prefix);
+    }
+
+    @PreDestroy
+    void stopExecutors() {
+        jobExecutor.shutdownNow();
+        chunkExecutor.shutdownNow();
+    }
+
+    public ImportJobDto startImport(ImportType type, InputStream csv) throws IOException {
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, type.name().toLowerCase() + "-", ".csv");
+        try {
+            Files.copy(csv, file, StandardCopyOption.REPLACE_EXISTING);
+            checkHeader(type, file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob();
+        job.setType(type);
+        job.setStatus(ImportStatus.RUNNING);
+        job.setFilePath(file.toString());
+        job.setChunkSize(chunkSize);
+        job.setCreatedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getCreatedAt());
+        job = importJobRepository.save(job);
+        log.info("Started {} import job {} from {}", type, job.getId(), file);
+
+        launch(job.getId());
+        return getJob(job.getId());
+    }
+
+    public ImportJobDto getJob(Long id) {
+        ImportJob job = findJob(id);
+        ImportChunkRepository.Progress progress = importChunkRepository.summarise(id);
+        List<ImportRowError> rowErrors = importRowErrorRepository.findByJobIdOrderByRowNumber(id, Limit.of(ROW_ERRORS_SHOWN));
+        return entityDtoMapper.toImportJobDto(job, progress, rowErrors);
+    }
+
+    public ImportJobDto resumeImport(Long id) {
+        ImportJob job = findJob(id);
+        if (job.getStatus() == ImportStatus.COMPLETED) {
+            throw new IllegalStateException("Import job " + id + " is already completed");
+        }
+        if (runningJobs.contains(id)) {
+            throw new IllegalStateException("Import job " + id + " is already running");
+        }
+
+        job.setStatus(ImportStatus.RUNNING);
+        job.setError(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        importJobRepository.save(job);
+        log.info("Resuming import job {}", id);
+
+        launch(id);
+        return getJob(id);
+    }
+
+    private void launch(Long jobId) {
+        if (!runningJobs.add(jobId)) {
+            throw new IllegalStateException("Import job " + jobId + " is already running");
+        }
+        jobExecutor.execute(() -> {
+            try {
+                run(jobId);
+            } finally {
+                runningJobs.remove(jobId);
+            }
+        });
+    }
+
+    private void run(Long jobId) {
+        ImportJob job = findJob(jobId);
+        Set<Integer> committedChunks = importChunkRepository.findChunkIndexes(jobId);
+        ImportRun run = new ImportRun(job);
+        long totalRows;
+        try {
+            totalRows = submitChunks(run, committedChunks);
+            run.awaitChunks();
+        } catch (Exception e) {
+            run.fail(e);
+            totalRows = -1;
+        }
+
+        if (run.failure.get() != null) {
+            log.error("Import job {} failed", jobId, run.failure.get());
+            finish(jobId, ImportStatus.FAILED, null, rootCauseMessage(run.failure.get()));
+            return;
+        }
+        finish(jobId, ImportStatus.COMPLETED, totalRows, null);
+        deleteFile(job);
+        log.info("Import job {} completed, {} rows read, {} chunks already committed before this run",
+                jobId, totalRows, committedChunks.size());
+    }
+
+    private long submitChunks(ImportRun run, Set<Integer> committedChunks) throws IOException {
+        ImportJob job = run.job;
+        try (Reader reader = Files.newBufferedReader(Path.of(job.getFilePath()), StandardCharsets.UTF_8)) {
+            CsvRecordReader csv = new CsvRecordReader(reader);
+            List<String> header = csv.next();
+
+            long rowNumber = 0;
+            int chunkIndex = 0;
+            List<CsvRow> chunk = new ArrayList<>();
+            List<String> record;
+            while ((record = csv.next()) != null && run.failure.get() == null) {
+                rowNumber++;
+                if (!committedChunks.contains(chunkIndex)) {
+                    chunk.add(new CsvRow(rowNumber, toValues(header, record)));
+                }
+                if (rowNumber % job.getChunkSize() == 0) {
+                    run.submit(chunkIndex, chunk);
+                    chunk = new ArrayList<>();
+                    chunkIndex++;
+                }
+            }
+            run.submit(chunkIndex, chunk);
+            return rowNumber;
+        }
+    }
+
+    private void importChunk(ImportJob job, int chunkIndex, List<CsvRow> rows, ImportRun run) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ImportRowError> rowErrors = switch (job.getType()) {
+                case DOGS -> importDogs(job.getId(), rows, run.dogContext);
+                case SUPPLIERS -> importSuppliers(job.getId(), rows, run.claimedSupplierCodes);
+            };
+            importRowErrorRepository.saveAll(rowErrors);
+            importChunkRepository.save(new ImportChunk(job.getId(), chunkIndex, rows.get(0).rowNumber(),
+                    rows.size() - rowErrors.size(), rowErrors.size()));
+        });
+        log.debug("Import job {} committed chunk {}", job.getId(), chunkIndex);
+    }
+
+    private List<ImportRowError> importDogs(Long jobId, List<CsvRow> rows, DogBulkService.BulkContext context) {
+        List<ImportRowError> rowErrors = new ArrayList<>();
+        List<DogBulkService.BulkItem> items = new ArrayList<>(rows.size());
+        for (CsvRow row : rows) {
+            try {
+                CreateDogRequest request = ImportRowMapper.toCreateDogRequest(row);
+                dogBulkService.validationError(request).ifPresentOrElse(
+                        error -> rowErrors.add(new ImportRowError(jobId, row.rowNumber(), error)),
+                        () -> items.add(new DogBulkService.BulkItem(Math.toIntExact(row.rowNumber()), request)));
+            } catch (IllegalArgumentException e) {
+                rowErrors.add(new ImportRowError(jobId, row.rowNumber(), e.getMessage()));
+            }
+        }
+
+        if (items.isEmpty()) {
+            return rowErrors;
+        }
+        List<BulkItemResult> results = new ArrayList<>(items.size());
+        dogBulkService.saveChunk(items, context, results);
+        results.stream()
+                .filter(result -> result.getOutcome() == FAILED)
+                .forEach(result -> rowErrors.add(new ImportRowError(jobId, result.getIndex(), result.getError())));
+        return rowErrors;
+    }
+
+    private List<ImportRowError> importSuppliers(Long jobId, List<CsvRow> rows, Set<String> claimedCodes) {
+        List<ImportRowError> rowErrors = new ArrayList<>();
+        Map<CsvRow, SupplierRequest> requests = new LinkedHashMap<>();
+        for (CsvRow row : rows) {
+            SupplierRequest request = ImportRowMapper.toSupplierRequest(row);
+            dogBulkService.validationError(request).ifPresentOrElse(
+                    error -> rowErrors.add(new ImportRowError(jobId, row.rowNumber(), error)),
+                    () -> requests.put(row, request));
+        }
+
+        Set<String> existingCodes = requests.isEmpty() ? Set.of() : supplierRepository.findExistingCodes(
+                requests.values().stream().map(SupplierRequest::getCode).collect(Collectors.toSet()));
+        requests.forEach((row, request) -> {
+            if (existingCodes.contains(request.getCode()) || !claimedCodes.add(request.getCode())) {
+                rowErrors.add(new ImportRowError(jobId, row.rowNumber(), "Supplier with code " + request.getCode() + " already exists"));
+            } else {
+                supplierRepository.save(entityDtoMapper.toSupplier(request));
+            }
+        });
+
+        supplierRepository.flush();
+        entityManager.clear();
+        countCache.invalidate(Supplier.class);
+        return rowErrors;
+    }
+
+    private void checkHeader(ImportType type, Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> header = Optional.ofNullable(new CsvRecordReader(reader).next()).orElse(List.of());
+            List<String> missingColumns = REQUIRED_COLUMNS.get(type).stream()
+                    .filter(column -> !header.contains(column))
+                    .toList();
+            if (!missingColumns.isEmpty()) {
+                throw new IllegalArgumentException("CSV header is missing columns: " + String.join(", ", missingColumns));
+            }
+        }
+    }
+
+    private void finish(Long jobId, ImportStatus status, Long totalRows, String error) {
+        ImportJob job = findJob(jobId);
+        job.setStatus(status);
+        job.setTotalRows(totalRows);
+        job.setError(error);
+        job.setUpdatedAt(LocalDateTime.now());
+        importJobRepository.save(job);
+    }
+
+    private void deleteFile(ImportJob job) {
+        try {
+            Files.deleteIfExists(Path.of(job.getFilePath()));
+        } catch (IOException e) {
+            log.warn("Could not delete import file {} of job {}", job.getFilePath(), job.getId(), e);
+        }
+    }
+
+    private ImportJob findJob(Long id) {
+        return importJobRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.error("Import job with ID {} not found", id);
+                    return new ResourceNotFoundException("Import job with ID " + id + " not found");
+                });
+    }
+
+    private static Map<String, String> toValues(List<String> header, List<String> record) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < header.size() && i < record.size(); i++) {
+            values.put(header.get(i), record.get(i));
+        }
+        return values;
+    }
+
+    private static String rootCauseMessage(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        String message = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        return message.length() > 2000 ? message.substring(0, 2000) : message;
+    }
+
+    /**
+     * State of one run of a job: the chunks in flight, the first failure and what the chunks share.
+     */
+    private class ImportRun {
+        private final ImportJob job;
+        private final DogBulkService.BulkContext dogContext = new DogBulkService.BulkContext();
+        private final Set<String> claimedSupplierCodes = ConcurrentHashMap.newKeySet();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final List<CompletableFuture<Void>> chunks = new ArrayList<>();
+
+        private ImportRun(ImportJob job) {
+            this.job = job;
+        }
+
+        private void submit(int chunkIndex, List<CsvRow> rows) {
+            if (rows.isEmpty()) {
+                return;
+            }
+            chunks.removeIf(CompletableFuture::isDone);
+            chunks.add(CompletableFuture.runAsync(() -> importChunk(job, chunkIndex, rows, this), chunkExecutor)
+                    .exceptionally(e -> {
+                        fail(e instanceof CompletionException ? e.getCause() : e);
+                        return null;
+                    }));
+        }
+
+        private void awaitChunks() {
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+        }
+
+        private void fail(Throwable throwable) {
+            failure.compareAndSet(null, throwable);
+        }
+    }
+}
@@ -2,35 +2,100 @@ package org.policedog.registry.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.policedog.registry.cache.CountCache;
+import org.policedog.registry.cache.DogDetailCache;
+import org.policedog.registry.cache.SecondLevelCache;
+import org.policedog.registry.dao.PoliceDogRepository;
 import org.policedog.registry.dao.SupplierRepository;
+import org.policedog.registry.domain.PoliceDog;
 import org.policedog.registry.domain.Supplier;
+import org.policedog.registry.dto.DogSummaryDto;
 import org.policedog.registry.dto.PageResponse;
 import org.policedog.registry.dto.SupplierDetailDto;
+import org.policedog.registry.dto.SupplierDogsView;
 import org.policedog.registry.dto.SupplierRequest;
+import org.policedog.registry.etag.ETags;
 import org.policedog.registry.exception.ResourceNotFoundException;
 import org.policedog.registry.mapper.EntityDtoMapper;
+import org.policedog.registry.pagination.Pagination;
+import org.policedog.registry.retry.RetryOnConflict;
+import org.policedog.registry.search.DogTextIndex;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class SupplierService {
 
+    private static final String ALL_SUPPLIERS = "all";
+
     private final SupplierRepository supplierRepository;
+    private final PoliceDogRepository dogRepository;
     private final EntityDtoMapper entityDtoMapper;
+    private final CountCache countCache;
+    private final SecondLevelCache secondLevelCache;
+    private final DogDetailCache dogDetailCache;
+    private final DogStatsService dogStatsService;
+    private final DogTextIndex dogTextIndex;
+
+    /**
+     * The ETag of a supplier in the given view, read from version columns and the dog count only, so
+     * conditional requests are answered without loading or mapping the supplier's dogs.
+     */
+    @Transactional(readOnly = true)
+    public String getSupplierETag(Long id, SupplierDogsView dogsView) {
+        Long version = supplierRepository.findVersionById(id)
+                .orElseThrow(() -> {
+                    log.error("Supplier with id {} not found", id);
+                    return new ResourceNotFoundException("Supplier with id " + id + " not found");
+                });
+        return switch (dogsView) {
+            case FULL -> ETags.supplier(id, version, dogRepository.findDogVersionsBySupplier(id));
+            case SUMMARY -> ETags.supplier(id, version, dogRepository.countBySupplierIdAndDeletedFalse(id));
+            case NONE -> ETags.supplier(id, version);
+        };
+    }
 
     @Transactional(readOnly = true)
-    public SupplierDetailDto getSupplierById(Long id) {
+    public SupplierDetailDto getSupplierById(Long id, SupplierDogsView dogsView) {
         Supplier supplier = getSupplier(id);
-        return entityDtoMapper.toSupplierDetailDto(supplier);
+        return switch (dogsView) {
+            case FULL -> entityDtoMapper.toSupplierDetailDto(supplier);
+            case SUMMARY -> {
+                SupplierDetailDto supplierDetailDto = entityDtoMapper.toSupplierDetailDtoWithoutDogs(supplier);
+                supplierDetailDto.setDogCount(dogRepository.countBySupplierIdAndDeletedFalse(id));
+                yield supplierDetailDto;
+            }
+            case NONE -> entityDtoMapper.toSupplierDetailDtoWithoutDogs(supplier);
+        };
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<DogSummaryDto> getSupplierDogs(Long id, boolean includeDeleted, String cursor, int pageSize) {
+        Pagination.validatePageSize(pageSize);
+        long afterId = Pagination.decodeCursor(cursor);
+        if (!supplierRepository.existsById(id)) {
+            log.error("Supplier with id {} not found", id);
+            throw new ResourceNotFoundException("Supplier with id " + id + " not found");
+        }
+        List<DogSummaryDto> dogs = dogRepository.findDogSummariesBySupplier(id, includeDeleted, afterId, Limit.of(pageSize + 1));
+        return entityDtoMapper.toDogSummaryCursorResponse(dogs, pageSize, afterId == 0L);
     }
 
     @Transactional(readOnly = true)
     public Supplier getSupplierByCode(String supplierCode) {
-        return supplierRepository.findByCode(supplierCode)
+        return supplierRepository.findByNaturalCode(supplierCode)
                 .orElseThrow(() -> {
                     log.error("Supplier code {} not found", supplierCode);
                     return new ResourceNotFoundException("Supplier with code " + supplierCode + " not found");
@@ -39,9 +104,20 @@ public class SupplierService {
 
     @Transactional(readOnly = true)
     public PageResponse<SupplierDetailDto> getSuppliers(int pageNo, int pageSize) {
-        Pageable pageable = PageRequest.of(pageNo, pageSize);
-        var pageRequest = supplierRepository.findAll(pageable);
-        return entityDtoMapper.toSupplierDetailPageResponse(pageRequest);
+        Pagination.validatePageSize(pageSize);
+        Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by("id"));
+        Slice<Supplier> slice = supplierRepository.findAllBy(pageable);
+        long total = countCache.get(Supplier.class, ALL_SUPPLIERS, supplierRepository::count);
+        return entityDtoMapper.toSupplierDetailPageResponse(new PageImpl<>(slice.getContent(), pageable, total),
+                findDogsBySupplierId(slice.getContent()));
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<SupplierDetailDto> getSuppliersSlice(int pageNo, int pageSize) {
+        Pagination.validatePageSize(pageSize);
+        Pageable pageable = PageRequest.of(pageNo, pageSize, Sort.by("id"));
+        Slice<Supplier> slice = supplierRepository.findAllBy(pageable);
+        return entityDtoMapper.toSupplierDetailSliceResponse(slice, findDogsBySupplierId(slice.getContent()));
     }
 
     @Transactional
@@ -50,10 +126,12 @@ public class SupplierService {
 
         var supplierEntity = entityDtoMapper.toSupplier(createSupplierRequest);
         var savedSupplier = supplierRepository.save(supplierEntity);
+        countCache.invalidate(Supplier.class);
         log.info("Created new supplier with ID {}", savedSupplier.getId());
         return entityDtoMapper.toSupplierDetailDto(savedSupplier);
     }
 
+    @RetryOnConflict
     @Transactional
     public SupplierDetailDto updateSupplier(Long id, SupplierRequest supplierRequest) {
         Supplier supplier = getSupplier(id);
@@ -63,10 +141,28 @@ public class SupplierService {
 
         entityDtoMapper.updateSupplierFromDto(supplierRequest, supplier);
         var updatedSupplier = supplierRepository.save(supplier);
+        secondLevelCache.evictSupplier(id);
+        dogDetailCache.invalidateSupplier(id);
+        dogStatsService.supplierRenamed(id, updatedSupplier.getCode());
+        dogTextIndex.supplierRenamed(id, updatedSupplier.getCode());
+        // Dog searches filter on the supplier code
+        countCache.invalidate(PoliceDog.class);
         log.info("Updated supplier with ID {}", updatedSupplier.getId());
         return entityDtoMapper.toSupplierDetailDto(updatedSupplier);
     }
 
+    /**
+     * Loads the dogs of a page of suppliers with a single IN query rather than one select per supplier.
+     */
+    private Map<Long, List<DogSummaryDto>> findDogsBySupplierId(List<Supplier> suppliers) {
+        if (suppliers.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> supplierIds = suppliers.stream().map(Supplier::getId).toList();
+        return dogRepository.findDogSummariesBySupplierIds(supplierIds).stream()
+                .collect(Collectors.groupingBy(PoliceDogRepository.SupplierDogSummary::supplierId,
+                        Collectors.mapping(PoliceDogRepository.SupplierDogSummary::toDogSummaryDto, Collectors.toList())));
+    }
 
     private Supplier getSupplier(Long id) {
         return supplierRepository.findById(id)
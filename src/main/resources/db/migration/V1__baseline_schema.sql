@@ -0,0 +1,88 @@
+-- Schema as previously generated by Hibernate from the entities, with the indexes it declared
+
+create sequence supplier_seq start with 1 increment by 50;
+create sequence police_dog_seq start with 1 increment by 50;
+
+create table supplier (
+    id             bigint       not null,
+    version        bigint,
+    code           varchar(255) not null,
+    name           varchar(255) not null,
+    contact_person varchar(255),
+    email          varchar(255),
+    phone          varchar(255),
+    constraint pk_supplier primary key (id),
+    constraint uk_supplier_code unique (code)
+);
+
+create table police_dog (
+    id                       bigint       not null,
+    version                  bigint,
+    name                     varchar(255),
+    breed                    varchar(255),
+    supplier_id              bigint,
+    badge_number             varchar(255) not null,
+    gender                   varchar(255) check (gender in ('MALE', 'FEMALE')),
+    birth_date               date,
+    date_acquired            date,
+    status                   varchar(255) check (status in ('TRAINING', 'IN_SERVICE', 'RETIRED', 'LEFT')),
+    leaving_date             date,
+    leaving_reason           varchar(255) check (leaving_reason in
+                                 ('TRANSFERRED', 'RETIRED_PUT_DOWN', 'KIA', 'REJECTED', 'RETIRED_RE_HOUSED', 'DIED')),
+    is_aggressive            boolean,
+    requires_separate_kennel boolean,
+    is_noice_tolerant        boolean,
+    has_special_diet         boolean,
+    dietary_requirements     varchar(255),
+    requires_exercise        boolean,
+    exercise_notes           varchar(255),
+    has_medical_conditions   boolean,
+    medical_notes            varchar(255),
+    temperament              varchar(255),
+    deleted                  boolean,
+    deleted_at               timestamp(6),
+    constraint pk_police_dog primary key (id),
+    constraint uk_police_dog_badge_number unique (badge_number),
+    constraint fk_police_dog_supplier foreign key (supplier_id) references supplier (id)
+);
+
+create index idx_police_dog_gender on police_dog (gender, deleted, id);
+create index idx_police_dog_status on police_dog (status, deleted, id);
+create index idx_police_dog_leaving_reason on police_dog (leaving_reason, deleted, id);
+create index idx_police_dog_supplier on police_dog (supplier_id, deleted, id);
+
+create table import_job (
+    id          bigint generated by default as identity (start with 1),
+    version     bigint,
+    type        varchar(255) not null check (type in ('DOGS', 'SUPPLIERS')),
+    status      varchar(255) not null check (status in ('RUNNING', 'COMPLETED', 'FAILED')),
+    file_path   varchar(255) not null,
+    chunk_size  integer      not null,
+    total_rows  bigint,
+    error       varchar(2000),
+    created_at  timestamp(6),
+    updated_at  timestamp(6),
+    primary key (id)
+);
+
+create table import_chunk (
+    id           bigint generated by default as identity (start with 1),
+    job_id       bigint  not null,
+    chunk_index  integer not null,
+    first_row    bigint  not null,
+    created_rows integer not null,
+    failed_rows  integer not null,
+    committed_at timestamp(6),
+    primary key (id),
+    constraint uk_import_chunk_job_chunk unique (job_id, chunk_index)
+);
+
+create table import_row_error (
+    id         bigint generated by default as identity (start with 1),
+    job_id     bigint not null,
+    row_number bigint not null,
+    message    varchar(1000),
+    primary key (id)
+);
+
+create index idx_import_row_error_job on import_row_error (job_id, row_number);
@@ -0,0 +1,4 @@
+-- The dog list and cursor pages read non-deleted dogs in ID order; the single-attribute searches are
+-- already served by the (attribute, deleted, id) indexes of V1. Lists sorted on another column seek this
+-- index too and sort the matching rows, as HSQLDB does not plan ORDER BY name, id from an index on it.
+create index idx_police_dog_deleted_id on police_dog (deleted, id);
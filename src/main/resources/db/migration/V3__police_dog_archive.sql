@@ -0,0 +1,34 @@
+-- Dogs that left, retired or were deleted long enough ago are moved here by DogArchiveService, so the
+-- active roster queries on police_dog only read current dogs. Same columns as police_dog, plus when the
+-- dog was archived; IDs and badge numbers stay unique across both tables.
+create table police_dog_archive (
+    id                       bigint       not null,
+    version                  bigint,
+    name                     varchar(255),
+    breed                    varchar(255),
+    supplier_id              bigint,
+    badge_number             varchar(255) not null,
+    gender                   varchar(255) check (gender in ('MALE', 'FEMALE')),
+    birth_date               date,
+    date_acquired            date,
+    status                   varchar(255) check (status in ('TRAINING', 'IN_SERVICE', 'RETIRED', 'LEFT')),
+    leaving_date             date,
+    leaving_reason           varchar(255) check (leaving_reason in
+                                 ('TRANSFERRED', 'RETIRED_PUT_DOWN', 'KIA', 'REJECTED', 'RETIRED_RE_HOUSED', 'DIED')),
+    is_aggressive            boolean,
+    requires_separate_kennel boolean,
+    is_noice_tolerant        boolean,
+    has_special_diet         boolean,
+    dietary_requirements     varchar(255),
+    requires_exercise        boolean,
+    exercise_notes           varchar(255),
+    has_medical_conditions   boolean,
+    medical_notes            varchar(255),
+    temperament              varchar(255),
+    deleted                  boolean,
+    deleted_at               timestamp(6),
+    archived_at              timestamp(6) not null,
+    constraint pk_police_dog_archive primary key (id),
+    constraint uk_police_dog_archive_badge_number unique (badge_number),
+    constraint fk_police_dog_archive_supplier foreign key (supplier_id) references supplier (id)
+);
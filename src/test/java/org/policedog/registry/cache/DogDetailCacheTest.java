@@ -0,0 +1,162 @@
+package org.policedog.registry.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.policedog.registry.dto.DogDetailDto;
+import org.policedog.registry.dto.SupplierSummaryDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DogDetailCacheTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DogDetailCache dogDetailCache = new DogDetailCache(Duration.ofMinutes(5), 100, Duration.ZERO, meterRegistry);
+
+    @Test
+    void shouldLoadHotIdOnceForConcurrentMisses() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<DogDetailDto>> lookups = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                lookups.add(callers.submit(() -> dogDetailCache.get(1L, () -> {
+                    loads.incrementAndGet();
+                    loaderEntered.countDown();
+                    await(releaseLoader);
+                    return dog(1L, 10L);
+                })));
+            }
+            assertTrue(loaderEntered.await(5, TimeUnit.SECONDS));
+            // Give the other callers time to pile up behind the load in progress
+            Thread.sleep(100);
+            releaseLoader.countDown();
+
+            for (Future<DogDetailDto> lookup : lookups) {
+                assertEquals(1L, lookup.get(5, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldReloadDogAfterInvalidation() {
+        AtomicInteger loads = new AtomicInteger();
+
+        dogDetailCache.get(1L, () -> dog(1L, 10L, loads));
+        dogDetailCache.get(1L, () -> dog(1L, 10L, loads));
+        dogDetailCache.invalidate(1L);
+        dogDetailCache.get(1L, () -> dog(1L, 10L, loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldInvalidateOnlyDogsOfUpdatedSupplier() {
+        AtomicInteger loads = new AtomicInteger();
+        dogDetailCache.get(1L, () -> dog(1L, 10L, loads));
+        dogDetailCache.get(2L, () -> dog(2L, 20L, loads));
+
+        dogDetailCache.invalidateSupplier(10L);
+        dogDetailCache.get(1L, () -> dog(1L, 10L, loads));
+        dogDetailCache.get(2L, () -> dog(2L, 20L, loads));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void shouldNotCacheDogLoadedWithinStaleReadWindowOfItsInvalidation() {
+        DogDetailCache replicaBackedCache = new DogDetailCache(Duration.ofMinutes(5), 100, Duration.ofMinutes(1), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        replicaBackedCache.get(1L, () -> dog(1L, 10L, loads));
+        replicaBackedCache.get(1L, () -> dog(1L, 10L, loads));
+
+        replicaBackedCache.invalidate(1L);
+        replicaBackedCache.get(1L, () -> dog(1L, 10L, loads));
+        replicaBackedCache.get(1L, () -> dog(1L, 10L, loads));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void shouldNotCacheDogLoadedWithinStaleReadWindowOfItsSupplierInvalidation() {
+        DogDetailCache replicaBackedCache = new DogDetailCache(Duration.ofMinutes(5), 100, Duration.ofMinutes(1), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        replicaBackedCache.invalidateSupplier(10L);
+        replicaBackedCache.get(1L, () -> dog(1L, 10L, loads));
+        replicaBackedCache.get(1L, () -> dog(1L, 10L, loads));
+        replicaBackedCache.get(2L, () -> dog(2L, 20L, loads));
+        replicaBackedCache.get(2L, () -> dog(2L, 20L, loads));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void shouldNotCacheDogInvalidatedWhileItWasLoading() {
+        AtomicInteger loads = new AtomicInteger();
+
+        dogDetailCache.get(1L, () -> {
+            dogDetailCache.invalidate(1L);
+            return dog(1L, 10L, loads);
+        });
+        dogDetailCache.get(1L, () -> dog(1L, 10L, loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldPropagateLoaderFailureWithoutCachingIt() {
+        AtomicInteger loads = new AtomicInteger();
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> dogDetailCache.get(1L, () -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("Dog not found");
+        }));
+        dogDetailCache.get(1L, () -> dog(1L, 10L, loads));
+
+        assertEquals("Dog not found", thrown.getMessage());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldPublishHitAndMissCounts() {
+        dogDetailCache.get(1L, () -> dog(1L, 10L));
+        dogDetailCache.get(1L, () -> dog(1L, 10L));
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "dogDetail").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "dogDetail").tag("result", "miss").functionCounter().count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static DogDetailDto dog(Long id, Long supplierId, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return dog(id, supplierId);
+    }
+
+    private static DogDetailDto dog(Long id, Long supplierId) {
+        DogDetailDto dog = new DogDetailDto();
+        dog.setId(id);
+        dog.setSupplier(new SupplierSummaryDto(supplierId, "CODE", "Supplier", null, null, null));
+        return dog;
+    }
+}
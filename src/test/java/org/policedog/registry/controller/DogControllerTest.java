@@ -2,32 +2,51 @@ package org.policedog.registry.controller;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.policedog.registry.domain.Status;
 import org.policedog.registry.dto.*;
+import org.policedog.registry.exception.PreconditionFailedException;
+import org.policedog.registry.export.ExportFormat;
+import org.policedog.registry.idempotency.IdempotencyStore;
+import org.policedog.registry.service.DogBulkService;
+import org.policedog.registry.service.DogExportService;
 import org.policedog.registry.service.DogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.policedog.registry.domain.Gender.MALE;
 import static org.policedog.registry.domain.Status.TRAINING;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = DogController.class)
+@Import({IdempotencyStore.class, SimpleMeterRegistry.class})
 @TestPropertySource(properties = {"spring.jpa.auditing.enabled=false"})
 class DogControllerTest {
 
@@ -40,6 +59,12 @@ class DogControllerTest {
     @MockitoBean
     private DogService dogService;
 
+    @MockitoBean
+    private DogExportService dogExportService;
+
+    @MockitoBean
+    private DogBulkService dogBulkService;
+
     @Test
     void shouldReturnBadRequestForCreateDogWhenRequiredFieldsAreMissing() throws Exception {
         CreateDogRequest createDogRequest = new CreateDogRequest();
@@ -100,6 +125,50 @@ class DogControllerTest {
         assertThat(actualDogDetailDto).isEqualTo(expectedDogDetailDto);
     }
 
+    @Test
+    void shouldReplayCreateDogForARepeatedIdempotencyKey() throws Exception {
+        CreateDogRequest createDogRequest = buildValidCreateDogRequest();
+        DogDetailDto expectedDogDetailDto = buildValidDogDetailDto(createDogRequest);
+
+        when(dogService.createDog(createDogRequest)).thenReturn(expectedDogDetailDto);
+
+        mockMvc.perform(post("/api/dogs/dogs")
+                        .header(IdempotencyStore.HEADER, "create-rex")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDogRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyStore.REPLAYED_HEADER));
+        String responseJson = mockMvc.perform(post("/api/dogs/dogs")
+                        .header(IdempotencyStore.HEADER, "create-rex")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDogRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyStore.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(objectMapper.readValue(responseJson, DogDetailDto.class)).isEqualTo(expectedDogDetailDto);
+        verify(dogService, times(1)).createDog(createDogRequest);
+    }
+
+    @Test
+    void shouldReturnUnprocessableEntityWhenIdempotencyKeyIsReusedForAnotherDog() throws Exception {
+        CreateDogRequest createDogRequest = buildValidCreateDogRequest();
+        when(dogService.createDog(createDogRequest)).thenReturn(buildValidDogDetailDto(createDogRequest));
+        mockMvc.perform(post("/api/dogs/dogs")
+                        .header(IdempotencyStore.HEADER, "create-other")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDogRequest)))
+                .andExpect(status().isCreated());
+
+        createDogRequest.setBadgeNumber("BDG457");
+        mockMvc.perform(post("/api/dogs/dogs")
+                        .header(IdempotencyStore.HEADER, "create-other")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDogRequest)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().string("Idempotency-Key create-other was already used for a different request"));
+    }
+
     @Test
     void shouldReturnBadRequestForGetDogsWhenFilterIsInvalidJson() throws Exception {
         String invalidFilter = "{name: 'Rex', breed: 'German Shepherd'";
@@ -129,6 +198,28 @@ class DogControllerTest {
         assertThat(actualPageResponse).isEqualTo(expectedPageResponse);
     }
 
+    @Test
+    void shouldBindTypedFilterParameters() throws Exception {
+        SearchFilter expectedFilter = new SearchFilter("Rex", null, null);
+        expectedFilter.setStatus(Status.IN_SERVICE);
+        expectedFilter.setDateAcquiredFrom(LocalDate.of(2020, 1, 1));
+        expectedFilter.setSort(DogSortField.BIRTH_DATE);
+        expectedFilter.setDirection(Sort.Direction.DESC);
+        PageResponse<DogDetailDto> expectedPageResponse = buildValidPageResponse();
+
+        when(dogService.getDogs(expectedFilter, 0, 10))
+                .thenReturn(expectedPageResponse);
+
+        mockMvc.perform(get("/api/dogs/dogs")
+                        .queryParam("name", "Rex")
+                        .queryParam("status", "IN_SERVICE")
+                        .queryParam("dateAcquiredFrom", "2020-01-01")
+                        .queryParam("sort", "BIRTH_DATE")
+                        .queryParam("direction", "DESC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()").value(expectedPageResponse.getContent().size()));
+    }
+
     @Test
     void shouldGetDogsWhenNoFilterIsProvided() throws Exception {
         PageResponse<DogDetailDto> expectedPageResponse = buildValidPageResponse();
@@ -188,6 +279,64 @@ class DogControllerTest {
         assertThat(actualPageResponse).isEqualTo(expectedPageResponse);
     }
 
+    @Test
+    void shouldGetDogsSliceWhenTotalIsNotRequested() throws Exception {
+        PageResponse<DogDetailDto> expectedPageResponse = buildValidSlicePageResponse();
+
+        when(dogService.getDogsSlice(new SearchFilter(), 0, 10))
+                .thenReturn(expectedPageResponse);
+
+        mockMvc.perform(get("/api/dogs/dogs")
+                        .queryParam("includeTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()").value(1))
+                .andExpect(jsonPath("$.metadata.page").value(0))
+                .andExpect(jsonPath("$.metadata.last").value(false))
+                .andExpect(jsonPath("$.metadata.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.metadata.totalPages").doesNotExist());
+    }
+
+    @Test
+    void shouldGetDogsByCursorWhenCursorIsProvided() throws Exception {
+        String cursor = "aWQ6MTA";
+        int pageSize = 5;
+        PageResponse<DogDetailDto> expectedPageResponse = buildValidCursorPageResponse();
+
+        when(dogService.getDogsAfter(new SearchFilter(), cursor, pageSize))
+                .thenReturn(expectedPageResponse);
+
+        mockMvc.perform(get("/api/dogs/dogs/cursor")
+                        .queryParam("cursor", cursor)
+                        .queryParam("pageSize", String.valueOf(pageSize)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()").value(1))
+                .andExpect(jsonPath("$.metadata.nextCursor").value("aWQ6MTE"))
+                .andExpect(jsonPath("$.metadata.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.metadata.page").doesNotExist());
+    }
+
+    @Test
+    void shouldReturnBadRequestForGetDogsByCursorWhenFilterIsInvalidJson() throws Exception {
+        String invalidFilter = "{name: 'Rex'";
+
+        mockMvc.perform(get("/api/dogs/dogs/cursor")
+                        .queryParam("filter", invalidFilter))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$").value("Invalid filter parameter"));
+    }
+
+    @Test
+    void shouldReturnBadRequestForGetDogsWhenPageSizeExceedsLimit() throws Exception {
+        String message = "Page size must be between 1 and 100";
+        when(dogService.getDogs(new SearchFilter(), 0, 1000))
+                .thenThrow(new IllegalArgumentException(message));
+
+        mockMvc.perform(get("/api/dogs/dogs")
+                        .queryParam("pageSize", "1000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$").value(message));
+    }
+
     @Test
     void shouldGetDogById() throws Exception {
         Long dogId = 1L;
@@ -203,6 +352,107 @@ class DogControllerTest {
         assertThat(actualDogDetailDto).isEqualTo(expectedDogDetailDto);
     }
 
+    @Test
+    void shouldReturnETagDerivedFromDogAndSupplierVersionsForGetDogById() throws Exception {
+        Long dogId = 1L;
+        DogDetailDto dogDetailDto = buildValidDogDetailDto();
+        dogDetailDto.setId(dogId);
+        dogDetailDto.setVersion(3L);
+        dogDetailDto.getSupplier().setId(2L);
+        dogDetailDto.setSupplierVersion(5L);
+        when(dogService.getDogById(dogId)).thenReturn(dogDetailDto);
+
+        mockMvc.perform(get("/api/dogs/dogs/{id}", dogId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"dog-1-v3-s2-v5\""))
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andExpect(jsonPath("$.supplierVersion").doesNotExist());
+    }
+
+    @Test
+    void shouldReturnNotModifiedWithoutLoadingDogWhenIfNoneMatchIsCurrent() throws Exception {
+        Long dogId = 1L;
+        when(dogService.getDogETag(dogId)).thenReturn("\"dog-1-v3\"");
+
+        mockMvc.perform(get("/api/dogs/dogs/{id}", dogId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"dog-1-v3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"dog-1-v3\""))
+                .andExpect(content().string(""));
+
+        verify(dogService, never()).getDogById(dogId);
+    }
+
+    @Test
+    void shouldReturnDogWhenIfNoneMatchIsStale() throws Exception {
+        Long dogId = 1L;
+        DogDetailDto dogDetailDto = buildValidDogDetailDto();
+        dogDetailDto.setId(dogId);
+        dogDetailDto.setVersion(4L);
+        dogDetailDto.setSupplier(null);
+        when(dogService.getDogETag(dogId)).thenReturn("\"dog-1-v4\"");
+        when(dogService.getDogById(dogId)).thenReturn(dogDetailDto);
+
+        mockMvc.perform(get("/api/dogs/dogs/{id}", dogId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"dog-1-v3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"dog-1-v4\""))
+                .andExpect(jsonPath("$.id").value(dogId));
+    }
+
+    @Test
+    void shouldNotReadETagSeparatelyForUnconditionalGetDogById() throws Exception {
+        Long dogId = 1L;
+        when(dogService.getDogById(dogId)).thenReturn(buildValidDogDetailDto());
+
+        mockMvc.perform(get("/api/dogs/dogs/{id}", dogId))
+                .andExpect(status().isOk());
+
+        verify(dogService, never()).getDogETag(dogId);
+    }
+
+    @Test
+    void shouldReturnPreconditionFailedWhenIfMatchIsStale() throws Exception {
+        Long dogId = 1L;
+        UpdateDogRequest updateDogRequest = buildValidUpdateDogRequest();
+        when(dogService.updateDog(dogId, updateDogRequest, "\"dog-1-v2\""))
+                .thenThrow(new PreconditionFailedException("Dog with ID 1 has been modified"));
+
+        mockMvc.perform(put("/api/dogs/dogs/{id}", dogId)
+                        .header(HttpHeaders.IF_MATCH, "\"dog-1-v2\"")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDogRequest)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(content().string("Dog with ID 1 has been modified"));
+    }
+
+    @Test
+    void shouldReturnConflictWhenUpdateKeepsConflicting() throws Exception {
+        Long dogId = 1L;
+        UpdateDogRequest updateDogRequest = buildValidUpdateDogRequest();
+        when(dogService.updateDog(dogId, updateDogRequest, null))
+                .thenThrow(new ObjectOptimisticLockingFailureException("PoliceDog", dogId));
+
+        mockMvc.perform(put("/api/dogs/dogs/{id}", dogId)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDogRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("The resource was modified concurrently, reload it and try again"));
+    }
+
+    @Test
+    void shouldReturnConflictWhenCreateViolatesAConstraint() throws Exception {
+        CreateDogRequest createDogRequest = buildValidCreateDogRequest();
+        when(dogService.createDog(createDogRequest))
+                .thenThrow(new DataIntegrityViolationException("unique constraint uk_police_dog_badge_number"));
+
+        mockMvc.perform(post("/api/dogs/dogs")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDogRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("The change conflicts with existing data, such as a badge number or supplier code already in use"));
+    }
+
     @Test
     void shouldDeleteDogById() throws Exception {
         Long dogId = 1L;
@@ -253,7 +503,7 @@ class DogControllerTest {
         UpdateDogRequest updateDogRequest = buildValidUpdateDogRequest();
         DogDetailDto expectedDogDetailDto = buildValidDogDetailDto(updateDogRequest);
 
-        when(dogService.updateDog(dogId, updateDogRequest)).thenReturn(expectedDogDetailDto);
+        when(dogService.updateDog(dogId, updateDogRequest, null)).thenReturn(expectedDogDetailDto);
         String responseJson = mockMvc.perform(put("/api/dogs/dogs/{id}", dogId)
                         .contentType(APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updateDogRequest)))
@@ -297,7 +547,7 @@ class DogControllerTest {
         RetireDogRequest retireDogRequest = buildValidRetireDogRequest();
         DogDetailDto expectedDogDetailDto = buildValidDogDetailDto();
 
-        when(dogService.retireDog(dogId, retireDogRequest)).thenReturn(expectedDogDetailDto);
+        when(dogService.retireDog(dogId, retireDogRequest, null)).thenReturn(expectedDogDetailDto);
 
         String responseJson = mockMvc.perform(post("/api/dogs/dogs/{id}/retire", dogId)
                         .contentType(APPLICATION_JSON)
@@ -308,6 +558,53 @@ class DogControllerTest {
         assertThat(actualDogDetailDto).isEqualTo(expectedDogDetailDto);
     }
 
+    @Test
+    void shouldReturnPerItemResultsForBulkCreate() throws Exception {
+        BulkCreateDogResponse expectedResponse = BulkCreateDogResponse.of(List.of(
+                BulkItemResult.created(0, "BDG456", 12L),
+                BulkItemResult.failed(1, "BDG457", "Supplier with code NONE not found")));
+
+        when(dogBulkService.createDogs(any())).thenReturn(expectedResponse);
+
+        String responseJson = mockMvc.perform(post("/api/dogs/dogs/bulk")
+                        .contentType(APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].error").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readValue(responseJson, BulkCreateDogResponse.class)).isEqualTo(expectedResponse);
+    }
+
+    @Test
+    void shouldStreamCsvExportAsAttachment() throws Exception {
+        when(dogExportService.exportDogs(eq(ExportFormat.CSV), eq(true), any())).thenAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(2);
+            outputStream.write("id,name\r\n1,Rex\r\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/dogs/dogs/export")
+                        .queryParam("format", "CSV")
+                        .queryParam("includeDeleted", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"dogs.csv\""))
+                .andExpect(content().string("id,name\r\n1,Rex\r\n"));
+    }
+
+    @Test
+    void shouldReturnBadRequestForExportWhenFormatIsUnknown() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs/export")
+                        .queryParam("format", "XML"))
+                .andExpect(status().isBadRequest());
+    }
+
     private CreateDogRequest buildValidCreateDogRequest() {
         CreateDogRequest createDogRequest = new CreateDogRequest();
         createDogRequest.setName("Rex");
@@ -351,6 +648,20 @@ class DogControllerTest {
         return pageResponse;
     }
 
+    private PageResponse<DogDetailDto> buildValidSlicePageResponse() {
+        PageResponse<DogDetailDto> pageResponse = new PageResponse<>();
+        pageResponse.setContent(List.of(buildValidDogDetailDto()));
+        pageResponse.setMetadata(PageResponse.PageMetadata.slice(0, 10, true, false));
+        return pageResponse;
+    }
+
+    private PageResponse<DogDetailDto> buildValidCursorPageResponse() {
+        PageResponse<DogDetailDto> pageResponse = new PageResponse<>();
+        pageResponse.setContent(List.of(buildValidDogDetailDto()));
+        pageResponse.setMetadata(PageResponse.PageMetadata.cursor(5, false, "aWQ6MTE"));
+        return pageResponse;
+    }
+
     private UpdateDogRequest buildValidUpdateDogRequest() {
         UpdateDogRequest updateDogRequest = new UpdateDogRequest();
         updateDogRequest.setName("Rex Updated");
@@ -0,0 +1,48 @@
+package org.policedog.registry.controller;
+
+import org.junit.jupiter.api.Test;
+import org.policedog.registry.domain.Gender;
+import org.policedog.registry.domain.LeavingReason;
+import org.policedog.registry.domain.Status;
+import org.policedog.registry.dto.DogStatsDto;
+import org.policedog.registry.service.DogStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = DogStatsController.class)
+@TestPropertySource(properties = {"spring.jpa.auditing.enabled=false"})
+class DogStatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private DogStatsService dogStatsService;
+
+    @Test
+    void shouldGetStats() throws Exception {
+        when(dogStatsService.getStats()).thenReturn(new DogStatsDto(3,
+                Map.of(Status.IN_SERVICE, 2L, Status.RETIRED, 1L),
+                Map.of(Gender.MALE, 3L),
+                Map.of(LeavingReason.DIED, 1L),
+                Map.of("ELITE_K9", 3L)));
+
+        mockMvc.perform(get("/api/dogs/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byStatus.IN_SERVICE").value(2))
+                .andExpect(jsonPath("$.byGender.MALE").value(3))
+                .andExpect(jsonPath("$.byLeavingReason.DIED").value(1))
+                .andExpect(jsonPath("$.bySupplier.ELITE_K9").value(3));
+    }
+}
@@ -0,0 +1,108 @@
+package org.policedog.registry.controller;
+
+import org.junit.jupiter.api.Test;
+import org.policedog.registry.domain.ImportStatus;
+import org.policedog.registry.domain.ImportType;
+import org.policedog.registry.dto.ImportJobDto;
+import org.policedog.registry.exception.ResourceNotFoundException;
+import org.policedog.registry.service.ImportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ImportJobController.class)
+@TestPropertySource(properties = {"spring.jpa.auditing.enabled=false"})
+class ImportJobControllerTest {
+
+    private static final String DOGS_CSV = """
+            name,breed,supplierCode,badgeNumber,gender,birthDate,status
+            Rex,German Shepherd,ELITE_K9,K9-IMPORT-1,MALE,2021-01-01,TRAINING
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ImportJobService importJobService;
+
+    @Test
+    void shouldAcceptDogImportAndReturnJobLocation() throws Exception {
+        when(importJobService.startImport(eq(ImportType.DOGS), any())).thenReturn(buildJob(ImportStatus.RUNNING));
+
+        mockMvc.perform(post("/api/dogs/imports/dogs")
+                        .contentType("text/csv")
+                        .content(DOGS_CSV))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/dogs/imports/7"))
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.type").value("DOGS"))
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenCsvHeaderIsMissingColumns() throws Exception {
+        when(importJobService.startImport(eq(ImportType.SUPPLIERS), any()))
+                .thenThrow(new IllegalArgumentException("CSV header is missing columns: code"));
+
+        mockMvc.perform(post("/api/dogs/imports/suppliers")
+                        .contentType("text/csv")
+                        .content("name\nElite\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("CSV header is missing columns: code"));
+    }
+
+    @Test
+    void shouldReturnJobProgressWithRowErrors() throws Exception {
+        ImportJobDto job = buildJob(ImportStatus.COMPLETED);
+        job.setTotalRows(3L);
+        job.setCommittedChunks(2);
+        job.setCreatedRows(2);
+        job.setFailedRows(1);
+        job.setRowErrors(List.of(new ImportJobDto.RowError(2, "Supplier with code NOPE not found")));
+        when(importJobService.getJob(7L)).thenReturn(job);
+
+        mockMvc.perform(get("/api/dogs/imports/{id}", 7))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.totalRows").value(3))
+                .andExpect(jsonPath("$.createdRows").value(2))
+                .andExpect(jsonPath("$.failedRows").value(1))
+                .andExpect(jsonPath("$.rowErrors[0].row").value(2))
+                .andExpect(jsonPath("$.rowErrors[0].message").value("Supplier with code NOPE not found"));
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownJob() throws Exception {
+        when(importJobService.getJob(99L)).thenThrow(new ResourceNotFoundException("Import job with ID 99 not found"));
+
+        mockMvc.perform(get("/api/dogs/imports/{id}", 99))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Import job with ID 99 not found"));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenResumingCompletedJob() throws Exception {
+        when(importJobService.resumeImport(7L)).thenThrow(new IllegalStateException("Import job 7 is already completed"));
+
+        mockMvc.perform(post("/api/dogs/imports/{id}/resume", 7))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Import job 7 is already completed"));
+    }
+
+    private static ImportJobDto buildJob(ImportStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        return new ImportJobDto(7L, ImportType.DOGS, status, null, 0, 0, 0, null, now, now, List.of());
+    }
+}
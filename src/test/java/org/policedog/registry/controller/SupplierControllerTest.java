@@ -2,14 +2,19 @@ package org.policedog.registry.controller;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.policedog.registry.dto.DogSummaryDto;
 import org.policedog.registry.dto.PageResponse;
 import org.policedog.registry.dto.SupplierDetailDto;
+import org.policedog.registry.dto.SupplierDogsView;
 import org.policedog.registry.dto.SupplierRequest;
+import org.policedog.registry.idempotency.IdempotencyStore;
 import org.policedog.registry.service.SupplierService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,15 +23,20 @@ import java.time.LocalDate;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.policedog.registry.domain.Gender.FEMALE;
 import static org.policedog.registry.domain.Gender.MALE;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = SupplierController.class)
+@Import({IdempotencyStore.class, SimpleMeterRegistry.class})
 @TestPropertySource(properties = {"spring.jpa.auditing.enabled=false"})
 class SupplierControllerTest {
 
@@ -44,7 +54,7 @@ class SupplierControllerTest {
     @Test
     void shouldGetSupplierById() throws Exception {
         SupplierDetailDto supplierDetailDto = buildValidSupplierDetailDto();
-        when(supplierService.getSupplierById(SUPPLIER_ID)).thenReturn(supplierDetailDto);
+        when(supplierService.getSupplierById(SUPPLIER_ID, SupplierDogsView.FULL)).thenReturn(supplierDetailDto);
 
         String supplierDetailDtoRetJson = mockMvc.perform(get("/api/dogs/supplier/{id}", SUPPLIER_ID))
                 .andExpect(status().isOk())
@@ -54,6 +64,57 @@ class SupplierControllerTest {
         assertEquals(supplierDetailDto, supplierDetailDtoRet);
     }
 
+    @Test
+    void shouldReturnNotModifiedForSupplierWithoutLoadingItWhenIfNoneMatchIsCurrent() throws Exception {
+        SupplierDetailDto supplierDetailDto = buildValidSupplierDetailDto();
+        supplierDetailDto.setDogs(null);
+        when(supplierService.getSupplierETag(SUPPLIER_ID, SupplierDogsView.NONE)).thenReturn("\"supplier-1-v2\"");
+        when(supplierService.getSupplierById(SUPPLIER_ID, SupplierDogsView.NONE)).thenReturn(supplierDetailDto);
+
+        mockMvc.perform(get("/api/dogs/supplier/{id}", SUPPLIER_ID)
+                        .queryParam("dogs", "NONE"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"supplier-1-v2\""));
+
+        mockMvc.perform(get("/api/dogs/supplier/{id}", SUPPLIER_ID)
+                        .queryParam("dogs", "NONE")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"supplier-1-v2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(supplierService, times(1)).getSupplierById(SUPPLIER_ID, SupplierDogsView.NONE);
+    }
+
+    @Test
+    void shouldGetSupplierByIdWithDogCountOnly() throws Exception {
+        SupplierDetailDto supplierDetailDto = buildValidSupplierDetailDto();
+        supplierDetailDto.setDogs(null);
+        supplierDetailDto.setDogCount(2L);
+        when(supplierService.getSupplierById(SUPPLIER_ID, SupplierDogsView.SUMMARY)).thenReturn(supplierDetailDto);
+
+        mockMvc.perform(get("/api/dogs/supplier/{id}", SUPPLIER_ID)
+                        .queryParam("dogs", "SUMMARY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dogCount").value(2))
+                .andExpect(jsonPath("$.dogs").doesNotExist());
+    }
+
+    @Test
+    void shouldGetSupplierDogsPage() throws Exception {
+        PageResponse<DogSummaryDto> page = new PageResponse<>(buildDogSummaryDtoList(),
+                PageResponse.PageMetadata.cursor(2, true, "next"));
+        when(supplierService.getSupplierDogs(SUPPLIER_ID, true, null, 2)).thenReturn(page);
+
+        mockMvc.perform(get("/api/dogs/supplier/{id}/dogs", SUPPLIER_ID)
+                        .queryParam("includeDeleted", "true")
+                        .queryParam("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()").value(2))
+                .andExpect(jsonPath("$.content[0].badgeNumber").value("K9-001"))
+                .andExpect(jsonPath("$.metadata.nextCursor").value("next"))
+                .andExpect(jsonPath("$.metadata.last").value(false));
+    }
+
     @Test
     void shouldGetSuppliersWhenPaginationParametersAreProvided() throws Exception {
         int pageNo = 1;
@@ -88,6 +149,20 @@ class SupplierControllerTest {
         assertEquals(expectedPageResponse, actualPageResponse);
     }
 
+    @Test
+    void shouldGetSuppliersSliceWhenTotalIsNotRequested() throws Exception {
+        PageResponse<SupplierDetailDto> expectedPageResponse = new PageResponse<>(List.of(buildValidSupplierDetailDto()),
+                PageResponse.PageMetadata.slice(0, 10, true, true));
+        when(supplierService.getSuppliersSlice(0, 10)).thenReturn(expectedPageResponse);
+
+        mockMvc.perform(get("/api/dogs/supplier")
+                        .queryParam("includeTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()").value(1))
+                .andExpect(jsonPath("$.metadata.last").value(true))
+                .andExpect(jsonPath("$.metadata.totalElements").doesNotExist());
+    }
+
     @Test
     void shouldReturnBadRequestWhenMandatoryFieldsAreMissingForSupplierCreate() throws Exception {
         SupplierRequest supplierRequest = new SupplierRequest();
@@ -0,0 +1,102 @@
+package org.policedog.registry.idempotency;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.policedog.registry.dto.DogDetailDto;
+import org.policedog.registry.exception.IdempotencyKeyInProgressException;
+import org.policedog.registry.exception.IdempotencyKeyReusedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private MeterRegistry meterRegistry;
+    private IdempotencyStore store;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new IdempotencyStore(Duration.ofHours(1), 100, JsonMapper.builder().findAndAddModules().build(), meterRegistry);
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    void shouldReplayTheStoredResponseWithoutRunningTheActionAgain() {
+        ResponseEntity<DogDetailDto> first = store.execute("key-1", "createDog", "Rex", DogDetailDto.class, this::create);
+        ResponseEntity<DogDetailDto> second = store.execute("key-1", "createDog", "Rex", DogDetailDto.class, this::create);
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.CREATED, second.getStatusCode());
+        assertEquals(first.getBody(), second.getBody());
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "idempotency", "result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void shouldRejectAKeyReusedForADifferentRequest() {
+        store.execute("key-1", "createDog", "Rex", DogDetailDto.class, this::create);
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> store.execute("key-1", "createDog", "Max", DogDetailDto.class, this::create));
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> store.execute("key-1", "retireDog", "Rex", DogDetailDto.class, this::create));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldRejectAKeyResentWhileItsRequestIsInProgress() {
+        ResponseEntity<DogDetailDto> response = store.execute("key-1", "createDog", "Rex", DogDetailDto.class, () -> {
+            assertThrows(IdempotencyKeyInProgressException.class,
+                    () -> store.execute("key-1", "createDog", "Rex", DogDetailDto.class, this::create));
+            return create();
+        });
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldReleaseTheKeyWhenTheRequestFails() {
+        assertThrows(IllegalStateException.class, () -> store.execute("key-1", "createDog", "Rex", DogDetailDto.class,
+                () -> {
+                    throw new IllegalStateException("Badge number already exists");
+                }));
+        store.execute("key-1", "createDog", "Rex", DogDetailDto.class,
+                () -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        store.execute("key-1", "createDog", "Rex", DogDetailDto.class, this::create);
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shouldRunTheActionEveryTimeWithoutAKey() {
+        store.execute(null, "createDog", "Rex", DogDetailDto.class, this::create);
+        store.execute(null, "createDog", "Rex", DogDetailDto.class, this::create);
+
+        assertEquals(2, calls.get());
+        assertThrows(IllegalArgumentException.class,
+                () -> store.execute(" ", "createDog", "Rex", DogDetailDto.class, this::create));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.execute("k".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1), "createDog", "Rex",
+                        DogDetailDto.class, this::create));
+    }
+
+    private ResponseEntity<DogDetailDto> create() {
+        DogDetailDto dog = new DogDetailDto();
+        dog.setId((long) calls.incrementAndGet());
+        dog.setName("Rex");
+        return ResponseEntity.status(HttpStatus.CREATED).body(dog);
+    }
+}
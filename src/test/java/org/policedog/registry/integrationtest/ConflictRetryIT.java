@@ -0,0 +1,135 @@
+package org.policedog.registry.integrationtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.domain.PoliceDog;
+import org.policedog.registry.dto.CreateDogRequest;
+import org.policedog.registry.dto.DogDetailDto;
+import org.policedog.registry.dto.RetireDogRequest;
+import org.policedog.registry.service.DogStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.policedog.registry.domain.Gender.FEMALE;
+import static org.policedog.registry.domain.LeavingReason.TRANSFERRED;
+import static org.policedog.registry.domain.Status.TRAINING;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs without a test transaction, so each retry of a conflicting retire runs in a transaction of its own.
+ * The conflicts are raised by the statistics spy, which the retire calls inside its transaction.
+ */
+@SpringBootTest(properties = {"registry.retry.initial-backoff=1ms", "registry.retry.max-backoff=2ms"})
+@AutoConfigureMockMvc
+class ConflictRetryIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PoliceDogRepository dogRepository;
+
+    @MockitoSpyBean
+    private DogStatsService dogStatsService;
+
+    private Long dogId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String created = mockMvc.perform(post("/api/dogs/dogs")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDogRequest())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        dogId = objectMapper.readValue(created, DogDetailDto.class).getId();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        reset(dogStatsService);
+        mockMvc.perform(delete("/api/dogs/dogs/{id}", dogId))
+                .andExpect(status().is2xxSuccessful());
+        dogRepository.deleteById(dogId);
+    }
+
+    @Test
+    void shouldRetryRetireAfterAConflictInANewTransaction() throws Exception {
+        double conflicts = count("registry.service.conflicts");
+        double retries = count("registry.service.retries");
+        doThrow(new ObjectOptimisticLockingFailureException(PoliceDog.class, dogId))
+                .doCallRealMethod()
+                .when(dogStatsService).dogChanged(any(), any());
+
+        retire()
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RETIRED"));
+
+        assertEquals(conflicts + 1, count("registry.service.conflicts"));
+        assertEquals(retries + 1, count("registry.service.retries"));
+    }
+
+    @Test
+    void shouldAnswerConflictOnceTheRetriesAreUsedUp() throws Exception {
+        double conflicts = count("registry.service.conflicts");
+        double retries = count("registry.service.retries");
+        doThrow(new ObjectOptimisticLockingFailureException(PoliceDog.class, dogId))
+                .when(dogStatsService).dogChanged(any(), any());
+
+        retire().andExpect(status().isConflict());
+
+        assertEquals(conflicts + 3, count("registry.service.conflicts"));
+        assertEquals(retries + 2, count("registry.service.retries"));
+        mockMvc.perform(get("/api/dogs/dogs/{id}", dogId))
+                .andExpect(jsonPath("$.status").value("TRAINING"));
+    }
+
+    private ResultActions retire() throws Exception {
+        return mockMvc.perform(post("/api/dogs/dogs/{id}/retire", dogId)
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RetireDogRequest(LocalDate.now(), TRANSFERRED))));
+    }
+
+    private double count(String name) {
+        Counter counter = meterRegistry.find(name)
+                .tags("service", "DogService", "operation", "retireDog")
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static CreateDogRequest createDogRequest() {
+        CreateDogRequest createDogRequest = new CreateDogRequest();
+        createDogRequest.setName("Scout");
+        createDogRequest.setBreed("Labrador");
+        createDogRequest.setSupplierCode("ALPHA_DOG");
+        createDogRequest.setBadgeNumber("K9-RETRY-1");
+        createDogRequest.setGender(FEMALE);
+        createDogRequest.setBirthDate(LocalDate.now().minusYears(1));
+        createDogRequest.setStatus(TRAINING);
+        return createDogRequest;
+    }
+}
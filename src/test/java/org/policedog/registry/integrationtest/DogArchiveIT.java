@@ -0,0 +1,211 @@
+package org.policedog.registry.integrationtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.policedog.registry.cache.DogDetailCache;
+import org.policedog.registry.dao.ArchivedDogRepository;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.dto.*;
+import org.policedog.registry.search.DogTextIndex;
+import org.policedog.registry.service.DogArchiveService;
+import org.policedog.registry.service.DogStatsService;
+import org.policedog.registry.service.DogStatsService.DogFacts;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.policedog.registry.domain.Gender.FEMALE;
+import static org.policedog.registry.domain.LeavingReason.TRANSFERRED;
+import static org.policedog.registry.domain.Status.RETIRED;
+import static org.policedog.registry.domain.Status.TRAINING;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs without a test transaction, as archiving commits batch by batch. The dogs it creates left or were
+ * deleted in 2000, so no other dog is older than the cutoff.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class DogArchiveIT {
+
+    private static final LocalDate LEFT_ON = LocalDate.of(2000, 1, 1);
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2001, 1, 1, 0, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DogArchiveService dogArchiveService;
+
+    @Autowired
+    private PoliceDogRepository dogRepository;
+
+    @Autowired
+    private ArchivedDogRepository archivedDogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DogStatsService dogStatsService;
+
+    @Autowired
+    private DogTextIndex dogTextIndex;
+
+    @Autowired
+    private DogDetailCache dogDetailCache;
+
+    private final List<Long> createdDogIds = new ArrayList<>();
+    private Long retiredDogId;
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : createdDogIds) {
+            jdbcTemplate.update("DELETE FROM police_dog_archive WHERE id = ?", id);
+            jdbcTemplate.update("DELETE FROM police_dog WHERE id = ?", id);
+            dogDetailCache.invalidate(id);
+        }
+        if (retiredDogId != null) {
+            // The retired dog is still counted, wherever it was removed from
+            dogStatsService.dogChanged(new DogFacts(RETIRED, FEMALE, TRANSFERRED, 2L, "ALPHA_DOG"), null);
+        }
+        dogTextIndex.rebuild();
+    }
+
+    @Test
+    void shouldMoveDogsThatLeftOrWereDeletedBeforeTheCutoff() throws Exception {
+        retiredDogId = createDog("Archie", "K9-ARCHIVE-1");
+        retireDog(retiredDogId);
+        Long deletedDogId = createDog("Ghost", "K9-ARCHIVE-2");
+        mockMvc.perform(delete("/api/dogs/dogs/{id}", deletedDogId))
+                .andExpect(status().is2xxSuccessful());
+        jdbcTemplate.update("UPDATE police_dog SET deleted_at = ? WHERE id = ?", LEFT_ON.atStartOfDay(), deletedDogId);
+        DogStatsDto statsBefore = getStats();
+
+        assertEquals(2, dogArchiveService.archiveDogs(CUTOFF));
+
+        assertAll(
+                () -> assertFalse(dogRepository.existsById(retiredDogId)),
+                () -> assertFalse(dogRepository.existsById(deletedDogId)),
+                () -> assertTrue(archivedDogRepository.existsById(retiredDogId)),
+                () -> assertTrue(archivedDogRepository.existsById(deletedDogId)),
+                () -> assertEquals(statsBefore, getStats())
+        );
+        mockMvc.perform(get("/api/dogs/dogs/{id}", retiredDogId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Archie"))
+                .andExpect(jsonPath("$.status").value("RETIRED"))
+                .andExpect(jsonPath("$.leavingDate").value("2000-01-01"));
+        mockMvc.perform(get("/api/dogs/dogs/{id}", deletedDogId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(true));
+    }
+
+    @Test
+    void shouldLeaveArchivedDogsOutOfTheRosterQueries() throws Exception {
+        retiredDogId = createDog("Archie", "K9-ARCHIVE-1");
+        retireDog(retiredDogId);
+
+        dogArchiveService.archiveDogs(CUTOFF);
+
+        PageResponse<DogDetailDto> retired = getPage(get("/api/dogs/dogs/search/by-status")
+                .queryParam("status", "RETIRED")
+                .queryParam("pageSize", "100"));
+        PageResponse<DogDetailDto> named = getPage(get("/api/dogs/dogs").queryParam("name", "Archie"));
+        assertAll(
+                () -> assertTrue(retired.getContent().stream().noneMatch(dog -> dog.getId().equals(retiredDogId))),
+                () -> assertTrue(named.getContent().isEmpty())
+        );
+    }
+
+    @Test
+    void shouldKeepArchivedDogsReadOnlyAndTheirBadgeNumbersTaken() throws Exception {
+        retiredDogId = createDog("Archie", "K9-ARCHIVE-1");
+        retireDog(retiredDogId);
+        dogArchiveService.archiveDogs(CUTOFF);
+
+        mockMvc.perform(delete("/api/dogs/dogs/{id}", retiredDogId))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/dogs/dogs")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDogRequest("Archie", "K9-ARCHIVE-1"))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/dogs/dogs/bulk")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createDogRequest("Archie", "K9-ARCHIVE-1")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(0))
+                .andExpect(jsonPath("$.results[0].error").value("Dog with badge number K9-ARCHIVE-1 already exists"));
+    }
+
+    @Test
+    void shouldNotArchiveDogsLeftAfterTheCutoff() throws Exception {
+        retiredDogId = createDog("Archie", "K9-ARCHIVE-1");
+        retireDog(retiredDogId);
+
+        assertEquals(0, dogArchiveService.archiveDogs(LEFT_ON.atStartOfDay()));
+        assertTrue(dogRepository.existsById(retiredDogId));
+    }
+
+    private Long createDog(String name, String badgeNumber) throws Exception {
+        String created = mockMvc.perform(post("/api/dogs/dogs")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDogRequest(name, badgeNumber))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readValue(created, DogDetailDto.class).getId();
+        createdDogIds.add(id);
+        return id;
+    }
+
+    private void retireDog(Long id) throws Exception {
+        mockMvc.perform(post("/api/dogs/dogs/{id}/retire", id)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RetireDogRequest(LEFT_ON, TRANSFERRED))))
+                .andExpect(status().isOk());
+    }
+
+    private PageResponse<DogDetailDto> getPage(RequestBuilder request) throws Exception {
+        String json = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, new TypeReference<>() {
+        });
+    }
+
+    private DogStatsDto getStats() throws Exception {
+        String json = mockMvc.perform(get("/api/dogs/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, DogStatsDto.class);
+    }
+
+    private static CreateDogRequest createDogRequest(String name, String badgeNumber) {
+        CreateDogRequest createDogRequest = new CreateDogRequest();
+        createDogRequest.setName(name);
+        createDogRequest.setBreed("Labrador");
+        createDogRequest.setSupplierCode("ALPHA_DOG");
+        createDogRequest.setBadgeNumber(badgeNumber);
+        createDogRequest.setGender(FEMALE);
+        createDogRequest.setBirthDate(LocalDate.now().minusYears(1));
+        createDogRequest.setStatus(TRAINING);
+        return createDogRequest;
+    }
+}
@@ -13,22 +13,26 @@ import org.policedog.registry.dto.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.policedog.registry.domain.Gender.MALE;
 import static org.policedog.registry.domain.LeavingReason.RETIRED_PUT_DOWN;
 import static org.policedog.registry.domain.LeavingReason.TRANSFERRED;
+import static org.policedog.registry.domain.Status.IN_SERVICE;
 import static org.policedog.registry.domain.Status.RETIRED;
 import static org.policedog.registry.domain.Status.TRAINING;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -312,6 +316,108 @@ class DogControllerIT {
         });
     }
 
+    @Test
+    void shouldGetDogsSliceWithoutTotals() throws Exception {
+        String responseJson = mockMvc.perform(get("/api/dogs/dogs")
+                        .queryParam("pageNo", "1")
+                        .queryParam("pageSize", "5")
+                        .queryParam("includeTotal", "false")
+                        .accept(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        PageResponse<DogDetailDto> pageResponse =
+                objectMapper.readValue(responseJson, new TypeReference<PageResponse<DogDetailDto>>() {
+                });
+
+        assertAll(() -> {
+            assertEquals(5, pageResponse.getContent().size());
+            assertEquals(1, pageResponse.getMetadata().getPage());
+            assertNull(pageResponse.getMetadata().getTotalElements());
+            assertNull(pageResponse.getMetadata().getTotalPages());
+            assertFalse(pageResponse.getMetadata().isFirst());
+            assertTrue(pageResponse.getMetadata().isLast());
+        });
+    }
+
+    @Test
+    void shouldGetDogsTotalReflectNewDog() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs").accept(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.metadata.totalElements").value(10));
+
+        mockMvc.perform(post("/api/dogs/dogs")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(buildValidCreateDogRequest())))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/dogs/dogs").accept(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.metadata.totalElements").value(11));
+    }
+
+    @Test
+    void shouldGetDogsByCursorWalkAllActiveDogsInIdOrder() throws Exception {
+        List<DogDetailDto> dogs = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/api/dogs/dogs/cursor")
+                    .queryParam("pageSize", "4")
+                    .accept(APPLICATION_JSON);
+            if (cursor != null) {
+                request.queryParam("cursor", cursor);
+            }
+            String responseJson = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            PageResponse<DogDetailDto> pageResponse =
+                    objectMapper.readValue(responseJson, new TypeReference<PageResponse<DogDetailDto>>() {
+                    });
+            assertNull(pageResponse.getMetadata().getTotalElements());
+            assertEquals(pages == 0, pageResponse.getMetadata().isFirst());
+            dogs.addAll(pageResponse.getContent());
+            cursor = pageResponse.getMetadata().getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(10, dogs.size());
+        List<Long> ids = dogs.stream().map(DogDetailDto::getId).toList();
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertDeletedDogIsNotInTheList(dogs);
+    }
+
+    @Test
+    void shouldGetDogsByCursorApplyFilter() throws Exception {
+        String responseJson = mockMvc.perform(get("/api/dogs/dogs/cursor")
+                        .queryParam("filter", "{\"supplierCode\":\"ELITE_K9\"}")
+                        .queryParam("pageSize", "10")
+                        .accept(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        PageResponse<DogDetailDto> pageResponse =
+                objectMapper.readValue(responseJson, new TypeReference<PageResponse<DogDetailDto>>() {
+                });
+
+        assertAll(() -> {
+            assertEquals(4, pageResponse.getContent().size());
+            assertTrue(pageResponse.getMetadata().isFirst());
+            assertTrue(pageResponse.getMetadata().isLast());
+            assertNull(pageResponse.getMetadata().getNextCursor());
+        });
+    }
+
+    @Test
+    void shouldRejectPageSizeAboveLimit() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs")
+                        .queryParam("pageSize", "101"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$").value("Page size must be between 1 and 100"));
+    }
+
     @Test
     void shouldDeleteAnActiveDogById() throws Exception {
         long dogIdToDelete = 4; // Luna -- Dog with status TRAINING
@@ -466,6 +572,100 @@ class DogControllerIT {
         });
     }
 
+    @Test
+    void shouldReturnUpdatedDogAfterEarlierReadWasCached() throws Exception {
+        long dogIdToUpdate = 4; // Luna -- Active dog
+        mockMvc.perform(get("/api/dogs/dogs/{id}", dogIdToUpdate))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Luna"));
+
+        mockMvc.perform(put("/api/dogs/dogs/{id}", dogIdToUpdate)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(buildValidUpdateDogRequest())))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/dogs/dogs/{id}", dogIdToUpdate))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Rex Updated"))
+                .andExpect(jsonPath("$.supplier.code").value("ELITE_K9"));
+    }
+
+    @Test
+    void shouldReturnUpdatedSupplierOfDogAfterEarlierReadWasCached() throws Exception {
+        long dogId = 7; // Rex -- supplied by ELITE_K9 (1)
+        mockMvc.perform(get("/api/dogs/dogs/{id}", dogId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.supplier.name").value("Elite K9 Training Center"));
+
+        SupplierRequest supplierRequest = new SupplierRequest("ELITE_K9", "Elite K9 Academy", "John Smith", "john@elitek9.com", "555-0101");
+        mockMvc.perform(put("/api/dogs/supplier/{id}", 1)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(supplierRequest)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/dogs/dogs/{id}", dogId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.supplier.name").value("Elite K9 Academy"));
+    }
+
+    @Test
+    void shouldRevalidateDogWithETagAndRejectStaleIfMatch() throws Exception {
+        long dogIdToUpdate = 4; // Luna -- Active dog, version 1
+        String eTag = mockMvc.perform(get("/api/dogs/dogs/{id}", dogIdToUpdate))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"dog-4-v1-s2-v1\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/dogs/dogs/{id}", dogIdToUpdate)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/dogs/dogs/{id}", dogIdToUpdate)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(buildValidUpdateDogRequest())))
+                .andExpect(status().isOk());
+
+        // The first update bumped the version, so a second write based on the same ETag is stale
+        RetireDogRequest retireDogRequest = new RetireDogRequest();
+        retireDogRequest.setLeavingReason(TRANSFERRED);
+        retireDogRequest.setLeavingDate(LocalDate.now());
+        mockMvc.perform(post("/api/dogs/dogs/{id}/retire", dogIdToUpdate)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(retireDogRequest)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$").value("Dog with ID 4 has been modified"));
+
+        mockMvc.perform(get("/api/dogs/dogs/{id}", dogIdToUpdate)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"dog-4-v2-s1-v1\""))
+                .andExpect(jsonPath("$.status").value("TRAINING"));
+    }
+
+    @Test
+    void shouldRevalidateDogWithNewETagAfterItsSupplierChanges() throws Exception {
+        long dogId = 9; // Molly -- supplied by ALPHA_DOG (2)
+        String eTag = mockMvc.perform(get("/api/dogs/dogs/{id}", dogId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"dog-9-v1-s2-v1\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        SupplierRequest supplierRequest = new SupplierRequest("ALPHA_DOG", "Alpha Dog Kennels", "Jane Doe", "jane@alphadog.com", "555-0102");
+        mockMvc.perform(put("/api/dogs/supplier/{id}", 2)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(supplierRequest)))
+                .andExpect(status().isOk());
+
+        // The dog's own version is unchanged, but the supplier details it embeds are not
+        mockMvc.perform(get("/api/dogs/dogs/{id}", dogId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"dog-9-v1-s2-v2\""))
+                .andExpect(jsonPath("$.supplier.name").value("Alpha Dog Kennels"));
+    }
+
     @Test
     void shouldThrowErrorWhenRetiringNonExistentDog() throws Exception {
         long nonExistentDogId = 9999;
@@ -517,30 +717,38 @@ class DogControllerIT {
         });
     }
 
-    @ParameterizedTest(name = "Gender {0} should have {1} dogs")
+    @ParameterizedTest(name = "Gender {0} (includeDeleted={1}) should have {2} dogs")
     @CsvSource({
-            "MALE, 5",
-            "FEMALE, 6"
+            "MALE, false, 5",
+            "FEMALE, false, 5",
+            "FEMALE, true, 6"
     })
-    void shouldGetDogsByGender(Gender gender, int expectedCount) throws Exception {
+    void shouldGetDogsByGender(Gender gender, boolean includeDeleted, int expectedCount) throws Exception {
         mockMvc.perform(get("/api/dogs/dogs/search/by-gender")
-                        .queryParam("gender", gender.name()))
+                        .queryParam("gender", gender.name())
+                        .queryParam("includeDeleted", String.valueOf(includeDeleted))
+                        .queryParam("pageSize", "100"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.size()").value(expectedCount));
+                .andExpect(jsonPath("$.content.size()").value(expectedCount))
+                .andExpect(jsonPath("$.metadata.last").value(true));
     }
 
-    @ParameterizedTest(name = "Status {0} should have {1} dogs")
+    @ParameterizedTest(name = "Status {0} (includeDeleted={1}) should have {2} dogs")
     @CsvSource({
-            "TRAINING, 3",
-            "IN_SERVICE, 6",
-            "RETIRED, 1",
-            "LEFT, 1"
+            "TRAINING, false, 3",
+            "IN_SERVICE, false, 5",
+            "IN_SERVICE, true, 6",
+            "RETIRED, false, 1",
+            "LEFT, false, 1"
     })
-    void shouldGetDogsByStatus(Status status, int expectedCount) throws Exception {
+    void shouldGetDogsByStatus(Status status, boolean includeDeleted, int expectedCount) throws Exception {
         mockMvc.perform(get("/api/dogs/dogs/search/by-status")
-                        .queryParam("status", status.name()))
+                        .queryParam("status", status.name())
+                        .queryParam("includeDeleted", String.valueOf(includeDeleted))
+                        .queryParam("pageSize", "100"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.size()").value(expectedCount));
+                .andExpect(jsonPath("$.content.size()").value(expectedCount))
+                .andExpect(jsonPath("$.metadata.last").value(true));
     }
 
     @ParameterizedTest(name = "LeavingReason {0} should have {1} dogs")
@@ -556,7 +764,126 @@ class DogControllerIT {
         mockMvc.perform(get("/api/dogs/dogs/search/by-leaving-reason")
                         .queryParam("leavingReason", leavingReason.name()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.size()").value(expectedCount));
+                .andExpect(jsonPath("$.content.size()").value(expectedCount));
+    }
+
+    @Test
+    void shouldGetDogsByStatusWalkPagesWithCursor() throws Exception {
+        List<DogDetailDto> dogs = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/api/dogs/dogs/search/by-status")
+                    .queryParam("status", IN_SERVICE.name())
+                    .queryParam("pageSize", "2")
+                    .accept(APPLICATION_JSON);
+            if (cursor != null) {
+                request.queryParam("cursor", cursor);
+            }
+            String responseJson = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            PageResponse<DogDetailDto> pageResponse =
+                    objectMapper.readValue(responseJson, new TypeReference<PageResponse<DogDetailDto>>() {
+                    });
+            dogs.addAll(pageResponse.getContent());
+            cursor = pageResponse.getMetadata().getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(5, dogs.size());
+        List<Long> ids = dogs.stream().map(DogDetailDto::getId).toList();
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertDeletedDogIsNotInTheList(dogs);
+    }
+
+    @Test
+    void shouldGetDogsByStatusErrorWhenPageSizeExceedsLimit() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs/search/by-status")
+                        .queryParam("status", IN_SERVICE.name())
+                        .queryParam("pageSize", "101"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$").value("Page size must be between 1 and 100"));
+    }
+
+    @Test
+    void shouldCreateDogsInBulkAndReportFailuresPerItem() throws Exception {
+        CreateDogRequest first = buildValidCreateDogRequest();
+        first.setBadgeNumber("BULK-1");
+        CreateDogRequest existingBadge = buildValidCreateDogRequest();
+        existingBadge.setBadgeNumber("K9-005");
+        CreateDogRequest unknownSupplier = buildValidCreateDogRequest();
+        unknownSupplier.setBadgeNumber("BULK-2");
+        unknownSupplier.setSupplierCode("NO_SUCH_SUPPLIER");
+        CreateDogRequest second = buildValidCreateDogRequest();
+        second.setBadgeNumber("BULK-3");
+
+        String responseJson = mockMvc.perform(post("/api/dogs/dogs/bulk")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(first, existingBadge, unknownSupplier, second))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        BulkCreateDogResponse response = objectMapper.readValue(responseJson, BulkCreateDogResponse.class);
+        List<BulkItemResult> results = response.getResults();
+        assertAll(
+                () -> assertEquals(2, response.getCreated()),
+                () -> assertEquals(2, response.getFailed()),
+                () -> assertEquals(BulkItemResult.Outcome.CREATED, results.get(0).getOutcome()),
+                () -> assertEquals(DOG_BADGE_NUMBER_EXISTS_MESSAGE.formatted("K9-005"), results.get(1).getError()),
+                () -> assertEquals(SUPPLIER_NOT_FOUND_MESSAGE.formatted("NO_SUCH_SUPPLIER"), results.get(2).getError()),
+                () -> assertEquals(BulkItemResult.Outcome.CREATED, results.get(3).getOutcome())
+        );
+
+        mockMvc.perform(get("/api/dogs/dogs/{id}", results.get(3).getId())
+                        .accept(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.badgeNumber").value("BULK-3"))
+                .andExpect(jsonPath("$.supplier.code").value(first.getSupplierCode()));
+    }
+
+    @Test
+    void shouldExportActiveDogsAsNdjson() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get("/api/dogs/dogs/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String responseBody = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<DogDetailDto> dogs = new ArrayList<>();
+        for (String line : responseBody.split("\n")) {
+            dogs.add(objectMapper.readValue(line, DogDetailDto.class));
+        }
+        assertEquals(10, dogs.size());
+        List<Long> ids = dogs.stream().map(DogDetailDto::getId).toList();
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertDeletedDogIsNotInTheList(dogs);
+        assertTrue(dogs.stream().allMatch(dog -> dog.getSupplier() != null));
+    }
+
+    @Test
+    void shouldExportAllDogsIncludingDeletedAsCsv() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get("/api/dogs/dogs/export")
+                        .queryParam("format", "CSV")
+                        .queryParam("includeDeleted", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String responseBody = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = responseBody.split("\r\n");
+        assertAll(
+                () -> assertEquals(12, lines.length),
+                () -> assertTrue(lines[0].startsWith("id,name,breed,supplierCode")),
+                () -> assertTrue(lines[1].startsWith("1,Bella,Dutch Shepherd,BRAVO_CANINES,"))
+        );
     }
 
     private void assertDeletedDogIsNotInTheList(List<DogDetailDto> content) {
@@ -0,0 +1,167 @@
+package org.policedog.registry.integrationtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.policedog.registry.dto.DogDetailDto;
+import org.policedog.registry.dto.PageResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Typed filters of the dog list against the test data, and the SQL they produce.
+ */
+@SpringBootTest(properties = RecordingStatementInspector.PROPERTY)
+@AutoConfigureMockMvc
+@Transactional
+class DogSearchIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void shouldFilterByStatusAndGender() throws Exception {
+        assertEquals(List.of(9L, 11L), dogIds(get("/api/dogs/dogs")
+                .queryParam("status", "IN_SERVICE")
+                .queryParam("gender", "FEMALE")));
+    }
+
+    @Test
+    void shouldFilterByLeavingReason() throws Exception {
+        assertEquals(List.of(2L), dogIds(get("/api/dogs/dogs")
+                .queryParam("leavingReason", "RETIRED_PUT_DOWN")));
+    }
+
+    @Test
+    void shouldFilterByOpenEndedDateRange() throws Exception {
+        assertEquals(List.of(4L, 5L, 6L), dogIds(get("/api/dogs/dogs")
+                .queryParam("dateAcquiredFrom", "2021-01-01")));
+    }
+
+    @Test
+    void shouldFilterByInclusiveDateRange() throws Exception {
+        assertEquals(List.of(2L, 6L, 7L), dogIds(get("/api/dogs/dogs")
+                .queryParam("birthDateFrom", "2020-02-14")
+                .queryParam("birthDateTo", "2020-09-22")));
+    }
+
+    @Test
+    void shouldSortPageByRequestedField() throws Exception {
+        assertEquals(List.of(6L, 11L, 5L), dogIds(get("/api/dogs/dogs")
+                .queryParam("sort", "NAME")
+                .queryParam("direction", "DESC")
+                .queryParam("pageSize", "3")));
+    }
+
+    @Test
+    void shouldApplyTypedFiltersToCursorPages() throws Exception {
+        assertEquals(List.of(4L, 5L, 6L), dogIds(get("/api/dogs/dogs/cursor")
+                .queryParam("status", "TRAINING")));
+    }
+
+    @Test
+    void shouldOnlyEmitPredicatesOfFiltersPresent() throws Exception {
+        dogIds(get("/api/dogs/dogs")
+                .queryParam("status", "TRAINING")
+                .queryParam("includeTotal", "false"));
+
+        String sql = RecordingStatementInspector.STATEMENTS.stream()
+                .filter(statement -> statement.contains("police_dog"))
+                .findFirst()
+                .orElseThrow()
+                .toLowerCase();
+        assertTrue(sql.contains("status=?"), sql);
+        assertFalse(sql.contains(" like "), sql);
+        assertFalse(sql.contains("is null"), sql);
+    }
+
+    @Test
+    void shouldCountWithoutSupplierJoinUnlessSupplierCodeIsFiltered() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs").queryParam("gender", "MALE").accept(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.metadata.totalElements").value(5));
+
+        String count = RecordingStatementInspector.STATEMENTS.stream()
+                .filter(statement -> statement.toLowerCase().contains("count("))
+                .findFirst()
+                .orElseThrow()
+                .toLowerCase();
+        assertFalse(count.contains("supplier"), count);
+    }
+
+    @Test
+    void shouldResolveNameFilterToCandidateIdsFromTextIndex() throws Exception {
+        assertEquals(List.of(5L), dogIds(get("/api/dogs/dogs")
+                .queryParam("name", "ock")
+                .queryParam("includeTotal", "false")));
+
+        String sql = RecordingStatementInspector.STATEMENTS.stream()
+                .filter(statement -> statement.contains("police_dog"))
+                .findFirst()
+                .orElseThrow()
+                .toLowerCase();
+        assertTrue(sql.contains(".id in ("), sql);
+        assertTrue(sql.contains(" like "), sql);
+    }
+
+    @Test
+    void shouldMatchShortNameTermWithoutTextIndex() throws Exception {
+        assertEquals(List.of(5L), dogIds(get("/api/dogs/dogs")
+                .queryParam("name", "ky")
+                .queryParam("includeTotal", "false")));
+
+        String sql = RecordingStatementInspector.STATEMENTS.stream()
+                .filter(statement -> statement.contains("police_dog"))
+                .findFirst()
+                .orElseThrow()
+                .toLowerCase();
+        assertFalse(sql.contains(".id in ("), sql);
+    }
+
+    @Test
+    void shouldRejectJsonFilterCombinedWithTypedFilters() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs")
+                        .queryParam("filter", "{\"name\":\"Rex\"}")
+                        .queryParam("status", "IN_SERVICE"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$").value("The filter parameter cannot be combined with the other filter parameters"));
+    }
+
+    @Test
+    void shouldRejectUnknownStatus() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs")
+                        .queryParam("status", "ON_HOLIDAY"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.status").exists());
+    }
+
+    private List<Long> dogIds(MockHttpServletRequestBuilder request) throws Exception {
+        String json = mockMvc.perform(request.accept(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        PageResponse<DogDetailDto> page = objectMapper.readValue(json, new TypeReference<>() {
+        });
+        return page.getContent().stream().map(DogDetailDto::getId).toList();
+    }
+}
@@ -0,0 +1,132 @@
+package org.policedog.registry.integrationtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.dto.CreateDogRequest;
+import org.policedog.registry.dto.DogDetailDto;
+import org.policedog.registry.dto.DogStatsDto;
+import org.policedog.registry.dto.RetireDogRequest;
+import org.policedog.registry.dto.SearchFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.policedog.registry.domain.Gender.FEMALE;
+import static org.policedog.registry.domain.LeavingReason.TRANSFERRED;
+import static org.policedog.registry.domain.Status.RETIRED;
+import static org.policedog.registry.domain.Status.TRAINING;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs without a test transaction, so the writes commit and move the in-memory counters.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class DogStatsIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PoliceDogRepository dogRepository;
+
+    private Long createdDogId;
+
+    @AfterEach
+    void tearDown() {
+        if (createdDogId != null) {
+            dogRepository.deleteById(createdDogId);
+        }
+    }
+
+    @Test
+    void shouldMatchDatabaseCounts() throws Exception {
+        DogStatsDto stats = getStats();
+
+        assertEquals(dogRepository.countDogs(new SearchFilter(), null), stats.getTotal());
+        assertEquals(stats.getTotal(), stats.getByStatus().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(stats.getTotal(), stats.getByGender().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(dogRepository.countBySupplierIdAndDeletedFalse(1L), stats.getBySupplier().get("ELITE_K9"));
+    }
+
+    @Test
+    void shouldFollowDogThroughCreateRetireAndDelete() throws Exception {
+        DogStatsDto initial = getStats();
+
+        String created = mockMvc.perform(post("/api/dogs/dogs")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDogRequest())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        createdDogId = objectMapper.readValue(created, DogDetailDto.class).getId();
+
+        DogStatsDto afterCreate = getStats();
+        assertEquals(initial.getTotal() + 1, afterCreate.getTotal());
+        assertEquals(initial.getByStatus().get(TRAINING) + 1, afterCreate.getByStatus().get(TRAINING));
+        assertEquals(initial.getByGender().get(FEMALE) + 1, afterCreate.getByGender().get(FEMALE));
+        assertEquals(initial.getBySupplier().get("ALPHA_DOG") + 1, afterCreate.getBySupplier().get("ALPHA_DOG"));
+
+        RetireDogRequest retireDogRequest = new RetireDogRequest();
+        retireDogRequest.setLeavingReason(TRANSFERRED);
+        retireDogRequest.setLeavingDate(LocalDate.now());
+        mockMvc.perform(post("/api/dogs/dogs/{id}/retire", createdDogId)
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(retireDogRequest)))
+                .andExpect(status().isOk());
+
+        DogStatsDto afterRetire = getStats();
+        assertEquals(initial.getTotal() + 1, afterRetire.getTotal());
+        assertEquals(initial.getByStatus().get(TRAINING), afterRetire.getByStatus().get(TRAINING));
+        assertEquals(initial.getByStatus().get(RETIRED) + 1, afterRetire.getByStatus().get(RETIRED));
+        assertEquals(initial.getByLeavingReason().get(TRANSFERRED) + 1, afterRetire.getByLeavingReason().get(TRANSFERRED));
+
+        mockMvc.perform(delete("/api/dogs/dogs/{id}", createdDogId))
+                .andExpect(status().is2xxSuccessful());
+
+        assertEquals(initial, getStats());
+    }
+
+    @Test
+    void shouldNotCountRejectedCreate() throws Exception {
+        DogStatsDto initial = getStats();
+        CreateDogRequest duplicateBadge = createDogRequest();
+        duplicateBadge.setBadgeNumber("K9-001");
+
+        mockMvc.perform(post("/api/dogs/dogs")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(duplicateBadge)))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(initial, getStats());
+    }
+
+    private DogStatsDto getStats() throws Exception {
+        String json = mockMvc.perform(get("/api/dogs/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, DogStatsDto.class);
+    }
+
+    private static CreateDogRequest createDogRequest() {
+        CreateDogRequest createDogRequest = new CreateDogRequest();
+        createDogRequest.setName("Nova");
+        createDogRequest.setBreed("Labrador");
+        createDogRequest.setSupplierCode("ALPHA_DOG");
+        createDogRequest.setBadgeNumber("K9-STATS-1");
+        createDogRequest.setGender(FEMALE);
+        createDogRequest.setBirthDate(LocalDate.now().minusYears(1));
+        createDogRequest.setStatus(TRAINING);
+        return createDogRequest;
+    }
+}
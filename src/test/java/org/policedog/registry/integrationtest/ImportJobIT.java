@@ -0,0 +1,170 @@
+package org.policedog.registry.integrationtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.policedog.registry.dao.ImportChunkRepository;
+import org.policedog.registry.dao.ImportJobRepository;
+import org.policedog.registry.domain.ImportChunk;
+import org.policedog.registry.domain.ImportJob;
+import org.policedog.registry.domain.ImportStatus;
+import org.policedog.registry.domain.ImportType;
+import org.policedog.registry.dto.ImportJobDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Imports run on their own threads and commit chunk by chunk, so this test cannot roll back in a test
+ * transaction; it removes the imported rows itself.
+ */
+@SpringBootTest(properties = {"registry.import.chunk-size=2", "registry.import.parallelism=2"})
+@AutoConfigureMockMvc
+class ImportJobIT {
+
+    private static final String DOGS_CSV = """
+            name,breed,supplierCode,badgeNumber,gender,birthDate,status,temperament
+            Import One,German Shepherd,ELITE_K9,IMP-1,MALE,2021-01-01,TRAINING,Calm
+            Import Two,"Malinois, Belgian",ALPHA_DOG,IMP-2,FEMALE,2021-02-01,IN_SERVICE,
+            Import Three,Labrador,ELITE_K9,IMP-3,MALE,2021-03-01,TRAINING,
+            Import Four,Labrador,ELITE_K9,IMP-3,MALE,2021-04-01,TRAINING,
+            Import Five,Labrador,UNKNOWN,IMP-5,MALE,2021-05-01,TRAINING,
+            Import Six,Labrador,ELITE_K9,IMP-6,NEUTRAL,2021-06-01,TRAINING,
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private ImportChunkRepository importChunkRepository;
+
+    @AfterEach
+    void removeImportedRows() {
+        jdbcTemplate.update("DELETE FROM police_dog WHERE badge_number LIKE 'IMP-%'");
+        jdbcTemplate.update("DELETE FROM supplier WHERE code LIKE 'IMP_%'");
+        jdbcTemplate.update("DELETE FROM import_row_error");
+        jdbcTemplate.update("DELETE FROM import_chunk");
+        jdbcTemplate.update("DELETE FROM import_job");
+    }
+
+    @Test
+    void shouldImportDogsInChunksAndReportRejectedRows() throws Exception {
+        ImportJobDto job = start("/api/dogs/imports/dogs", DOGS_CSV);
+
+        ImportJobDto finished = awaitFinished(job.getId());
+        assertEquals(ImportStatus.COMPLETED, finished.getStatus());
+        assertEquals(6L, finished.getTotalRows());
+        assertEquals(3, finished.getCommittedChunks());
+        assertEquals(3, finished.getCreatedRows());
+        assertEquals(3, finished.getFailedRows());
+        assertEquals(List.of(4L, 5L, 6L), finished.getRowErrors().stream().map(ImportJobDto.RowError::getRow).toList());
+        assertEquals("Dog with badge number IMP-3 already exists", finished.getRowErrors().get(0).getMessage());
+        assertEquals("Supplier with code UNKNOWN not found", finished.getRowErrors().get(1).getMessage());
+        assertEquals("Invalid gender: NEUTRAL", finished.getRowErrors().get(2).getMessage());
+
+        assertEquals("Malinois, Belgian", jdbcTemplate.queryForObject(
+                "SELECT breed FROM police_dog WHERE badge_number = 'IMP-2'", String.class));
+    }
+
+    @Test
+    void shouldImportSuppliersAndRejectDuplicateCodes() throws Exception {
+        ImportJobDto job = start("/api/dogs/imports/suppliers", """
+                code,name,contactPerson,email,phone
+                IMP_ONE,Import One,Jane,jane@example.com,0123
+                ELITE_K9,Duplicate,,,
+                IMP_TWO,Import Two,,,
+                """);
+
+        ImportJobDto finished = awaitFinished(job.getId());
+        assertEquals(ImportStatus.COMPLETED, finished.getStatus());
+        assertEquals(2, finished.getCreatedRows());
+        assertEquals(1, finished.getFailedRows());
+        assertEquals("Supplier with code ELITE_K9 already exists", finished.getRowErrors().get(0).getMessage());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM supplier WHERE code LIKE 'IMP_%'", Integer.class));
+    }
+
+    @Test
+    void shouldRejectCsvWithoutRequiredColumns() throws Exception {
+        mockMvc.perform(post("/api/dogs/imports/dogs")
+                        .contentType("text/csv")
+                        .content("name,breed\nRex,Labrador\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldResumeFailedJobSkippingCommittedChunks() throws Exception {
+        Path file = Files.createTempFile("dogs-", ".csv");
+        Files.writeString(file, DOGS_CSV);
+        ImportJob failedJob = new ImportJob();
+        failedJob.setType(ImportType.DOGS);
+        failedJob.setStatus(ImportStatus.FAILED);
+        failedJob.setFilePath(file.toString());
+        failedJob.setChunkSize(2);
+        failedJob.setError("SQLException: connection lost");
+        failedJob.setCreatedAt(LocalDateTime.now());
+        failedJob.setUpdatedAt(failedJob.getCreatedAt());
+        Long jobId = importJobRepository.save(failedJob).getId();
+        // The first chunk (rows 1 and 2) was committed by the failed run, its dogs are not re-created
+        importChunkRepository.save(new ImportChunk(jobId, 0, 1, 2, 0));
+
+        mockMvc.perform(post("/api/dogs/imports/{id}/resume", jobId))
+                .andExpect(status().isAccepted());
+
+        ImportJobDto finished = awaitFinished(jobId);
+        assertEquals(ImportStatus.COMPLETED, finished.getStatus());
+        assertNull(finished.getError());
+        assertEquals(3, finished.getCommittedChunks());
+        assertEquals(3, finished.getCreatedRows());
+        assertEquals(List.of(4L, 5L, 6L), finished.getRowErrors().stream().map(ImportJobDto.RowError::getRow).toList());
+        assertEquals(List.of("IMP-3"), jdbcTemplate.queryForList(
+                "SELECT badge_number FROM police_dog WHERE badge_number LIKE 'IMP-%'", String.class));
+        assertFalse(Files.exists(file));
+
+        mockMvc.perform(post("/api/dogs/imports/{id}/resume", jobId))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ImportJobDto start(String path, String csv) throws Exception {
+        String response = mockMvc.perform(post(path)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, ImportJobDto.class);
+    }
+
+    private ImportJobDto awaitFinished(Long jobId) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String response = mockMvc.perform(get("/api/dogs/imports/{id}", jobId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            ImportJobDto job = objectMapper.readValue(response, ImportJobDto.class);
+            if (job.getStatus() != ImportStatus.RUNNING) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        return fail("Import job " + jobId + " did not finish");
+    }
+}
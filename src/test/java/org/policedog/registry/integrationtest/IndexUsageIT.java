@@ -0,0 +1,196 @@
+package org.policedog.registry.integrationtest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.policedog.registry.dao.ArchivedDogRepository;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.dao.SupplierRepository;
+import org.policedog.registry.domain.Gender;
+import org.policedog.registry.domain.LeavingReason;
+import org.policedog.registry.domain.Status;
+import org.policedog.registry.dto.DogSortField;
+import org.policedog.registry.dto.SearchFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the registry's dog and supplier queries and asks HSQLDB for the plan of the SQL each one produced,
+ * so a query that stops matching the indexes of the migrations fails here rather than in production.
+ */
+@SpringBootTest(properties = RecordingStatementInspector.PROPERTY)
+@Transactional
+class IndexUsageIT {
+
+    @Autowired
+    private PoliceDogRepository policeDogRepository;
+
+    @Autowired
+    private ArchivedDogRepository archivedDogRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void shouldReadDogByPrimaryKey() throws SQLException {
+        policeDogRepository.findDogDetailById(3L);
+        policeDogRepository.findVersionById(3L);
+
+        assertPlansUse("PK_POLICE_DOG");
+    }
+
+    @Test
+    void shouldCheckBadgeNumbersOnTheirUniqueIndex() throws SQLException {
+        policeDogRepository.existsByBadgeNumber("K9-003");
+        policeDogRepository.findExistingBadgeNumbers(Set.of("K9-003", "K9-999"));
+
+        assertPlansUse("UK_POLICE_DOG_BADGE_NUMBER");
+    }
+
+    @Test
+    void shouldReadArchivedDogsOnTheirKeys() throws SQLException {
+        archivedDogRepository.findDogDetailById(3L);
+        archivedDogRepository.existsById(3L);
+        archivedDogRepository.existsByBadgeNumber("K9-003");
+
+        assertPlansUse("_ARCHIVE");
+    }
+
+    @Test
+    void shouldSeekGenderSearchOnGenderIndex() throws SQLException {
+        policeDogRepository.findDogDetailsByGender(Gender.MALE, false, 0L, Limit.of(20));
+        policeDogRepository.findDogDetailsByGender(Gender.MALE, true, 0L, Limit.of(20));
+
+        assertPlansUse("IDX_POLICE_DOG_GENDER");
+    }
+
+    @Test
+    void shouldSeekStatusSearchOnStatusIndex() throws SQLException {
+        policeDogRepository.findDogDetailsByStatus(Status.TRAINING, false, 0L, Limit.of(20));
+
+        assertPlansUse("IDX_POLICE_DOG_STATUS");
+    }
+
+    @Test
+    void shouldSeekLeavingReasonSearchOnLeavingReasonIndex() throws SQLException {
+        policeDogRepository.findDogDetailsByLeavingReason(LeavingReason.DIED, false, 0L, Limit.of(20));
+
+        assertPlansUse("IDX_POLICE_DOG_LEAVING_REASON");
+    }
+
+    /**
+     * HSQLDB backs the supplier foreign key with an index of its own on supplier_id and may prefer it.
+     */
+    @Test
+    void shouldReadSupplierDogsOnSupplierIndex() throws SQLException {
+        policeDogRepository.findDogSummariesBySupplier(1L, false, 0L, Limit.of(20));
+        policeDogRepository.countBySupplierIdAndDeletedFalse(1L);
+        policeDogRepository.findDogSummariesBySupplierIds(List.of(1L, 2L));
+        policeDogRepository.findDogVersionsBySupplier(1L);
+
+        assertPlansUse("POLICE_DOG_SUPPLIER");
+    }
+
+    @Test
+    void shouldPageAndCountDogListOnDeletedIdIndex() throws SQLException {
+        policeDogRepository.searchDogDetails(new SearchFilter(), null, PageRequest.of(0, 20));
+        policeDogRepository.countDogs(new SearchFilter(), null);
+        policeDogRepository.searchDogDetailsAfter(new SearchFilter(), null, 0L, Limit.of(20));
+
+        assertPlansUse("IDX_POLICE_DOG_DELETED_ID");
+    }
+
+    @Test
+    void shouldSeekDogListSortedByNameOnDeletedIdIndex() throws SQLException {
+        SearchFilter filter = new SearchFilter();
+        filter.setSort(DogSortField.NAME);
+        policeDogRepository.searchDogDetails(filter, null, PageRequest.of(0, 20));
+
+        assertPlansUse("IDX_POLICE_DOG_DELETED_ID");
+    }
+
+    @Test
+    void shouldFilterDogListOnAttributeIndex() throws SQLException {
+        SearchFilter filter = new SearchFilter();
+        filter.setStatus(Status.IN_SERVICE);
+        policeDogRepository.searchDogDetails(filter, null, PageRequest.of(0, 20));
+        policeDogRepository.countDogs(filter, null);
+
+        assertPlansUse("IDX_POLICE_DOG_STATUS");
+    }
+
+    @Test
+    void shouldReadTextIndexCandidatesByPrimaryKey() throws SQLException {
+        SearchFilter filter = new SearchFilter("Rex", null, null);
+        policeDogRepository.searchDogDetails(filter, List.of(7L, 8L), PageRequest.of(0, 20));
+        policeDogRepository.countDogs(filter, List.of(7L, 8L));
+
+        assertPlansUse("PK_POLICE_DOG");
+    }
+
+    @Test
+    void shouldLookUpSupplierCodesOnTheirUniqueIndex() throws SQLException {
+        supplierRepository.existsByCode("ELITE_K9");
+        supplierRepository.findExistingCodes(Set.of("ELITE_K9", "NONE"));
+
+        assertPlansUse("UK_SUPPLIER_CODE");
+    }
+
+    @Test
+    void shouldReadSupplierVersionByPrimaryKey() throws SQLException {
+        supplierRepository.findVersionById(1L);
+
+        assertPlansUse("PK_SUPPLIER");
+    }
+
+    /**
+     * Asserts that no statement recorded since {@link #setUp()} scans a whole table and that each reads
+     * through {@code index}. HSQLDB plans an IN list as a scan of a subquery holding the bound values,
+     * which is not a table scan.
+     */
+    private void assertPlansUse(String index) throws SQLException {
+        List<String> statements = List.copyOf(RecordingStatementInspector.STATEMENTS);
+        assertFalse(statements.isEmpty(), "No statements were recorded");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            for (String rangeVariable : plan.split("table=")) {
+                assertFalse(rangeVariable.contains("access=FULL SCAN") && !rangeVariable.startsWith("SYSTEM_SUBQUERY"),
+                        () -> sql + "\n" + plan);
+            }
+            assertTrue(plan.contains(index), () -> sql + "\n" + plan);
+        }
+    }
+
+    private String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN PLAN FOR " + sql);
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
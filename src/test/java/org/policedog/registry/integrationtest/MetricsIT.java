@@ -0,0 +1,82 @@
+package org.policedog.registry.integrationtest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@Transactional
+class MetricsIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldPublishServiceTimersTaggedByOperationAndOutcome() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs/{id}", 4))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/dogs/dogs/{id}", 999))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put("/api/dogs/dogs/{id}", 4)
+                        .header(HttpHeaders.IF_MATCH, "\"dog-4-v0\"")
+                        .contentType(APPLICATION_JSON)
+                        .content("""
+                                {"name": "Luna", "breed": "Labrador", "supplierCode": "ALPHA_DOG", "badgeNumber": "K9-007",
+                                 "gender": "FEMALE", "status": "IN_SERVICE"}
+                                """))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "registry_service_seconds_count{operation=\"getDogById\",outcome=\"success\",service=\"DogService\"}")))
+                .andExpect(content().string(containsString(
+                        "registry_service_seconds_count{operation=\"getDogById\",outcome=\"not_found\",service=\"DogService\"}")))
+                .andExpect(content().string(containsString(
+                        "registry_service_seconds_count{operation=\"updateDog\",outcome=\"precondition_failed\",service=\"DogService\"}")))
+                .andExpect(content().string(containsString(
+                        "registry_service_seconds_bucket{operation=\"getDogById\",outcome=\"success\",service=\"DogService\",le=")));
+    }
+
+    @Test
+    void shouldPublishResultSizeOfDogListings() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs")
+                        .queryParam("pageSize", "2"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "registry_service_result_size_count{operation=\"getDogs\",service=\"DogService\"}")))
+                .andExpect(content().string(containsString(
+                        "registry_service_result_size_max{operation=\"getDogs\",service=\"DogService\"} 2.0")));
+    }
+
+    @Test
+    void shouldPublishConnectionPoolAndHibernateStatistics() throws Exception {
+        mockMvc.perform(get("/api/dogs/supplier/{id}", 1))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("hikaricp_connections_active{pool=")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending{pool=")))
+                .andExpect(content().string(containsString("hibernate_query_executions_total{")))
+                .andExpect(content().string(containsString("hibernate_entities_loads_total{")))
+                .andExpect(content().string(containsString("hibernate_second_level_cache_requests_total{")));
+    }
+}
@@ -0,0 +1,184 @@
+package org.policedog.registry.integrationtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.policedog.registry.cache.CountCache;
+import org.policedog.registry.domain.PoliceDog;
+import org.policedog.registry.domain.Supplier;
+import org.policedog.registry.dto.CreateDogRequest;
+import org.policedog.registry.dto.SupplierRequest;
+import org.policedog.registry.idempotency.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.policedog.registry.domain.Gender.MALE;
+import static org.policedog.registry.domain.Status.TRAINING;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards against N+1 regressions by counting the JDBC statements each endpoint prepares.
+ */
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureMockMvc
+class QueryStatementCountIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CountCache countCache;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        countCache.invalidate(PoliceDog.class);
+        countCache.invalidate(Supplier.class);
+        statistics.clear();
+    }
+
+    @Test
+    void shouldLoadDogSliceWithSuppliersInOneStatement() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs")
+                        .queryParam("pageSize", "15")
+                        .queryParam("includeTotal", "false")
+                        .accept(APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        assertStatementCount(1);
+    }
+
+    @Test
+    void shouldLoadDogPageWithSuppliersAndTotalInTwoStatements() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs")
+                        .queryParam("pageSize", "15")
+                        .accept(APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        assertStatementCount(2);
+    }
+
+    @Test
+    void shouldLoadDogCursorPageWithSuppliersInOneStatement() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs/cursor")
+                        .queryParam("pageSize", "15")
+                        .accept(APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        assertStatementCount(1);
+    }
+
+    @ParameterizedTest(name = "{0}?{1}={2}")
+    @CsvSource({
+            "/api/dogs/dogs/search/by-gender, gender, FEMALE",
+            "/api/dogs/dogs/search/by-status, status, IN_SERVICE",
+            "/api/dogs/dogs/search/by-leaving-reason, leavingReason, RETIRED_PUT_DOWN"
+    })
+    void shouldLoadSearchResultsWithSuppliersInOneStatement(String path, String param, String value) throws Exception {
+        mockMvc.perform(get(path)
+                        .queryParam(param, value)
+                        .accept(APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        assertStatementCount(1);
+    }
+
+    @Test
+    void shouldLoadSupplierSliceWithDogsInTwoStatements() throws Exception {
+        mockMvc.perform(get("/api/dogs/supplier")
+                        .queryParam("pageSize", "15")
+                        .queryParam("includeTotal", "false")
+                        .accept(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()").value(3))
+                .andExpect(jsonPath("$.content[0].dogs.size()").value(4));
+
+        // suppliers, then the dogs of every supplier on the page with one IN query
+        assertStatementCount(2);
+    }
+
+    @Test
+    void shouldLoadSupplierPageWithDogsAndTotalInThreeStatements() throws Exception {
+        mockMvc.perform(get("/api/dogs/supplier")
+                        .queryParam("pageSize", "15")
+                        .accept(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.metadata.totalElements").value(3));
+
+        assertStatementCount(3);
+    }
+
+    @Test
+    @Transactional
+    void shouldBatchBulkCreateInsertsWhateverTheNumberOfDogs() throws Exception {
+        List<CreateDogRequest> requests = IntStream.range(0, 40)
+                .mapToObj(i -> new CreateDogRequest("Dog " + i, "German Shepherd", "ELITE_K9", "BATCH-" + i, MALE,
+                        LocalDate.of(2020, 1, 1), TRAINING, null))
+                .toList();
+
+        mockMvc.perform(post("/api/dogs/dogs/bulk")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(40));
+
+        // supplier lookup, badge check, one sequence call and a single batched insert
+        assertStatementCount(4);
+        assertEquals(40, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    @Transactional
+    void shouldReplayCreateForARepeatedIdempotencyKeyWithoutStatements() throws Exception {
+        String request = objectMapper.writeValueAsString(new SupplierRequest("REPLAYED_K9", "Replayed K9", null, null, null));
+        String created = mockMvc.perform(post("/api/dogs/supplier")
+                        .header(IdempotencyStore.HEADER, "statement-count-replay")
+                        .contentType(APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        statistics.clear();
+
+        String replayed = mockMvc.perform(post("/api/dogs/supplier")
+                        .header(IdempotencyStore.HEADER, "statement-count-replay")
+                        .contentType(APPLICATION_JSON)
+                        .content(request))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyStore.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertStatementCount(0);
+        assertEquals(created, replayed);
+    }
+
+    private void assertStatementCount(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount(),
+                "Unexpected number of SQL statements: " + statistics.getPrepareStatementCount());
+    }
+}
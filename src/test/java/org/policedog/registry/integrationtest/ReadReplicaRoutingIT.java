@@ -0,0 +1,240 @@
+package org.policedog.registry.integrationtest;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.policedog.registry.cache.DogDetailCache;
+import org.policedog.registry.datasource.ReplicaRoutingDataSource;
+import org.policedog.registry.dto.UpdateDogRequest;
+import org.policedog.registry.etag.ETags;
+import org.policedog.registry.service.DogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.policedog.registry.domain.Gender.FEMALE;
+import static org.policedog.registry.domain.Status.IN_SERVICE;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two in-memory HSQLDB databases stand in for the primary and a read replica. Replication is simulated by
+ * copying the primary's schema and data into the replica before each test, after which the replica's copy
+ * of dog 4 is renamed so the tests can tell which database answered. Writes made by a test are not copied
+ * until the test copies them itself, as a lagging replica would.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:hsqldb:mem:routing-primary",
+        "registry.datasource.replica.urls=" + ReadReplicaRoutingIT.REPLICA_URL,
+        "registry.datasource.replica.max-lag=5s",
+        "registry.datasource.replica.lag-query=SELECT lag_seconds FROM replication_lag",
+        "registry.datasource.replica.check-interval=1h",
+        "registry.datasource.replica.stale-read-window=1m"
+})
+class ReadReplicaRoutingIT {
+
+    static final String REPLICA_URL = "jdbc:hsqldb:mem:routing-replica;ifexists=true";
+    private static final String CREATE_REPLICA_URL = "jdbc:hsqldb:mem:routing-replica";
+    private static final long DOG_ID = 4; // Luna
+    private static final long DELETED_DOG_ID = 5;
+    private static final String PRIMARY_NAME = "Luna";
+    private static final String REPLICA_NAME = "Luna on replica";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private DogDetailCache dogDetailCache;
+
+    private JdbcTemplate primary;
+
+    @BeforeAll
+    static void createReplica() {
+        // Created ahead of the application context, whose replica pool only connects to an existing database
+        replica().execute("SELECT 1 FROM (VALUES (0))");
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = new JdbcTemplate(new SingleConnectionDataSource("jdbc:hsqldb:mem:routing-primary", "sa", "", true));
+        primary.update("UPDATE police_dog SET name = ? WHERE id = ?", PRIMARY_NAME, DOG_ID);
+        replicate(0);
+        // Renaming dog 4 behind the application's back is a write it cannot see
+        dogDetailCache.invalidate(DOG_ID);
+    }
+
+    @Test
+    void shouldServeReadOnlyTransactionsFromReplica() throws Exception {
+        mockMvc.perform(get("/api/dogs/dogs/{id}", DOG_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(REPLICA_NAME));
+
+        mockMvc.perform(get("/api/dogs/dogs")
+                        .queryParam("filter", "{\"name\":\"Luna\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value(REPLICA_NAME));
+    }
+
+    @Test
+    void shouldSendWritesToPrimary() {
+        dogService.updateDog(DOG_ID, updateDogRequest("Luna II"), null);
+
+        assertEquals("Luna II", primary.queryForObject("SELECT name FROM police_dog WHERE id = ?", String.class, DOG_ID));
+        assertEquals(REPLICA_NAME, replica().queryForObject("SELECT name FROM police_dog WHERE id = ?", String.class, DOG_ID));
+    }
+
+    @Test
+    void shouldNotCacheDogReadFromLaggingReplicaAfterUpdate() throws Exception {
+        dogService.updateDog(DOG_ID, updateDogRequest("Luna III"), null);
+
+        // Until the replica catches up it still serves the dog from before the update
+        mockMvc.perform(get("/api/dogs/dogs/{id}", DOG_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(REPLICA_NAME));
+
+        Map<String, Object> updated = primary.queryForMap("SELECT name, badge_number, version FROM police_dog WHERE id = ?", DOG_ID);
+        replica().update("UPDATE police_dog SET name = ?, badge_number = ?, version = ? WHERE id = ?",
+                updated.get("name"), updated.get("badge_number"), updated.get("version"), DOG_ID);
+
+        String eTag = mockMvc.perform(get("/api/dogs/dogs/{id}", DOG_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Luna III"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(ETags.dog(DOG_ID, ((Number) updated.get("version")).longValue(), 2L, 1L), eTag);
+        dogService.updateDog(DOG_ID, updateDogRequest("Luna IV"), eTag);
+    }
+
+    @Test
+    void shouldNotCacheCountTakenOnLaggingReplicaAfterDelete() throws Exception {
+        long total = totalDogs();
+
+        dogService.deleteDogById(DELETED_DOG_ID);
+        // Until the replica catches up it still counts the deleted dog
+        assertEquals(total, totalDogs());
+
+        replica().update("UPDATE police_dog SET deleted = true WHERE id = ?", DELETED_DOG_ID);
+        assertEquals(total - 1, totalDogs());
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaLagsTooFarBehind() throws Exception {
+        replica().update("UPDATE replication_lag SET lag_seconds = 60");
+        replicaRoutingDataSource.checkReplicas();
+
+        assertFalse(replicaRoutingDataSource.getReplicas().getFirst().isAvailable());
+        mockMvc.perform(get("/api/dogs/dogs/{id}", DOG_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(PRIMARY_NAME));
+
+        replica().update("UPDATE replication_lag SET lag_seconds = 1");
+        replicaRoutingDataSource.checkReplicas();
+
+        assertTrue(replicaRoutingDataSource.getReplicas().getFirst().isAvailable());
+        mockMvc.perform(get("/api/dogs/dogs/{id}", DOG_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(REPLICA_NAME));
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaIsDown() throws Exception {
+        replica().execute("SHUTDOWN");
+        replicaRoutingDataSource.checkReplicas();
+
+        assertFalse(replicaRoutingDataSource.getReplicas().getFirst().isAvailable());
+        mockMvc.perform(get("/api/dogs/dogs/{id}", DOG_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(PRIMARY_NAME));
+        mockMvc.perform(get("/api/dogs/supplier/{id}", 2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("ALPHA_DOG"));
+    }
+
+    private long totalDogs() throws Exception {
+        String response = mockMvc.perform(get("/api/dogs/dogs"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(response, "$.metadata.totalElements")).longValue();
+    }
+
+    private static UpdateDogRequest updateDogRequest(String name) {
+        UpdateDogRequest updateDogRequest = new UpdateDogRequest();
+        updateDogRequest.setName(name);
+        updateDogRequest.setBreed("Labrador Retriever");
+        updateDogRequest.setSupplierCode("ALPHA_DOG");
+        updateDogRequest.setBadgeNumber("K9-REPLICA");
+        updateDogRequest.setGender(FEMALE);
+        updateDogRequest.setStatus(IN_SERVICE);
+        return updateDogRequest;
+    }
+
+    /**
+     * Rebuilds the replica from the schema in the primary's {@code SCRIPT} output and a copy of its suppliers and dogs.
+     */
+    private void replicate(int lagSeconds) throws InterruptedException {
+        JdbcTemplate replica = replica();
+        // Recreating a database that a test has shut down can clash with the replica pool's own attempts
+        // to reconnect, which only open existing databases
+        for (int attempt = 1; ; attempt++) {
+            try {
+                replica.execute("DROP SCHEMA PUBLIC CASCADE");
+                break;
+            } catch (CannotGetJdbcConnectionException e) {
+                if (attempt == 10) {
+                    throw e;
+                }
+                Thread.sleep(100);
+                replica = replica();
+            }
+        }
+        primary.queryForList("SCRIPT", String.class).stream()
+                .filter(statement -> statement.startsWith("CREATE MEMORY TABLE PUBLIC.")
+                        || statement.startsWith("CREATE SEQUENCE PUBLIC.")
+                        || statement.startsWith("ALTER TABLE PUBLIC.")
+                        || statement.startsWith("CREATE INDEX")
+                        || statement.startsWith("CREATE UNIQUE INDEX"))
+                .forEach(replica::execute);
+        for (String table : List.of("supplier", "police_dog")) {
+            SimpleJdbcInsert insert = new SimpleJdbcInsert(replica).withTableName(table);
+            primary.queryForList("SELECT * FROM " + table).forEach(insert::execute);
+        }
+        replica.execute("CREATE TABLE replication_lag (lag_seconds INT)");
+        replica.update("INSERT INTO replication_lag VALUES (?)", lagSeconds);
+        replica.update("UPDATE police_dog SET name = ? WHERE id = ?", REPLICA_NAME, DOG_ID);
+
+        // The replica pool backs off after failed connection attempts, e.g. once a test has shut the replica down
+        long deadline = System.currentTimeMillis() + 10_000;
+        do {
+            replicaRoutingDataSource.checkReplicas();
+            if (replicaRoutingDataSource.getReplicas().getFirst().isAvailable()) {
+                return;
+            }
+            Thread.sleep(100);
+        } while (System.currentTimeMillis() < deadline);
+        fail("Replica did not become available");
+    }
+
+    private static JdbcTemplate replica() {
+        return new JdbcTemplate(new SingleConnectionDataSource(CREATE_REPLICA_URL, "sa", "", true));
+    }
+}
@@ -0,0 +1,92 @@
+package org.policedog.registry.integrationtest;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.policedog.registry.domain.Supplier;
+import org.policedog.registry.dto.SupplierRequest;
+import org.policedog.registry.exception.ResourceNotFoundException;
+import org.policedog.registry.service.SupplierService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs without a test transaction: every service call gets its own persistence context, so repeated
+ * lookups can only be served by the second-level cache.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SupplierCacheIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldResolveSupplierCodeFromCacheAfterFirstLookup() {
+        supplierService.getSupplierByCode("ALPHA_DOG");
+        long statementsForFirstLookup = statistics.getPrepareStatementCount();
+
+        Supplier supplier = supplierService.getSupplierByCode("ALPHA_DOG");
+
+        assertEquals("ALPHA_DOG", supplier.getCode());
+        assertTrue(statementsForFirstLookup > 0);
+        assertEquals(statementsForFirstLookup, statistics.getPrepareStatementCount(), "Second lookup reached the database");
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void shouldStopResolvingOldCodeAfterSupplierCodeIsUpdated() {
+        Supplier supplier = supplierService.getSupplierByCode("BRAVO_CANINES");
+        try {
+            supplierService.updateSupplier(supplier.getId(), requestFor(supplier, "BRAVO_K9"));
+
+            assertThrows(ResourceNotFoundException.class, () -> supplierService.getSupplierByCode("BRAVO_CANINES"));
+            assertEquals(supplier.getId(), supplierService.getSupplierByCode("BRAVO_K9").getId());
+        } finally {
+            supplierService.updateSupplier(supplier.getId(), requestFor(supplier, "BRAVO_CANINES"));
+        }
+    }
+
+    @Test
+    void shouldExposeNaturalIdCacheHitsAsMetric() throws Exception {
+        supplierService.getSupplierByCode("ELITE_K9");
+        supplierService.getSupplierByCode("ELITE_K9");
+
+        mockMvc.perform(get("/actuator/metrics/hibernate.cache.natural.id.requests")
+                        .queryParam("tag", "result:hit"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(greaterThanOrEqualTo(1.0)));
+    }
+
+    private static SupplierRequest requestFor(Supplier supplier, String code) {
+        return new SupplierRequest(code, supplier.getName(), supplier.getContactPerson(), supplier.getEmail(), supplier.getPhone());
+    }
+}
@@ -9,12 +9,16 @@ import org.policedog.registry.dto.SupplierRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import static org.hamcrest.Matchers.contains;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -25,6 +29,7 @@ public class SupplierControllerIT {
 
     private static final Long VALID_SUPPLIER_ID = 1L;
     private static final Long INVALID_SUPPLIER_ID = 999L;
+    private static final Long BRAVO_CANINES_ID = 3L;
     private static final String SUPPLIER_NOT_FOUND_MESSAGE = "Supplier with id %d not found";
     private static final String SUPPLIER_CODE_EXISTS_MESSAGE = "Supplier with code %s already exists";
 
@@ -54,6 +59,126 @@ public class SupplierControllerIT {
                 .andExpect(jsonPath("$.phone").value("555-0101"));
     }
 
+    @Test
+    void shouldReturnSupplierWithEveryDogByDefault() throws Exception {
+        mockMvc.perform(get("/api/dogs/supplier/{id}", BRAVO_CANINES_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dogs.size()").value(3))
+                .andExpect(jsonPath("$.dogCount").doesNotExist());
+    }
+
+    @Test
+    void shouldReturnSupplierWithNonDeletedDogCountForSummaryView() throws Exception {
+        mockMvc.perform(get("/api/dogs/supplier/{id}", BRAVO_CANINES_ID)
+                        .queryParam("dogs", "SUMMARY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("BRAVO_CANINES"))
+                .andExpect(jsonPath("$.dogCount").value(2))
+                .andExpect(jsonPath("$.dogs").doesNotExist());
+    }
+
+    @Test
+    void shouldReturnSupplierWithoutDogsForNoneView() throws Exception {
+        mockMvc.perform(get("/api/dogs/supplier/{id}", BRAVO_CANINES_ID)
+                        .queryParam("dogs", "NONE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("BRAVO_CANINES"))
+                .andExpect(jsonPath("$.dogCount").doesNotExist())
+                .andExpect(jsonPath("$.dogs").doesNotExist());
+    }
+
+    @Test
+    void shouldRevalidateSupplierWithEveryDogUntilOneOfItsDogsChanges() throws Exception {
+        String eTag = mockMvc.perform(get("/api/dogs/supplier/{id}", BRAVO_CANINES_ID))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/api/dogs/supplier/{id}", BRAVO_CANINES_ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(delete("/api/dogs/dogs/{id}", 5))
+                .andExpect(status().isNoContent());
+
+        String newETag = mockMvc.perform(get("/api/dogs/supplier/{id}", BRAVO_CANINES_ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dogs.size()").value(3))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+    }
+
+    @Test
+    void shouldRevalidateSupplierSummaryUntilItsDogCountChanges() throws Exception {
+        mockMvc.perform(get("/api/dogs/supplier/{id}", BRAVO_CANINES_ID)
+                        .queryParam("dogs", "SUMMARY"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"supplier-3-v1-n2\""));
+
+        mockMvc.perform(delete("/api/dogs/dogs/{id}", 5))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/dogs/supplier/{id}", BRAVO_CANINES_ID)
+                        .queryParam("dogs", "SUMMARY")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"supplier-3-v1-n2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"supplier-3-v1-n1\""))
+                .andExpect(jsonPath("$.dogCount").value(1));
+    }
+
+    @Test
+    void shouldWalkSupplierDogsWithCursor() throws Exception {
+        String firstPageJson = mockMvc.perform(get("/api/dogs/supplier/{id}/dogs", BRAVO_CANINES_ID)
+                        .queryParam("pageSize", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(5))
+                .andExpect(jsonPath("$.metadata.last").value(false))
+                .andReturn().getResponse().getContentAsString();
+        String nextCursor = objectMapper.readTree(firstPageJson).path("metadata").path("nextCursor").asText();
+
+        mockMvc.perform(get("/api/dogs/supplier/{id}/dogs", BRAVO_CANINES_ID)
+                        .queryParam("pageSize", "1")
+                        .queryParam("cursor", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(6))
+                .andExpect(jsonPath("$.metadata.first").value(false))
+                .andExpect(jsonPath("$.metadata.last").value(true));
+    }
+
+    @Test
+    void shouldIncludeDeletedSupplierDogsWhenRequested() throws Exception {
+        mockMvc.perform(get("/api/dogs/supplier/{id}/dogs", BRAVO_CANINES_ID)
+                        .queryParam("includeDeleted", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id").value(contains(1, 5, 6)))
+                .andExpect(jsonPath("$.metadata.last").value(true));
+    }
+
+    @Test
+    void shouldReturnNotFoundForDogsOfInvalidSupplierId() throws Exception {
+        mockMvc.perform(get("/api/dogs/supplier/{id}/dogs", INVALID_SUPPLIER_ID))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$").value(SUPPLIER_NOT_FOUND_MESSAGE.formatted(INVALID_SUPPLIER_ID)));
+    }
+
+    @Test
+    void shouldGetSuppliersSliceWithoutTotals() throws Exception {
+        mockMvc.perform(get("/api/dogs/supplier")
+                        .queryParam("pageNo", "0")
+                        .queryParam("pageSize", "2")
+                        .queryParam("includeTotal", "false")
+                        .accept(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.metadata.first").value(true))
+                .andExpect(jsonPath("$.metadata.last").value(false))
+                .andExpect(jsonPath("$.metadata.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.metadata.totalPages").doesNotExist());
+    }
+
     @Test
     void shouldGetSuppliersReturnAll() throws Exception {
         String responseJson = mockMvc.perform(get("/api/dogs/supplier")
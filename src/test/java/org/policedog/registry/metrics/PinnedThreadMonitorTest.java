@@ -0,0 +1,53 @@
+package org.policedog.registry.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PinnedThreadMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PinnedThreadMonitor monitor = new PinnedThreadMonitor(Duration.ofMillis(10), meterRegistry);
+    private final Object lock = new Object();
+
+    @AfterEach
+    void tearDown() {
+        if (monitor.isRunning()) {
+            monitor.stop();
+        }
+    }
+
+    @Test
+    void shouldRecordVirtualThreadBlockingInsideSynchronized() throws Exception {
+        monitor.start();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                sleep(Duration.ofMillis(50));
+            }
+        }).join();
+
+        // JFR hands events to the stream about once a second
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pinnedCount() == 0 && System.currentTimeMillis() < deadline) {
+            sleep(Duration.ofMillis(100));
+        }
+        assertTrue(pinnedCount() >= 1);
+    }
+
+    private long pinnedCount() {
+        return meterRegistry.get("registry.threads.pinned").timer().count();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.policedog.registry.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictRetryAspectTest {
+
+    private MeterRegistry meterRegistry;
+    private ConflictingService service;
+    private ConflictingService proxy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ConflictingService();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(service);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ConflictRetryAspect(meterRegistry, 3, Duration.ofMillis(1), Duration.ofMillis(2)));
+        proxy = proxyFactory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void shouldRetryUntilTheOperationSucceeds() {
+        service.conflicts = 2;
+
+        assertEquals("retired", proxy.retire());
+
+        assertEquals(3, service.attempts);
+        assertEquals(2, count(ConflictRetryAspect.CONFLICTS, "retire"));
+        assertEquals(2, count(ConflictRetryAspect.RETRIES, "retire"));
+    }
+
+    @Test
+    void shouldRethrowTheConflictOnceTheAttemptsAreUsedUp() {
+        service.conflicts = 5;
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy.retire());
+
+        assertEquals(3, service.attempts);
+        assertEquals(3, count(ConflictRetryAspect.CONFLICTS, "retire"));
+        assertEquals(2, count(ConflictRetryAspect.RETRIES, "retire"));
+    }
+
+    @Test
+    void shouldNotRetryInsideTheCallersTransaction() {
+        service.conflicts = 1;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy.retire());
+
+        assertEquals(1, service.attempts);
+        assertEquals(1, count(ConflictRetryAspect.CONFLICTS, "retire"));
+        assertEquals(0, count(ConflictRetryAspect.RETRIES, "retire"));
+    }
+
+    @Test
+    void shouldNotRetryOtherFailuresOrUnannotatedOperations() {
+        assertThrows(IllegalStateException.class, () -> proxy.fail());
+        service.conflicts = 1;
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy.create());
+
+        assertEquals(2, service.attempts);
+        assertNull(meterRegistry.find(ConflictRetryAspect.CONFLICTS).counter());
+    }
+
+    private double count(String name, String operation) {
+        var counter = meterRegistry.find(name)
+                .tags("service", "ConflictingService", "operation", operation)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    static class ConflictingService {
+
+        int conflicts;
+        int attempts;
+
+        @RetryOnConflict
+        public String retire() {
+            attempts++;
+            if (conflicts-- > 0) {
+                throw new ObjectOptimisticLockingFailureException("PoliceDog", 1L);
+            }
+            return "retired";
+        }
+
+        @RetryOnConflict
+        public void fail() {
+            attempts++;
+            throw new IllegalStateException("Cannot retire deleted dog with ID 1");
+        }
+
+        public void create() {
+            attempts++;
+            if (conflicts-- > 0) {
+                throw new ObjectOptimisticLockingFailureException("PoliceDog", 1L);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.policedog.registry.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.dto.SearchFilter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DogTextIndexTest {
+
+    private static final int MAX_CANDIDATES = 3;
+
+    @Mock
+    private PoliceDogRepository dogRepositoryMock;
+    @Mock
+    private PlatformTransactionManager transactionManagerMock;
+
+    private DogTextIndex dogTextIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(dogRepositoryMock.streamDogText()).thenReturn(Stream.of(
+                new DogText(1L, "Rex", "German Shepherd", 1L, "ELITE_K9"),
+                new DogText(2L, "Rexie", "Belgian Malinois", 1L, "ELITE_K9"),
+                new DogText(3L, "Max", "German Shepherd", 2L, "ALPHA_DOG"),
+                new DogText(4L, "Luna", "Labrador", 2L, "ALPHA_DOG")));
+        dogTextIndex = new DogTextIndex(dogRepositoryMock, transactionManagerMock, true, MAX_CANDIDATES);
+        dogTextIndex.afterSingletonsInstantiated();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldResolveDogsContainingNameTerm() {
+        assertEquals(Optional.of(List.of(1L, 2L)), dogTextIndex.candidateIds(new SearchFilter("Rex", null, null)));
+        assertEquals(Optional.of(List.of(2L)), dogTextIndex.candidateIds(new SearchFilter("exie", null, null)));
+    }
+
+    @Test
+    void shouldMatchCaseSensitivelyLikeTheQuery() {
+        assertEquals(Optional.of(List.of()), dogTextIndex.candidateIds(new SearchFilter("rex", null, null)));
+    }
+
+    @Test
+    void shouldIntersectCriteria() {
+        assertEquals(Optional.of(List.of(3L)), dogTextIndex.candidateIds(new SearchFilter(null, "Shepherd", "ALPHA")));
+        assertEquals(Optional.of(List.of()), dogTextIndex.candidateIds(new SearchFilter("Luna", "Shepherd", null)));
+    }
+
+    @Test
+    void shouldResolveOnlyTermsWithAFullTrigram() {
+        assertEquals(Optional.of(List.of(1L, 2L)), dogTextIndex.candidateIds(new SearchFilter("Rex", null, "K9")));
+        assertEquals(Optional.of(List.of(3L)), dogTextIndex.candidateIds(new SearchFilter("Ma", "Shepherd", "ALP")));
+    }
+
+    @Test
+    void shouldFallBackWhenNoTermCanBeResolved() {
+        assertEquals(Optional.empty(), dogTextIndex.candidateIds(new SearchFilter()));
+        assertEquals(Optional.empty(), dogTextIndex.candidateIds(new SearchFilter("Re", "La", null)));
+        // LIKE wildcards in the term would match more than the index knows of
+        assertEquals(Optional.empty(), dogTextIndex.candidateIds(new SearchFilter("R_x", null, null)));
+        assertEquals(Optional.empty(), dogTextIndex.candidateIds(new SearchFilter("Re%", null, null)));
+    }
+
+    @Test
+    void shouldFallBackWhenTooManyDogsMatch() {
+        dogTextIndex.dogChanged(null, new DogText(5L, "Rexa", "Beagle", 1L, "ELITE_K9"));
+
+        assertEquals(Optional.of(List.of(1L, 2L, 5L)), dogTextIndex.candidateIds(new SearchFilter(null, null, "ELITE")));
+
+        dogTextIndex.dogChanged(null, new DogText(6L, "Rexo", "Beagle", 1L, "ELITE_K9"));
+
+        assertEquals(Optional.empty(), dogTextIndex.candidateIds(new SearchFilter(null, null, "ELITE")));
+    }
+
+    @Test
+    void shouldFollowUpdatesAndDeletes() {
+        dogTextIndex.dogChanged(new DogText(1L, "Rex", "German Shepherd", 1L, "ELITE_K9"),
+                new DogText(1L, "Ranger", "German Shepherd", 2L, "ALPHA_DOG"));
+        dogTextIndex.dogChanged(new DogText(4L, "Luna", "Labrador", 2L, "ALPHA_DOG"), null);
+
+        assertEquals(Optional.of(List.of(2L)), dogTextIndex.candidateIds(new SearchFilter("Rex", null, null)));
+        assertEquals(Optional.of(List.of(1L)), dogTextIndex.candidateIds(new SearchFilter("Ranger", null, null)));
+        assertEquals(Optional.of(List.of(1L, 3L)), dogTextIndex.candidateIds(new SearchFilter(null, null, "ALPHA")));
+        assertEquals(Optional.of(List.of()), dogTextIndex.candidateIds(new SearchFilter("Luna", null, null)));
+    }
+
+    @Test
+    void shouldFollowSupplierRename() {
+        dogTextIndex.supplierRenamed(2L, "OMEGA_K9");
+
+        assertEquals(Optional.of(List.of()), dogTextIndex.candidateIds(new SearchFilter(null, null, "ALPHA")));
+        assertEquals(Optional.of(List.of(3L, 4L)), dogTextIndex.candidateIds(new SearchFilter(null, null, "OMEGA")));
+    }
+
+    @Test
+    void shouldIndexCreatedDogsOnlyOnceTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        dogTextIndex.dogsCreated(List.of(new DogText(7L, "Rocky", "Boxer", 3L, "K9_UNITS")));
+
+        assertEquals(Optional.of(List.of()), dogTextIndex.candidateIds(new SearchFilter("Rocky", null, null)));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(Optional.of(List.of(7L)), dogTextIndex.candidateIds(new SearchFilter("Rocky", null, "UNITS")));
+    }
+
+    @Test
+    void shouldNotResolveAnythingWhenDisabled() {
+        DogTextIndex disabled = new DogTextIndex(dogRepositoryMock, transactionManagerMock, false, MAX_CANDIDATES);
+        disabled.afterSingletonsInstantiated();
+
+        assertEquals(Optional.empty(), disabled.candidateIds(new SearchFilter("Rex", null, null)));
+    }
+}
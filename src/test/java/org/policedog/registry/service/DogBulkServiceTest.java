@@ -0,0 +1,285 @@
+package org.policedog.registry.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.policedog.registry.cache.CountCache;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.dao.SupplierRepository;
+import org.policedog.registry.domain.PoliceDog;
+import org.policedog.registry.domain.Supplier;
+import org.policedog.registry.dto.BulkCreateDogResponse;
+import org.policedog.registry.dto.BulkItemResult;
+import org.policedog.registry.dto.CreateDogRequest;
+import org.policedog.registry.mapper.EntityDtoMapper;
+import org.policedog.registry.search.DogTextIndex;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.policedog.registry.domain.Gender.MALE;
+import static org.policedog.registry.domain.Status.TRAINING;
+import static org.policedog.registry.dto.BulkItemResult.Outcome.CREATED;
+import static org.policedog.registry.dto.BulkItemResult.Outcome.FAILED;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DogBulkServiceTest {
+
+    private static final String SUPPLIER_CODE = "ELITE_K9";
+    private static final Long SUPPLIER_ID = 1L;
+    private static final int CHUNK_SIZE = 2;
+
+    private static ValidatorFactory validatorFactory;
+
+    @Mock
+    private PoliceDogRepository dogRepositoryMock;
+    @Mock
+    private SupplierRepository supplierRepositoryMock;
+    @Mock
+    private EntityDtoMapper entityDtoMapperMock;
+    @Mock
+    private CountCache countCacheMock;
+    @Mock
+    private DogStatsService dogStatsServiceMock;
+    @Mock
+    private DogTextIndex dogTextIndexMock;
+    @Mock
+    private EntityManager entityManagerMock;
+    @Mock
+    private TransactionTemplate transactionTemplateMock;
+
+    private ObjectMapper objectMapper;
+    private DogBulkService dogBulkService;
+    private final AtomicLong nextId = new AtomicLong(100);
+
+    @BeforeAll
+    static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModules(new JavaTimeModule());
+        Validator validator = validatorFactory.getValidator();
+        dogBulkService = new DogBulkService(dogRepositoryMock, supplierRepositoryMock, entityDtoMapperMock, countCacheMock,
+                dogStatsServiceMock, dogTextIndexMock, objectMapper, validator, entityManagerMock, transactionTemplateMock);
+        ReflectionTestUtils.setField(dogBulkService, "chunkSize", CHUNK_SIZE);
+
+        doAnswer(invocation -> {
+            Consumer<Object> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplateMock).executeWithoutResult(any());
+        when(entityDtoMapperMock.toPoliceDog(any(CreateDogRequest.class))).thenAnswer(invocation -> new PoliceDog());
+        when(dogRepositoryMock.save(any(PoliceDog.class))).thenAnswer(invocation -> {
+            PoliceDog dog = invocation.getArgument(0);
+            ReflectionTestUtils.setField(dog, "id", nextId.getAndIncrement());
+            return dog;
+        });
+        when(dogRepositoryMock.findExistingBadgeNumbers(any())).thenReturn(Set.of());
+        when(supplierRepositoryMock.findAllByCodeIn(any())).thenReturn(List.of(supplier(SUPPLIER_ID, SUPPLIER_CODE)));
+    }
+
+    @Test
+    void shouldCreateAllValidDogsAndResolveSupplierOnce() throws Exception {
+        BulkCreateDogResponse response = dogBulkService.createDogs(json(
+                createDogRequest("B-1"), createDogRequest("B-2"), createDogRequest("B-3")));
+
+        assertAll(
+                () -> assertEquals(3, response.getCreated()),
+                () -> assertEquals(0, response.getFailed()),
+                () -> assertEquals(List.of(100L, 101L, 102L), response.getResults().stream().map(BulkItemResult::getId).toList())
+        );
+        verify(supplierRepositoryMock, times(1)).findAllByCodeIn(any());
+        verify(dogRepositoryMock, times(2)).findExistingBadgeNumbers(any());
+        verify(dogRepositoryMock, times(2)).flush();
+    }
+
+    @Test
+    void shouldReportExistingAndDuplicateBadgeNumbers() throws Exception {
+        when(dogRepositoryMock.findExistingBadgeNumbers(any())).thenReturn(Set.of("B-1"));
+
+        BulkCreateDogResponse response = dogBulkService.createDogs(json(
+                createDogRequest("B-1"), createDogRequest("B-2"), createDogRequest("B-2")));
+
+        List<BulkItemResult> results = response.getResults();
+        assertAll(
+                () -> assertEquals(1, response.getCreated()),
+                () -> assertEquals(FAILED, results.get(0).getOutcome()),
+                () -> assertEquals("Dog with badge number B-1 already exists", results.get(0).getError()),
+                () -> assertEquals(CREATED, results.get(1).getOutcome()),
+                () -> assertEquals(FAILED, results.get(2).getOutcome()),
+                () -> assertEquals("Dog with badge number B-2 already exists", results.get(2).getError())
+        );
+    }
+
+    @Test
+    void shouldReportUnknownSupplierAndLookItUpOnlyOnce() throws Exception {
+        CreateDogRequest first = createDogRequest("B-1");
+        first.setSupplierCode("UNKNOWN");
+        CreateDogRequest second = createDogRequest("B-2");
+        second.setSupplierCode("UNKNOWN");
+        CreateDogRequest third = createDogRequest("B-3");
+        third.setSupplierCode("UNKNOWN");
+
+        when(supplierRepositoryMock.findAllByCodeIn(any())).thenReturn(List.of());
+
+        BulkCreateDogResponse response = dogBulkService.createDogs(json(first, second, third));
+
+        assertEquals(3, response.getFailed());
+        assertEquals("Supplier with code UNKNOWN not found", response.getResults().get(2).getError());
+        verify(supplierRepositoryMock, times(1)).findAllByCodeIn(any());
+        verify(dogRepositoryMock, never()).save(any());
+    }
+
+    @Test
+    void shouldReportInvalidItemsAndCarryOn() throws Exception {
+        String body = """
+                [{"name": "Rex"},
+                 {"name": "Max", "breed": "Malinois", "supplierCode": "ELITE_K9", "badgeNumber": "B-2", "gender": "UNKNOWN",
+                  "birthDate": "2020-01-01", "status": "TRAINING"},
+                 %s]
+                """.formatted(objectMapper.writeValueAsString(createDogRequest("B-3")));
+
+        BulkCreateDogResponse response = dogBulkService.createDogs(stream(body));
+
+        List<BulkItemResult> results = response.getResults();
+        assertAll(
+                () -> assertEquals(3, results.size()),
+                () -> assertEquals(FAILED, results.get(0).getOutcome()),
+                () -> assertTrue(results.get(0).getError().contains("badgeNumber: Badge number is required")),
+                () -> assertEquals(FAILED, results.get(1).getOutcome()),
+                () -> assertEquals("B-2", results.get(1).getBadgeNumber()),
+                () -> assertTrue(results.get(1).getError().startsWith("Invalid item")),
+                () -> assertEquals(CREATED, results.get(2).getOutcome())
+        );
+    }
+
+    @Test
+    void shouldStopAtMalformedJsonAndKeepEarlierItems() throws Exception {
+        String body = "[" + objectMapper.writeValueAsString(createDogRequest("B-1")) + ", {\"name\": ";
+
+        BulkCreateDogResponse response = dogBulkService.createDogs(stream(body));
+
+        assertAll(
+                () -> assertEquals(1, response.getCreated()),
+                () -> assertEquals(1, response.getFailed()),
+                () -> assertEquals(1, response.getResults().get(1).getIndex()),
+                () -> assertTrue(response.getResults().get(1).getError().startsWith("Malformed JSON"))
+        );
+    }
+
+    @Test
+    void shouldFailWholeChunkWhenItIsRolledBack() throws Exception {
+        doThrow(new DataIntegrityViolationException("duplicate")).when(dogRepositoryMock).flush();
+
+        BulkCreateDogResponse response = dogBulkService.createDogs(json(createDogRequest("B-1"), createDogRequest("B-2")));
+
+        assertEquals(2, response.getFailed());
+        assertTrue(response.getResults().stream()
+                .allMatch(result -> DogBulkService.CHUNK_ROLLED_BACK_MESSAGE.equals(result.getError())));
+    }
+
+    @Test
+    void shouldCreateASharedBadgeNumberOnceWhenChunksAreSavedInParallel() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int run = 0; run < 50; run++) {
+                DogBulkService.BulkContext context = new DogBulkService.BulkContext();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<List<BulkItemResult>>> chunks = List.of(
+                        executor.submit(() -> saveChunkWhenStarted(start, context, "B-SHARED", "B-1")),
+                        executor.submit(() -> saveChunkWhenStarted(start, context, "B-SHARED", "B-2")));
+                start.countDown();
+
+                List<BulkItemResult> results = new ArrayList<>();
+                for (Future<List<BulkItemResult>> chunk : chunks) {
+                    results.addAll(chunk.get(10, TimeUnit.SECONDS));
+                }
+                assertEquals(1, results.stream()
+                        .filter(result -> result.getBadgeNumber().equals("B-SHARED") && result.getOutcome() == CREATED)
+                        .count());
+                assertEquals(3, results.stream().filter(result -> result.getOutcome() == CREATED).count());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldErrorWhenBodyIsNotAnArray() {
+        var exception = assertThrows(IllegalArgumentException.class, () -> {
+            dogBulkService.createDogs(stream("{\"name\": \"Rex\"}"));
+        });
+        assertEquals("Bulk request body must be a JSON array", exception.getMessage());
+    }
+
+    private List<BulkItemResult> saveChunkWhenStarted(CountDownLatch start, DogBulkService.BulkContext context,
+                                                      String... badgeNumbers) throws InterruptedException {
+        List<DogBulkService.BulkItem> items = new ArrayList<>();
+        for (String badgeNumber : badgeNumbers) {
+            items.add(new DogBulkService.BulkItem(items.size(), createDogRequest(badgeNumber)));
+        }
+        List<BulkItemResult> results = new ArrayList<>();
+        start.await();
+        dogBulkService.saveChunk(items, context, results);
+        return results;
+    }
+
+    private InputStream json(CreateDogRequest... requests) throws Exception {
+        return stream(objectMapper.writeValueAsString(requests));
+    }
+
+    private InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CreateDogRequest createDogRequest(String badgeNumber) {
+        return new CreateDogRequest("Rex", "German Shepherd", SUPPLIER_CODE, badgeNumber, MALE,
+                LocalDate.of(2020, 1, 1), TRAINING, null);
+    }
+
+    private Supplier supplier(Long id, String code) {
+        Supplier supplier = new Supplier();
+        ReflectionTestUtils.setField(supplier, "id", id);
+        supplier.setCode(code);
+        return supplier;
+    }
+}
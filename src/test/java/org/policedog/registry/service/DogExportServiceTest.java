@@ -0,0 +1,147 @@
+package org.policedog.registry.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.policedog.registry.dao.ArchivedDogRepository;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.domain.ArchivedPoliceDog;
+import org.policedog.registry.domain.PoliceDog;
+import org.policedog.registry.dto.CharacteristicsDto;
+import org.policedog.registry.dto.DogDetailDto;
+import org.policedog.registry.dto.SupplierSummaryDto;
+import org.policedog.registry.export.ExportFormat;
+import org.policedog.registry.mapper.EntityDtoMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+import static org.policedog.registry.domain.Gender.FEMALE;
+import static org.policedog.registry.domain.Status.IN_SERVICE;
+
+@ExtendWith(MockitoExtension.class)
+class DogExportServiceTest {
+
+    private static final int CLEAR_INTERVAL = 2;
+
+    @Mock
+    private PoliceDogRepository dogRepositoryMock;
+    @Mock
+    private ArchivedDogRepository archivedDogRepositoryMock;
+    @Mock
+    private EntityDtoMapper entityDtoMapperMock;
+    @Mock
+    private EntityManager entityManagerMock;
+
+    private ObjectMapper objectMapper;
+
+    private DogExportService dogExportService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModules(new JavaTimeModule());
+        dogExportService = new DogExportService(dogRepositoryMock, archivedDogRepositoryMock, entityDtoMapperMock, objectMapper, entityManagerMock);
+        ReflectionTestUtils.setField(dogExportService, "clearInterval", CLEAR_INTERVAL);
+    }
+
+    @Test
+    void shouldWriteOneJsonDocumentPerLineForNdjsonExport() throws Exception {
+        givenDogsStreamed(false, dogDetailDto(1L, "Rex"), dogDetailDto(2L, "Luna"));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long rows = dogExportService.exportDogs(ExportFormat.NDJSON, false, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertAll(
+                () -> assertEquals(2, rows),
+                () -> assertEquals(2, lines.length),
+                () -> assertEquals("Rex", objectMapper.readValue(lines[0], DogDetailDto.class).getName()),
+                () -> assertEquals("Luna", objectMapper.readValue(lines[1], DogDetailDto.class).getName())
+        );
+    }
+
+    @Test
+    void shouldWriteHeaderAndFlattenedRowsForCsvExport() throws Exception {
+        DogDetailDto dog = dogDetailDto(1L, "Rex, \"The Nose\"");
+        dog.setSupplier(new SupplierSummaryDto(3L, "ELITE_K9", "Elite K9", null, null, null));
+        dog.setCharacteristics(new CharacteristicsDto(false, null, null, null, null, null, null, null, null, "CALM"));
+        givenDogsStreamed(true, dog);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        dogExportService.exportDogs(ExportFormat.CSV, true, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertAll(
+                () -> assertEquals(2, lines.length),
+                () -> assertTrue(lines[0].startsWith("id,name,breed,supplierCode,supplierName,badgeNumber,gender,")),
+                () -> assertEquals("1,\"Rex, \"\"The Nose\"\"\",German Shepherd,ELITE_K9,Elite K9,K9-1,FEMALE,2020-01-01,,IN_SERVICE,,,"
+                        + "false,,,,,,,,,CALM,false,", lines[1])
+        );
+    }
+
+    @Test
+    void shouldClearPersistenceContextPeriodicallyDuringExport() throws Exception {
+        givenDogsStreamed(false, dogDetailDto(1L, "Rex"), dogDetailDto(2L, "Luna"), dogDetailDto(3L, "Max"),
+                dogDetailDto(4L, "Bella"), dogDetailDto(5L, "Zoey"));
+
+        long rows = dogExportService.exportDogs(ExportFormat.NDJSON, false, new ByteArrayOutputStream());
+
+        assertEquals(5, rows);
+        verify(entityManagerMock, times(2)).clear();
+    }
+
+    @Test
+    void shouldWriteArchivedDogsAfterTheRegistry() throws Exception {
+        givenDogsStreamed(false, dogDetailDto(1L, "Rex"));
+        when(archivedDogRepositoryMock.streamDogs(false)).thenReturn(Stream.of(new ArchivedPoliceDog(), new ArchivedPoliceDog()));
+        when(entityDtoMapperMock.toDogDetailDto(any(ArchivedPoliceDog.class)))
+                .thenReturn(dogDetailDto(2L, "Luna"), dogDetailDto(3L, "Max"));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long rows = dogExportService.exportDogs(ExportFormat.NDJSON, false, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertAll(
+                () -> assertEquals(3, rows),
+                () -> assertEquals("Rex", objectMapper.readValue(lines[0], DogDetailDto.class).getName()),
+                () -> assertEquals("Max", objectMapper.readValue(lines[2], DogDetailDto.class).getName())
+        );
+        verify(entityManagerMock, times(1)).clear();
+    }
+
+    private void givenDogsStreamed(boolean includeDeleted, DogDetailDto... dogDetailDtos) {
+        List<PoliceDog> dogs = Stream.of(dogDetailDtos).map(dto -> new PoliceDog()).toList();
+        when(dogRepositoryMock.streamDogs(includeDeleted)).thenReturn(dogs.stream());
+        var stubbing = when(entityDtoMapperMock.toDogDetailDto(any(PoliceDog.class)));
+        for (DogDetailDto dogDetailDto : dogDetailDtos) {
+            stubbing = stubbing.thenReturn(dogDetailDto);
+        }
+    }
+
+    private DogDetailDto dogDetailDto(Long id, String name) {
+        DogDetailDto dogDetailDto = new DogDetailDto();
+        dogDetailDto.setId(id);
+        dogDetailDto.setName(name);
+        dogDetailDto.setBreed("German Shepherd");
+        dogDetailDto.setBadgeNumber("K9-" + id);
+        dogDetailDto.setGender(FEMALE);
+        dogDetailDto.setBirthDate(LocalDate.of(2020, 1, 1));
+        dogDetailDto.setStatus(IN_SERVICE);
+        dogDetailDto.setDeleted(false);
+        return dogDetailDto;
+    }
+}
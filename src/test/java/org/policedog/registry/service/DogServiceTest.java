@@ -6,21 +6,38 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.policedog.registry.cache.CountCache;
+import org.policedog.registry.cache.DogDetailCache;
+import org.policedog.registry.dao.ArchivedDogRepository;
 import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.dao.PoliceDogRepository.DogVersion;
 import org.policedog.registry.domain.*;
 import org.policedog.registry.dto.*;
+import org.policedog.registry.exception.PreconditionFailedException;
 import org.policedog.registry.exception.ResourceNotFoundException;
 import org.policedog.registry.mapper.EntityDtoMapper;
+import org.policedog.registry.search.DogTextIndex;
+import org.policedog.registry.service.DogStatsService.DogFacts;
+import org.policedog.registry.pagination.Pagination;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.policedog.registry.domain.Gender.MALE;
 import static org.policedog.registry.domain.LeavingReason.TRANSFERRED;
@@ -37,6 +54,8 @@ class DogServiceTest {
     private static final String CANNOT_UPDATE_DELETED_DOG_MESSAGE = "Cannot update deleted dog with ID %d";
     private static final String CANNOT_UPDATE_LEFT_DOG_MESSAGE = "Cannot update retired dog with ID %d";
     private static final String CANNOT_RETIRE_DELETED_DOG_MESSAGE = "Cannot retire deleted dog with ID %d";
+    private static final String PAGE_SIZE_LIMIT_MESSAGE = "Page size must be between 1 and 100";
+    private static final String INVALID_CURSOR_MESSAGE = "Invalid cursor";
 
     private static final Long DOG_ID = 1L;
     private static final String DOG_NAME = "Rex";
@@ -45,13 +64,27 @@ class DogServiceTest {
     @Mock
     private PoliceDogRepository dogRepositoryMock;
     @Mock
+    private ArchivedDogRepository archivedDogRepositoryMock;
+    @Mock
     private SupplierService supplierServiceMock;
     @Mock
     private EntityDtoMapper entityDtoMapperMock;
+    @Mock
+    private CountCache countCacheMock;
+    @Mock
+    private DogStatsService dogStatsServiceMock;
+    @Mock
+    private DogTextIndex dogTextIndexMock;
+    @Mock
+    private PlatformTransactionManager transactionManagerMock;
+    @Spy
+    private DogDetailCache dogDetailCacheSpy = new DogDetailCache(Duration.ofMinutes(5), 100, Duration.ZERO, new SimpleMeterRegistry());
     @InjectMocks
     private DogService dogService;
     @Captor
     private ArgumentCaptor<PoliceDog> policeDogArgumentCaptor;
+    @Captor
+    private ArgumentCaptor<Page<DogDetailDto>> pageArgumentCaptor;
 
     @Test
     void shouldErrorWhenSupplierCodeNotFoundForDogCreate() {
@@ -111,16 +144,133 @@ class DogServiceTest {
 
         SearchFilter searchFilter = new SearchFilter(DOG_NAME, DOG_BREED, SUPPLIER_CODE);
 
-        Page<PoliceDog> policeDogPage = mock(Page.class);
+        DogDetailDto dogDetailDto = new DogDetailDto();
+        Slice<DogDetailDto> dogDetailSlice = new SliceImpl<>(List.of(dogDetailDto), PageRequest.of(pageNo, pageSize), false);
         PageResponse<DogDetailDto> dogDetailPageResponse = mock(PageResponse.class);
 
-        when(dogRepositoryMock.findDogs(DOG_NAME, DOG_BREED, SUPPLIER_CODE, PageRequest.of(pageNo, pageSize)))
-                .thenReturn(policeDogPage);
-        when(entityDtoMapperMock.toDogDetailPageResponse(policeDogPage))
+        when(dogRepositoryMock.searchDogDetails(searchFilter, null, PageRequest.of(pageNo, pageSize)))
+                .thenReturn(dogDetailSlice);
+        when(countCacheMock.get(eq(PoliceDog.class), eq(searchFilter), any()))
+                .thenReturn(1L);
+        when(entityDtoMapperMock.toPageResponse(pageArgumentCaptor.capture()))
                 .thenReturn(dogDetailPageResponse);
 
         PageResponse<DogDetailDto> result = dogService.getDogs(searchFilter, pageNo, pageSize);
+
+        Page<DogDetailDto> mappedPage = pageArgumentCaptor.getValue();
+        assertAll(
+                () -> assertEquals(dogDetailPageResponse, result),
+                () -> assertEquals(List.of(dogDetailDto), mappedPage.getContent()),
+                () -> assertEquals(1L, mappedPage.getTotalElements())
+        );
+    }
+
+    @Test
+    void shouldGetDogsSliceWithoutCountingWhenCalledWithPagingAndFilters() {
+        int pageNo = 0;
+        int pageSize = 10;
+
+        SearchFilter searchFilter = new SearchFilter(DOG_NAME, DOG_BREED, SUPPLIER_CODE);
+
+        Slice<DogDetailDto> dogDetailSlice = mock(Slice.class);
+        PageResponse<DogDetailDto> dogDetailPageResponse = mock(PageResponse.class);
+
+        when(dogRepositoryMock.searchDogDetails(searchFilter, null, PageRequest.of(pageNo, pageSize)))
+                .thenReturn(dogDetailSlice);
+        when(entityDtoMapperMock.toSliceResponse(dogDetailSlice))
+                .thenReturn(dogDetailPageResponse);
+
+        PageResponse<DogDetailDto> result = dogService.getDogsSlice(searchFilter, pageNo, pageSize);
+
         assertEquals(dogDetailPageResponse, result);
+        verify(dogRepositoryMock, never()).countDogs(any(), any());
+        verifyNoInteractions(countCacheMock);
+    }
+
+    @Test
+    void shouldRestrictDogsToTextIndexCandidatesWhenResolved() {
+        int pageNo = 0;
+        int pageSize = 10;
+        SearchFilter searchFilter = new SearchFilter(DOG_NAME, null, null);
+        List<Long> candidateIds = List.of(3L, 7L);
+
+        Slice<DogDetailDto> dogDetailSlice = mock(Slice.class);
+        PageResponse<DogDetailDto> dogDetailPageResponse = mock(PageResponse.class);
+
+        when(dogTextIndexMock.candidateIds(searchFilter)).thenReturn(Optional.of(candidateIds));
+        when(dogRepositoryMock.searchDogDetails(searchFilter, candidateIds, PageRequest.of(pageNo, pageSize)))
+                .thenReturn(dogDetailSlice);
+        when(entityDtoMapperMock.toSliceResponse(dogDetailSlice))
+                .thenReturn(dogDetailPageResponse);
+
+        assertEquals(dogDetailPageResponse, dogService.getDogsSlice(searchFilter, pageNo, pageSize));
+    }
+
+    @Test
+    void shouldErrorWhenPageSizeExceedsLimitForGetDogs() {
+        SearchFilter searchFilter = new SearchFilter();
+
+        var exception = assertThrows(IllegalArgumentException.class, () -> {
+            dogService.getDogs(searchFilter, 0, Pagination.MAX_PAGE_SIZE + 1);
+        });
+        assertEquals(PAGE_SIZE_LIMIT_MESSAGE, exception.getMessage());
+        verifyNoInteractions(dogRepositoryMock);
+    }
+
+    @Test
+    void shouldGetFirstCursorPageWhenNoCursorProvided() {
+        int pageSize = 10;
+        SearchFilter searchFilter = new SearchFilter(DOG_NAME, DOG_BREED, SUPPLIER_CODE);
+        List<DogDetailDto> dogs = List.of(new DogDetailDto());
+        PageResponse<DogDetailDto> dogDetailPageResponse = mock(PageResponse.class);
+
+        when(dogRepositoryMock.searchDogDetailsAfter(searchFilter, null, 0L, Limit.of(pageSize + 1)))
+                .thenReturn(dogs);
+        when(entityDtoMapperMock.toDogDetailCursorResponse(dogs, pageSize, true))
+                .thenReturn(dogDetailPageResponse);
+
+        PageResponse<DogDetailDto> result = dogService.getDogsAfter(searchFilter, null, pageSize);
+        assertEquals(dogDetailPageResponse, result);
+    }
+
+    @Test
+    void shouldSeekPastCursorWhenCursorProvided() {
+        int pageSize = 5;
+        long lastSeenId = 42L;
+        SearchFilter searchFilter = new SearchFilter();
+        List<DogDetailDto> dogs = List.of(new DogDetailDto());
+        PageResponse<DogDetailDto> dogDetailPageResponse = mock(PageResponse.class);
+
+        when(dogRepositoryMock.searchDogDetailsAfter(searchFilter, null, lastSeenId, Limit.of(pageSize + 1)))
+                .thenReturn(dogs);
+        when(entityDtoMapperMock.toDogDetailCursorResponse(dogs, pageSize, false))
+                .thenReturn(dogDetailPageResponse);
+
+        PageResponse<DogDetailDto> result = dogService.getDogsAfter(searchFilter, Pagination.encodeCursor(lastSeenId), pageSize);
+        assertEquals(dogDetailPageResponse, result);
+    }
+
+    @Test
+    void shouldErrorWhenCursorIsInvalid() {
+        SearchFilter searchFilter = new SearchFilter();
+
+        var exception = assertThrows(IllegalArgumentException.class, () -> {
+            dogService.getDogsAfter(searchFilter, "not-a-cursor", 10);
+        });
+        assertEquals(INVALID_CURSOR_MESSAGE, exception.getMessage());
+        verifyNoInteractions(dogRepositoryMock);
+    }
+
+    @Test
+    void shouldRejectSortForCursorPages() {
+        SearchFilter searchFilter = new SearchFilter();
+        searchFilter.setSort(DogSortField.NAME);
+
+        var exception = assertThrows(IllegalArgumentException.class, () -> {
+            dogService.getDogsAfter(searchFilter, null, 10);
+        });
+        assertEquals("Cursor pagination is ordered by ID and cannot be sorted by NAME", exception.getMessage());
+        verifyNoInteractions(dogRepositoryMock);
     }
 
     @Test
@@ -165,6 +315,8 @@ class DogServiceTest {
             assertTrue(deletedDog.getDeleted());
             assertNotNull(deletedDog.getDeletedAt());
         });
+        verify(dogDetailCacheSpy).invalidate(DOG_ID);
+        verify(dogStatsServiceMock).dogChanged(new DogFacts(null, null, null, null, null), null);
     }
 
     @Test
@@ -173,11 +325,23 @@ class DogServiceTest {
         givenWeExpectDogToBeRetrieved(Optional.empty());
 
         var exception = assertThrows(ResourceNotFoundException.class, () -> {
-            dogService.updateDog(DOG_ID, new UpdateDogRequest());
+            dogService.updateDog(DOG_ID, new UpdateDogRequest(), null);
         });
         assertEquals(DOG_NOT_FOUND_MESSAGE.formatted(DOG_ID), exception.getMessage());
     }
 
+    @Test
+    void shouldErrorWhenRequestToUpdateAnArchivedDog() {
+
+        givenWeExpectDogToBeRetrieved(Optional.empty());
+        when(archivedDogRepositoryMock.existsById(DOG_ID)).thenReturn(true);
+
+        var exception = assertThrows(IllegalStateException.class, () -> {
+            dogService.updateDog(DOG_ID, new UpdateDogRequest(), null);
+        });
+        assertEquals("Dog with ID %d is archived and cannot be changed".formatted(DOG_ID), exception.getMessage());
+    }
+
     @Test
     void shouldErrorWhenRequestToUpdateADeletedDog() {
         PoliceDog policeDog = new PoliceDog();
@@ -186,7 +350,7 @@ class DogServiceTest {
         givenWeExpectDogToBeRetrieved(Optional.of(policeDog));
 
         var exception = assertThrows(IllegalStateException.class, () -> {
-            dogService.updateDog(DOG_ID, new UpdateDogRequest());
+            dogService.updateDog(DOG_ID, new UpdateDogRequest(), null);
         });
 
         assertEquals(CANNOT_UPDATE_DELETED_DOG_MESSAGE.formatted(DOG_ID), exception.getMessage());
@@ -200,7 +364,7 @@ class DogServiceTest {
         givenWeExpectDogToBeRetrieved(Optional.of(policeDog));
 
         var exception = assertThrows(IllegalStateException.class, () -> {
-            dogService.updateDog(DOG_ID, new UpdateDogRequest());
+            dogService.updateDog(DOG_ID, new UpdateDogRequest(), null);
         });
 
         assertEquals(CANNOT_UPDATE_LEFT_DOG_MESSAGE.formatted(DOG_ID), exception.getMessage());
@@ -220,7 +384,7 @@ class DogServiceTest {
         givenBadgeNumberExistsReturns(newBadgeNumber, true);
 
         var exception = assertThrows(IllegalArgumentException.class, () -> {
-            dogService.updateDog(DOG_ID, updateDogRequest);
+            dogService.updateDog(DOG_ID, updateDogRequest, null);
         });
         assertEquals(BADGE_NUMBER_EXISTS_MESSAGE.formatted(newBadgeNumber), exception.getMessage());
     }
@@ -240,7 +404,7 @@ class DogServiceTest {
         givenSupplierNotFound(newSupplierCode, SUPPLIER_NOT_FOUND_MESSAGE.formatted(newSupplierCode));
 
         var exception = assertThrows(RuntimeException.class, () -> {
-            dogService.updateDog(DOG_ID, updateDogRequest);
+            dogService.updateDog(DOG_ID, updateDogRequest, null);
         });
         assertEquals(SUPPLIER_NOT_FOUND_MESSAGE.formatted(newSupplierCode), exception.getMessage());
     }
@@ -264,7 +428,7 @@ class DogServiceTest {
         givenDogEntityUpdatedFromDto(updateDogRequest, policeDog);
         givenSaveCalledOnRepository();
 
-        dogService.updateDog(DOG_ID, updateDogRequest);
+        dogService.updateDog(DOG_ID, updateDogRequest, null);
 
         verify(dogRepositoryMock).save(policeDogArgumentCaptor.capture());
 
@@ -274,6 +438,71 @@ class DogServiceTest {
             assertEquals(newSupplier, updatedDog.getSupplier());
             assertFalse(currentSupplier.getDogs().contains(updatedDog));
         });
+        verify(dogDetailCacheSpy).invalidate(DOG_ID);
+    }
+
+    @Test
+    void shouldRejectUpdateBeforeLoadingDogWhenIfMatchIsStale() {
+        when(dogRepositoryMock.findVersionById(DOG_ID)).thenReturn(Optional.of(new DogVersion(3L, 2L, 5L)));
+
+        var exception = assertThrows(PreconditionFailedException.class,
+                () -> dogService.updateDog(DOG_ID, new UpdateDogRequest(), "\"dog-1-v2-s2-v5\""));
+
+        assertEquals("Dog with ID 1 has been modified", exception.getMessage());
+        verify(dogRepositoryMock, never()).findById(any());
+        verify(dogRepositoryMock, never()).save(any(PoliceDog.class));
+    }
+
+    @Test
+    void shouldRejectUpdateWhenIfMatchPredatesASupplierChange() {
+        when(dogRepositoryMock.findVersionById(DOG_ID)).thenReturn(Optional.of(new DogVersion(3L, 2L, 6L)));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> dogService.updateDog(DOG_ID, new UpdateDogRequest(), "\"dog-1-v3-s2-v5\""));
+
+        verify(dogRepositoryMock, never()).findById(any());
+    }
+
+    @Test
+    void shouldErrorWhenDogNotFoundForConditionalRetire() {
+        when(dogRepositoryMock.findVersionById(DOG_ID)).thenReturn(Optional.empty());
+
+        var exception = assertThrows(ResourceNotFoundException.class,
+                () -> dogService.retireDog(DOG_ID, new RetireDogRequest(), "*"));
+
+        assertEquals(DOG_NOT_FOUND_MESSAGE.formatted(DOG_ID), exception.getMessage());
+    }
+
+    @Test
+    void shouldRetireDogWhenIfMatchIsCurrent() {
+        PoliceDog policeDog = new PoliceDog();
+        policeDog.setStatus(IN_SERVICE);
+        ReflectionTestUtils.setField(policeDog, "version", 3L);
+
+        when(dogRepositoryMock.findVersionById(DOG_ID)).thenReturn(Optional.of(new DogVersion(3L, 2L, 5L)));
+        givenWeExpectDogToBeRetrieved(Optional.of(policeDog));
+        givenSaveCalledOnRepository();
+        givenDogEntityMappedToDetailDto();
+
+        dogService.retireDog(DOG_ID, createRetireDogRequest(), "\"dog-0-v1\", \"dog-1-v3-s2-v5\"");
+
+        verify(dogRepositoryMock).save(policeDog);
+    }
+
+    @Test
+    void shouldRejectRetireWhenDogChangedAfterIfMatchCheck() {
+        PoliceDog policeDog = new PoliceDog();
+        policeDog.setStatus(IN_SERVICE);
+        ReflectionTestUtils.setField(policeDog, "id", DOG_ID);
+        ReflectionTestUtils.setField(policeDog, "version", 4L);
+
+        when(dogRepositoryMock.findVersionById(DOG_ID)).thenReturn(Optional.of(new DogVersion(3L, 2L, 5L)));
+        givenWeExpectDogToBeRetrieved(Optional.of(policeDog));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> dogService.retireDog(DOG_ID, createRetireDogRequest(), "\"dog-1-v3-s2-v5\""));
+
+        verify(dogRepositoryMock, never()).save(any(PoliceDog.class));
     }
 
     @Test
@@ -284,7 +513,7 @@ class DogServiceTest {
         givenWeExpectDogToBeRetrieved(Optional.of(policeDog));
 
         var exception = assertThrows(IllegalStateException.class, () -> {
-            dogService.retireDog(DOG_ID, new RetireDogRequest());
+            dogService.retireDog(DOG_ID, new RetireDogRequest(), null);
         });
 
         assertEquals(CANNOT_RETIRE_DELETED_DOG_MESSAGE.formatted(DOG_ID), exception.getMessage());
@@ -299,7 +528,7 @@ class DogServiceTest {
         givenDogEntityMappedToDetailDto();
 
         assertDoesNotThrow(() -> {
-            dogService.retireDog(DOG_ID, new RetireDogRequest());
+            dogService.retireDog(DOG_ID, new RetireDogRequest(), null);
         });
 
         verify(dogRepositoryMock, never()).save(any(PoliceDog.class));
@@ -315,7 +544,7 @@ class DogServiceTest {
         givenDogEntityMappedToDetailDto();
 
         RetireDogRequest retireDogRequest = createRetireDogRequest();
-        dogService.retireDog(DOG_ID, retireDogRequest);
+        dogService.retireDog(DOG_ID, retireDogRequest, null);
 
         verify(dogRepositoryMock).save(policeDogArgumentCaptor.capture());
 
@@ -326,77 +555,147 @@ class DogServiceTest {
                 () -> assertEquals(retireDogRequest.getLeavingReason(), retiredDog.getLeavingReason()),
                 () -> assertEquals(RETIRED, retiredDog.getStatus())
         );
-
+        verify(dogDetailCacheSpy).invalidate(DOG_ID);
+        verify(dogStatsServiceMock).dogChanged(new DogFacts(IN_SERVICE, null, null, null, null),
+                new DogFacts(RETIRED, null, retireDogRequest.getLeavingReason(), null, null));
     }
 
     @Test
     void shouldErrorWhenDogNotFoundForGetById() {
-        givenWeExpectDogToBeRetrieved(Optional.empty());
+        when(dogRepositoryMock.findDogDetailById(DOG_ID)).thenReturn(Optional.empty());
         var exception = assertThrows(ResourceNotFoundException.class, () -> {
             dogService.getDogById(DOG_ID);
         });
         assertEquals(DOG_NOT_FOUND_MESSAGE.formatted(DOG_ID), exception.getMessage());
     }
 
+    @Test
+    void shouldBuildETagFromDogAndSupplierVersions() {
+        when(dogRepositoryMock.findVersionById(DOG_ID)).thenReturn(Optional.of(new DogVersion(3L, 2L, 5L)));
+
+        assertEquals("\"dog-" + DOG_ID + "-v3-s2-v5\"", dogService.getDogETag(DOG_ID));
+        verifyNoInteractions(archivedDogRepositoryMock);
+    }
+
+    @Test
+    void shouldBuildETagOfArchivedDogWhenNotInRegistry() {
+        when(dogRepositoryMock.findVersionById(DOG_ID)).thenReturn(Optional.empty());
+        when(archivedDogRepositoryMock.findVersionById(DOG_ID)).thenReturn(Optional.of(new DogVersion(7L, null, null)));
+
+        assertEquals("\"dog-" + DOG_ID + "-v7\"", dogService.getDogETag(DOG_ID));
+    }
+
+    @Test
+    void shouldErrorWhenDogNotFoundForETag() {
+        when(dogRepositoryMock.findVersionById(DOG_ID)).thenReturn(Optional.empty());
+        when(archivedDogRepositoryMock.findVersionById(DOG_ID)).thenReturn(Optional.empty());
+
+        var exception = assertThrows(ResourceNotFoundException.class, () -> dogService.getDogETag(DOG_ID));
+        assertEquals(DOG_NOT_FOUND_MESSAGE.formatted(DOG_ID), exception.getMessage());
+    }
+
+    @Test
+    void shouldGetArchivedDogByIdWhenNotInRegistry() {
+        DogDetailDto dogDetailDto = new DogDetailDto();
+        dogDetailDto.setName(DOG_NAME);
+
+        when(dogRepositoryMock.findDogDetailById(DOG_ID)).thenReturn(Optional.empty());
+        when(archivedDogRepositoryMock.findDogDetailById(DOG_ID)).thenReturn(Optional.of(dogDetailDto));
+
+        assertEquals(dogDetailDto, dogService.getDogById(DOG_ID));
+    }
+
     @Test
     void shouldGetDogByIdWhenFound() {
-        PoliceDog policeDog = new PoliceDog();
-        policeDog.setName(DOG_NAME);
+        DogDetailDto dogDetailDto = new DogDetailDto();
+        dogDetailDto.setName(DOG_NAME);
+
+        when(dogRepositoryMock.findDogDetailById(DOG_ID)).thenReturn(Optional.of(dogDetailDto));
+
+        DogDetailDto response = dogService.getDogById(DOG_ID);
+
+        assertEquals(dogDetailDto, response);
+        verifyNoInteractions(entityDtoMapperMock);
+    }
+
+    @Test
+    void shouldServeRepeatedGetByIdFromCacheUntilDogIsUpdated() {
+        DogDetailDto dogDetailDto = new DogDetailDto();
+        dogDetailDto.setName(DOG_NAME);
+        when(dogRepositoryMock.findDogDetailById(DOG_ID)).thenReturn(Optional.of(dogDetailDto));
+
+        dogService.getDogById(DOG_ID);
+        dogService.getDogById(DOG_ID);
+        verify(dogRepositoryMock, times(1)).findDogDetailById(DOG_ID);
 
+        PoliceDog policeDog = new PoliceDog();
+        policeDog.setDeleted(false);
         givenWeExpectDogToBeRetrieved(Optional.of(policeDog));
-        givenDogEntityMappedToDetailDto();
+        dogService.deleteDogById(DOG_ID);
 
         dogService.getDogById(DOG_ID);
+        verify(dogRepositoryMock, times(2)).findDogDetailById(DOG_ID);
+    }
+
+    @Test
+    void shouldNotCacheDogNotFound() {
+        when(dogRepositoryMock.findDogDetailById(DOG_ID)).thenReturn(Optional.empty());
 
-        verify(entityDtoMapperMock).toDogDetailDto(policeDog);
+        assertThrows(ResourceNotFoundException.class, () -> dogService.getDogById(DOG_ID));
+        assertThrows(ResourceNotFoundException.class, () -> dogService.getDogById(DOG_ID));
+
+        verify(dogRepositoryMock, times(2)).findDogDetailById(DOG_ID);
     }
 
     @Test
-    void shouldGetDogsByGender() {
+    void shouldGetActiveDogsByGenderFromFirstPage() {
+        int pageSize = 10;
         Gender genderToSearch = MALE;
-        PoliceDog policeDog = new PoliceDog();
-        DogDetailDto dogDetailDto = new DogDetailDto();
+        List<DogDetailDto> dogs = List.of(new DogDetailDto());
+        PageResponse<DogDetailDto> dogDetailPageResponse = mock(PageResponse.class);
 
-        when(dogRepositoryMock.findAllByGender(genderToSearch)).thenReturn(List.of(policeDog));
-        when(entityDtoMapperMock.toDogDetailDto(policeDog)).thenReturn(dogDetailDto);
+        when(dogRepositoryMock.findDogDetailsByGender(genderToSearch, false, 0L, Limit.of(pageSize + 1))).thenReturn(dogs);
+        when(entityDtoMapperMock.toDogDetailCursorResponse(dogs, pageSize, true)).thenReturn(dogDetailPageResponse);
 
-        List<DogDetailDto> response = dogService.getDogsByGender(genderToSearch);
-        assertAll(() -> {
-            assertEquals(1, response.size());
-            assertEquals(dogDetailDto, response.get(0));
-        });
+        PageResponse<DogDetailDto> response = dogService.getDogsByGender(genderToSearch, false, null, pageSize);
+        assertEquals(dogDetailPageResponse, response);
     }
 
     @Test
-    void shouldGetDogsByStatus() {
+    void shouldGetDogsByStatusAfterCursor() {
+        int pageSize = 10;
         Status statusToSearch = IN_SERVICE;
-        PoliceDog policeDog = new PoliceDog();
-        DogDetailDto dogDetailDto = new DogDetailDto();
+        List<DogDetailDto> dogs = List.of(new DogDetailDto());
+        PageResponse<DogDetailDto> dogDetailPageResponse = mock(PageResponse.class);
 
-        when(dogRepositoryMock.findAllByStatus(statusToSearch)).thenReturn(List.of(policeDog));
-        when(entityDtoMapperMock.toDogDetailDto(policeDog)).thenReturn(dogDetailDto);
+        when(dogRepositoryMock.findDogDetailsByStatus(statusToSearch, false, DOG_ID, Limit.of(pageSize + 1))).thenReturn(dogs);
+        when(entityDtoMapperMock.toDogDetailCursorResponse(dogs, pageSize, false)).thenReturn(dogDetailPageResponse);
 
-        List<DogDetailDto> response = dogService.getDogsByStatus(statusToSearch);
-        assertAll(() -> {
-            assertEquals(1, response.size());
-            assertEquals(dogDetailDto, response.get(0));
-        });
+        PageResponse<DogDetailDto> response = dogService.getDogsByStatus(statusToSearch, false, Pagination.encodeCursor(DOG_ID), pageSize);
+        assertEquals(dogDetailPageResponse, response);
     }
 
     @Test
-    void shouldGetDogsByLeavingReason() {
+    void shouldGetDogsByLeavingReasonIncludingDeleted() {
+        int pageSize = 10;
         LeavingReason leavingReasonToSearch = TRANSFERRED;
-        PoliceDog policeDog = new PoliceDog();
-        DogDetailDto dogDetailDto = new DogDetailDto();
+        List<DogDetailDto> dogs = List.of(new DogDetailDto());
+        PageResponse<DogDetailDto> dogDetailPageResponse = mock(PageResponse.class);
 
-        when(dogRepositoryMock.findAllByLeavingReason(leavingReasonToSearch)).thenReturn(List.of(policeDog));
-        when(entityDtoMapperMock.toDogDetailDto(policeDog)).thenReturn(dogDetailDto);
+        when(dogRepositoryMock.findDogDetailsByLeavingReason(leavingReasonToSearch, true, 0L, Limit.of(pageSize + 1))).thenReturn(dogs);
+        when(entityDtoMapperMock.toDogDetailCursorResponse(dogs, pageSize, true)).thenReturn(dogDetailPageResponse);
 
-        List<DogDetailDto> response = dogService.getDogsByLeavingReason(leavingReasonToSearch);
-        assertAll(() -> {
-            assertEquals(1, response.size());
-            assertEquals(dogDetailDto, response.get(0));
+        PageResponse<DogDetailDto> response = dogService.getDogsByLeavingReason(leavingReasonToSearch, true, null, pageSize);
+        assertEquals(dogDetailPageResponse, response);
+    }
+
+    @Test
+    void shouldErrorWhenPageSizeExceedsLimitForGetDogsByStatus() {
+        var exception = assertThrows(IllegalArgumentException.class, () -> {
+            dogService.getDogsByStatus(IN_SERVICE, false, null, Pagination.MAX_PAGE_SIZE + 1);
         });
+        assertEquals(PAGE_SIZE_LIMIT_MESSAGE, exception.getMessage());
+        verifyNoInteractions(dogRepositoryMock);
     }
 
     private void givenSupplierNotFound(String supplierCode, String exceptionMessage) {
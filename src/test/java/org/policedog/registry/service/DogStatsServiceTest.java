@@ -0,0 +1,132 @@
+package org.policedog.registry.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.policedog.registry.dao.ArchivedDogRepository;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.dao.PoliceDogRepository.DogStatsRow;
+import org.policedog.registry.dto.DogStatsDto;
+import org.policedog.registry.service.DogStatsService.DogFacts;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.policedog.registry.domain.Gender.FEMALE;
+import static org.policedog.registry.domain.Gender.MALE;
+import static org.policedog.registry.domain.LeavingReason.DIED;
+import static org.policedog.registry.domain.Status.*;
+
+@ExtendWith(MockitoExtension.class)
+class DogStatsServiceTest {
+
+    private static final DogFacts REX = new DogFacts(IN_SERVICE, MALE, null, 1L, "ELITE_K9");
+
+    @Mock
+    private PoliceDogRepository dogRepositoryMock;
+    @Mock
+    private ArchivedDogRepository archivedDogRepositoryMock;
+    @InjectMocks
+    private DogStatsService dogStatsService;
+
+    @BeforeEach
+    void setUp() {
+        when(dogRepositoryMock.countDogsForStats()).thenReturn(List.of(
+                new DogStatsRow(IN_SERVICE, MALE, null, 1L, "ELITE_K9", 2L),
+                new DogStatsRow(TRAINING, FEMALE, null, 2L, "ALPHA_DOG", 1L)));
+        dogStatsService.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldCountEveryValueFromTheGroupedQuery() {
+        DogStatsDto stats = dogStatsService.getStats();
+
+        assertEquals(3, stats.getTotal());
+        assertEquals(2, stats.getByStatus().get(IN_SERVICE));
+        assertEquals(1, stats.getByStatus().get(TRAINING));
+        assertEquals(0, stats.getByStatus().get(RETIRED));
+        assertEquals(2, stats.getByGender().get(MALE));
+        assertEquals(0, stats.getByLeavingReason().get(DIED));
+        assertEquals(Map.of("ELITE_K9", 2L, "ALPHA_DOG", 1L), stats.getBySupplier());
+    }
+
+    @Test
+    void shouldCountArchivedDogs() {
+        when(archivedDogRepositoryMock.countDogsForStats()).thenReturn(List.of(
+                new DogStatsRow(RETIRED, MALE, DIED, 1L, "ELITE_K9", 4L)));
+
+        dogStatsService.load();
+
+        DogStatsDto stats = dogStatsService.getStats();
+        assertEquals(7, stats.getTotal());
+        assertEquals(4, stats.getByStatus().get(RETIRED));
+        assertEquals(Map.of("ELITE_K9", 6L, "ALPHA_DOG", 1L), stats.getBySupplier());
+    }
+
+    @Test
+    void shouldMoveCountsWhenDogChanges() {
+        dogStatsService.dogChanged(REX, new DogFacts(RETIRED, MALE, DIED, 2L, "ALPHA_DOG"));
+
+        DogStatsDto stats = dogStatsService.getStats();
+        assertEquals(3, stats.getTotal());
+        assertEquals(1, stats.getByStatus().get(IN_SERVICE));
+        assertEquals(1, stats.getByStatus().get(RETIRED));
+        assertEquals(1, stats.getByLeavingReason().get(DIED));
+        assertEquals(Map.of("ELITE_K9", 1L, "ALPHA_DOG", 2L), stats.getBySupplier());
+    }
+
+    @Test
+    void shouldDropSupplierWhenItsLastDogIsDeleted() {
+        dogStatsService.dogChanged(new DogFacts(TRAINING, FEMALE, null, 2L, "ALPHA_DOG"), null);
+
+        DogStatsDto stats = dogStatsService.getStats();
+        assertEquals(2, stats.getTotal());
+        assertEquals(0, stats.getByGender().get(FEMALE));
+        assertEquals(Map.of("ELITE_K9", 2L), stats.getBySupplier());
+    }
+
+    @Test
+    void shouldApplyChangesOnlyWhenTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        dogStatsService.dogsCreated(List.of(REX, REX));
+        dogStatsService.dogChanged(null, REX);
+
+        assertEquals(3, dogStatsService.getStats().getTotal());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(6, dogStatsService.getStats().getTotal());
+        assertEquals(5, dogStatsService.getStats().getBySupplier().get("ELITE_K9"));
+    }
+
+    @Test
+    void shouldIgnoreChangesOfRolledBackTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        dogStatsService.dogChanged(null, REX);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(3, dogStatsService.getStats().getTotal());
+    }
+
+    @Test
+    void shouldReportRenamedSupplierUnderItsNewCode() {
+        dogStatsService.supplierRenamed(1L, "ELITE_K9_UK");
+
+        assertEquals(Map.of("ELITE_K9_UK", 2L, "ALPHA_DOG", 1L), dogStatsService.getStats().getBySupplier());
+    }
+}
@@ -5,20 +5,42 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.policedog.registry.cache.CountCache;
+import org.policedog.registry.cache.DogDetailCache;
+import org.policedog.registry.cache.SecondLevelCache;
+import org.policedog.registry.dao.PoliceDogRepository;
+import org.policedog.registry.dao.PoliceDogRepository.DogIdVersion;
 import org.policedog.registry.dao.SupplierRepository;
 import org.policedog.registry.domain.Supplier;
+import org.policedog.registry.dto.DogSummaryDto;
+import org.policedog.registry.dto.PageResponse;
 import org.policedog.registry.dto.SupplierDetailDto;
+import org.policedog.registry.dto.SupplierDogsView;
 import org.policedog.registry.dto.SupplierRequest;
 import org.policedog.registry.exception.ResourceNotFoundException;
 import org.policedog.registry.mapper.EntityDtoMapper;
-
+import org.policedog.registry.pagination.Pagination;
+import org.policedog.registry.search.DogTextIndex;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class SupplierServiceTest {
@@ -32,18 +54,63 @@ class SupplierServiceTest {
     @Mock
     private SupplierRepository supplierRepositoryMock;
 
+    @Mock
+    private PoliceDogRepository dogRepositoryMock;
+
     @Mock
     private EntityDtoMapper entityDtoMapperMock;
 
+    @Mock
+    private CountCache countCacheMock;
+
+    @Mock
+    private SecondLevelCache secondLevelCacheMock;
+
+    @Mock
+    private DogDetailCache dogDetailCacheMock;
+
+    @Mock
+    private DogStatsService dogStatsServiceMock;
+    @Mock
+    private DogTextIndex dogTextIndexMock;
+
     @InjectMocks
     private SupplierService supplierService;
 
+    @Test
+    void shouldBuildSupplierETagFromVersionsWithoutLoadingTheSupplier() {
+        when(supplierRepositoryMock.findVersionById(SUPPLIER_ID)).thenReturn(Optional.of(2L));
+        when(dogRepositoryMock.countBySupplierIdAndDeletedFalse(SUPPLIER_ID)).thenReturn(4L);
+        when(dogRepositoryMock.findDogVersionsBySupplier(SUPPLIER_ID))
+                .thenReturn(List.of(new DogIdVersion(3L, 0L), new DogIdVersion(7L, 1L)));
+
+        assertEquals("\"supplier-1-v2\"", supplierService.getSupplierETag(SUPPLIER_ID, SupplierDogsView.NONE));
+        assertEquals("\"supplier-1-v2-n4\"", supplierService.getSupplierETag(SUPPLIER_ID, SupplierDogsView.SUMMARY));
+        String fullETag = supplierService.getSupplierETag(SUPPLIER_ID, SupplierDogsView.FULL);
+
+        assertEquals(fullETag, supplierService.getSupplierETag(SUPPLIER_ID, SupplierDogsView.FULL));
+        when(dogRepositoryMock.findDogVersionsBySupplier(SUPPLIER_ID))
+                .thenReturn(List.of(new DogIdVersion(3L, 0L), new DogIdVersion(7L, 2L)));
+        assertNotEquals(fullETag, supplierService.getSupplierETag(SUPPLIER_ID, SupplierDogsView.FULL));
+        verify(supplierRepositoryMock, never()).findById(any());
+    }
+
+    @Test
+    void shouldErrorWhenSupplierNotFoundForGetSupplierETag() {
+        when(supplierRepositoryMock.findVersionById(SUPPLIER_ID)).thenReturn(Optional.empty());
+
+        Exception exception = assertThrows(ResourceNotFoundException.class,
+                () -> supplierService.getSupplierETag(SUPPLIER_ID, SupplierDogsView.FULL));
+
+        assertEquals(SUPPLIER_WITH_ID_NOT_FOUND_MESSAGE.formatted(SUPPLIER_ID), exception.getMessage());
+    }
+
     @Test
     void shouldErrorWhenSupplierNotFoundForGetSupplierById() {
         givenSupplierByIdReturns(Optional.empty());
 
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
-            supplierService.getSupplierById(SUPPLIER_ID);
+            supplierService.getSupplierById(SUPPLIER_ID, SupplierDogsView.FULL);
         });
 
         assertEquals(SUPPLIER_WITH_ID_NOT_FOUND_MESSAGE.formatted(SUPPLIER_ID), exception.getMessage());
@@ -57,14 +124,67 @@ class SupplierServiceTest {
         givenSupplierByIdReturns(Optional.of(supplier));
         givenSupplierMappedToSupplierDetail(supplier, supplierDetailDto);
 
-        SupplierDetailDto supplierDetailDtoRet = supplierService.getSupplierById(SUPPLIER_ID);
+        SupplierDetailDto supplierDetailDtoRet = supplierService.getSupplierById(SUPPLIER_ID, SupplierDogsView.FULL);
 
         assertEquals(supplierDetailDto, supplierDetailDtoRet);
     }
 
+    @Test
+    void shouldReturnSupplierWithDogCountOnlyForSummaryView() {
+        Supplier supplier = createSupplier();
+        SupplierDetailDto supplierDetailDto = new SupplierDetailDto();
+
+        givenSupplierByIdReturns(Optional.of(supplier));
+        when(entityDtoMapperMock.toSupplierDetailDtoWithoutDogs(supplier)).thenReturn(supplierDetailDto);
+        when(dogRepositoryMock.countBySupplierIdAndDeletedFalse(SUPPLIER_ID)).thenReturn(1250L);
+
+        SupplierDetailDto supplierDetailDtoRet = supplierService.getSupplierById(SUPPLIER_ID, SupplierDogsView.SUMMARY);
+
+        assertEquals(1250L, supplierDetailDtoRet.getDogCount());
+        assertNull(supplierDetailDtoRet.getDogs());
+        verify(entityDtoMapperMock, never()).toSupplierDetailDto(any());
+    }
+
+    @Test
+    void shouldReturnSupplierWithoutDogsForNoneView() {
+        Supplier supplier = createSupplier();
+        SupplierDetailDto supplierDetailDto = new SupplierDetailDto();
+
+        givenSupplierByIdReturns(Optional.of(supplier));
+        when(entityDtoMapperMock.toSupplierDetailDtoWithoutDogs(supplier)).thenReturn(supplierDetailDto);
+
+        SupplierDetailDto supplierDetailDtoRet = supplierService.getSupplierById(SUPPLIER_ID, SupplierDogsView.NONE);
+
+        assertNull(supplierDetailDtoRet.getDogCount());
+        verifyNoInteractions(dogRepositoryMock);
+    }
+
+    @Test
+    void shouldSeekSupplierDogsAfterCursor() {
+        List<DogSummaryDto> dogs = List.of(new DogSummaryDto(8L, "Max", "Belgian Malinois", "K9-008", null, LocalDate.of(2019, 8, 20)));
+        PageResponse<DogSummaryDto> expected = new PageResponse<>(dogs, PageResponse.PageMetadata.cursor(5, false, null));
+
+        when(supplierRepositoryMock.existsById(SUPPLIER_ID)).thenReturn(true);
+        when(dogRepositoryMock.findDogSummariesBySupplier(SUPPLIER_ID, false, 7L, Limit.of(6))).thenReturn(dogs);
+        when(entityDtoMapperMock.toDogSummaryCursorResponse(dogs, 5, false)).thenReturn(expected);
+
+        assertEquals(expected, supplierService.getSupplierDogs(SUPPLIER_ID, false, Pagination.encodeCursor(7L), 5));
+    }
+
+    @Test
+    void shouldErrorWhenSupplierNotFoundForGetSupplierDogs() {
+        when(supplierRepositoryMock.existsById(SUPPLIER_ID)).thenReturn(false);
+
+        Exception exception = assertThrows(ResourceNotFoundException.class,
+                () -> supplierService.getSupplierDogs(SUPPLIER_ID, false, null, 10));
+
+        assertEquals(SUPPLIER_WITH_ID_NOT_FOUND_MESSAGE.formatted(SUPPLIER_ID), exception.getMessage());
+        verifyNoInteractions(dogRepositoryMock);
+    }
+
     @Test
     void shouldErrorWhenSupplierNotFoundForGetSupplierByCode() {
-        when(supplierRepositoryMock.findByCode(SUPPLIER_CODE)).thenReturn(Optional.empty());
+        when(supplierRepositoryMock.findByNaturalCode(SUPPLIER_CODE)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
             supplierService.getSupplierByCode(SUPPLIER_CODE);
@@ -77,13 +197,70 @@ class SupplierServiceTest {
     void shouldReturnSupplierWhenFoundForGetSupplierByCode() {
         Supplier supplier = createSupplier();
 
-        when(supplierRepositoryMock.findByCode(SUPPLIER_CODE)).thenReturn(Optional.of(supplier));
+        when(supplierRepositoryMock.findByNaturalCode(SUPPLIER_CODE)).thenReturn(Optional.of(supplier));
 
         Supplier supplierRet = supplierService.getSupplierByCode(SUPPLIER_CODE);
 
         assertEquals(supplier, supplierRet);
     }
 
+    @Test
+    void shouldGetSuppliersWithCachedTotal() {
+        Supplier supplier = createSupplier();
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("id"));
+        PageResponse<SupplierDetailDto> pageResponse = new PageResponse<>();
+
+        when(supplierRepositoryMock.findAllBy(pageRequest)).thenReturn(new SliceImpl<>(List.of(supplier), pageRequest, false));
+        when(countCacheMock.get(eq(Supplier.class), any(), any())).thenReturn(1L);
+        when(dogRepositoryMock.findDogSummariesBySupplierIds(List.of(SUPPLIER_ID))).thenReturn(List.of(createSupplierDogSummary()));
+        when(entityDtoMapperMock.toSupplierDetailPageResponse(new PageImpl<>(List.of(supplier), pageRequest, 1L),
+                Map.of(SUPPLIER_ID, List.of(createSupplierDogSummary().toDogSummaryDto())))).thenReturn(pageResponse);
+
+        PageResponse<SupplierDetailDto> pageResponseRet = supplierService.getSuppliers(0, 10);
+
+        assertEquals(pageResponse, pageResponseRet);
+    }
+
+    @Test
+    void shouldGetSuppliersSliceWithoutCounting() {
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("id"));
+        Slice<Supplier> slice = new SliceImpl<>(List.of(createSupplier()), pageRequest, true);
+        PageResponse<SupplierDetailDto> pageResponse = new PageResponse<>();
+
+        when(supplierRepositoryMock.findAllBy(pageRequest)).thenReturn(slice);
+        when(dogRepositoryMock.findDogSummariesBySupplierIds(List.of(SUPPLIER_ID))).thenReturn(List.of(createSupplierDogSummary()));
+        when(entityDtoMapperMock.toSupplierDetailSliceResponse(slice,
+                Map.of(SUPPLIER_ID, List.of(createSupplierDogSummary().toDogSummaryDto())))).thenReturn(pageResponse);
+
+        PageResponse<SupplierDetailDto> pageResponseRet = supplierService.getSuppliersSlice(0, 10);
+
+        assertEquals(pageResponse, pageResponseRet);
+        verify(supplierRepositoryMock, never()).count();
+        verifyNoInteractions(countCacheMock);
+    }
+
+    @Test
+    void shouldNotQueryDogsForEmptySupplierPage() {
+        PageRequest pageRequest = PageRequest.of(3, 10, Sort.by("id"));
+        Slice<Supplier> slice = new SliceImpl<>(List.of(), pageRequest, false);
+
+        when(supplierRepositoryMock.findAllBy(pageRequest)).thenReturn(slice);
+
+        supplierService.getSuppliersSlice(3, 10);
+
+        verify(entityDtoMapperMock).toSupplierDetailSliceResponse(slice, Map.of());
+        verifyNoInteractions(dogRepositoryMock);
+    }
+
+    @Test
+    void shouldErrorWhenPageSizeExceedsLimitForGetSuppliers() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            supplierService.getSuppliers(0, 101);
+        });
+
+        assertEquals("Page size must be between 1 and 100", exception.getMessage());
+    }
+
     @Test
     void shouldErrorWhenSupplierCodeExistsForCreateSupplier() {
         givenSupplierCodeExistsReturns(SUPPLIER_CODE, true);
@@ -158,6 +335,9 @@ class SupplierServiceTest {
         SupplierDetailDto supplierDetailDtoRet = supplierService.updateSupplier(SUPPLIER_ID, updateRequest);
 
         assertEquals(supplierDetailDto, supplierDetailDtoRet);
+        verify(secondLevelCacheMock).evictSupplier(SUPPLIER_ID);
+        verify(dogDetailCacheMock).invalidateSupplier(SUPPLIER_ID);
+        verify(dogStatsServiceMock).supplierRenamed(SUPPLIER_ID, existingSupplier.getCode());
     }
 
 
@@ -185,8 +365,13 @@ class SupplierServiceTest {
         when(supplierRepositoryMock.save(any(Supplier.class))).thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
     }
 
+    private PoliceDogRepository.SupplierDogSummary createSupplierDogSummary() {
+        return new PoliceDogRepository.SupplierDogSummary(SUPPLIER_ID, 7L, "Rex", "German Shepherd", "K9-007", null, LocalDate.of(2020, 5, 15));
+    }
+
     private Supplier createSupplier() {
         Supplier supplier = new Supplier();
+        ReflectionTestUtils.setField(supplier, "id", SUPPLIER_ID);
         supplier.setName("Elite K9 Supplies");
         supplier.setCode(SUPPLIER_CODE);
         return supplier;
@@ -0,0 +1,71 @@
+package org.policedog.registry.transaction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransactionHooksTest {
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldRunAfterCommitImmediatelyOutsideATransaction() {
+        TransactionHooks.afterCommit(runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void shouldRunAfterCommitOnlyOnceTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        TransactionHooks.afterCommit(runs::incrementAndGet);
+        assertEquals(0, runs.get());
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void shouldSkipAfterCommitWhenTheTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        TransactionHooks.afterCommit(runs::incrementAndGet);
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void shouldRunNowAndAgainWhenTheTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        TransactionHooks.nowAndAfterCompletion(runs::incrementAndGet);
+        assertEquals(1, runs.get());
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void shouldRunNowOnlyOutsideATransaction() {
+        TransactionHooks.nowAndAfterCompletion(runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+    }
+}